@@ -0,0 +1,98 @@
+package com.typinggame.bench;
+
+import com.typinggame.data.Database;
+import com.typinggame.data.DatabaseConfig;
+import com.typinggame.data.DataGenerator;
+import com.typinggame.model.Session;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Generated SQLite datasets for the repository benchmarks: {@code users} users, {@code drills} drills spread
+ * over 10 levels, and {@code sessionsPerUser} sessions per user, written by {@link DataGenerator} (fixed seed,
+ * so the same parameters always give the same data; best_scores / user_progress are rebuilt to match).
+ * Each dataset is built once and kept under target/bench-data; every trial works on a fresh copy, so write
+ * benchmarks don't change the data later trials see.
+ */
+final class BenchDataset {
+
+    static final int LEVELS = 10;
+    static final int FIRST_DRILL_ID = 10_000; // clear of the baseline catalog's ids
+    private static final long SEED = 42;
+    private static final Path DIR = Path.of("target", "bench-data");
+
+    private BenchDataset() {}
+
+    /** Open a private copy of the dataset as the app's database. */
+    static Path open(int users, int drills, int sessionsPerUser) throws IOException {
+        Path master = DIR.resolve("u" + users + "-d" + drills + "-s" + sessionsPerUser + ".db");
+        if (!Files.exists(master)) build(master, users, drills, sessionsPerUser);
+
+        Path copy = Files.createTempFile("bench-", ".db");
+        Files.copy(master, copy, StandardCopyOption.REPLACE_EXISTING);
+        Database.shutdown();
+        Database.init(DatabaseConfig.defaults().setPath(copy.toString()));
+        return copy;
+    }
+
+    /** Close the database and delete the copy. */
+    static void close(Path copy) throws IOException {
+        Database.shutdown();
+        Files.deleteIfExists(copy);
+        Files.deleteIfExists(Path.of(copy + "-wal"));
+        Files.deleteIfExists(Path.of(copy + "-shm"));
+    }
+
+    private static void build(Path target, int users, int drills, int sessionsPerUser) throws IOException {
+        Files.createDirectories(DIR);
+        Path tmp = DIR.resolve(target.getFileName() + ".part");
+        Files.deleteIfExists(tmp);
+        long start = System.nanoTime();
+
+        Database.shutdown();
+        Database.init(DatabaseConfig.defaults().setPath(tmp.toString()));
+        try {
+            new DataGenerator(DataGenerator.Spec.defaults()
+                    .setUsers(users)
+                    .setDrills(drills)
+                    .setSessions((long) users * sessionsPerUser)
+                    .setActivity(DataGenerator.Activity.UNIFORM)
+                    .setLevels(LEVELS)
+                    .setFirstDrillId(FIRST_DRILL_ID)
+                    .setUsernamePrefix("bench")
+                    .setSeed(SEED))
+                    .generate();
+        } finally {
+            Database.shutdown();
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        System.out.printf("[BenchDataset] built %s in %.1f s%n", target, (System.nanoTime() - start) / 1e9);
+    }
+
+    /** Id of the dataset's first user in the open database (the rest follow consecutively). */
+    static int firstUserId() {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT MIN(id) FROM users WHERE username LIKE 'bench%'");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 1;
+        } catch (SQLException e) {
+            throw new RuntimeException("first user lookup failed", e);
+        }
+    }
+
+    static Session randomSession(Random rnd, int userId, int drillId, Instant at) {
+        double wpm = 20 + rnd.nextDouble() * 80;
+        double accuracy = 80 + rnd.nextDouble() * 20;
+        int chars = 40 + rnd.nextInt(200);
+        return new Session(null, userId, drillId, wpm, accuracy, chars, chars / (wpm * 5 / 60.0), at);
+    }
+}
@@ -0,0 +1,76 @@
+package com.typinggame.bench;
+
+import com.typinggame.model.TypingStats;
+import com.typinggame.service.CalcService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the metric calculations, by drill length:
+ * - CalcService.accuracy / wpm (used when a session is scored);
+ * - TypingStats.updateAccuracy / calculateWPM (the per-keystroke path TypingStats takes: a full rescan of the
+ *   input, and a split of the target for the word count).
+ * The input is the target typed three-quarters of the way with a typo every 20 characters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CalcBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int length;
+
+    private String target;
+    private String typed;
+    private TypingStats stats;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String words = "the quick brown fox jumps over the lazy dog ";
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) sb.append(words);
+        target = sb.substring(0, length);
+
+        char[] in = target.substring(0, length * 3 / 4).toCharArray();
+        for (int i = 19; i < in.length; i += 20) in[i] = '#';
+        typed = new String(in);
+        // the same input every call: updateAccuracy still rescans it all (only new-error counting differs)
+        stats = new TypingStats(target);
+    }
+
+    @Benchmark
+    public double calcAccuracy() {
+        return CalcService.accuracy(target, typed);
+    }
+
+    @Benchmark
+    public double calcWpm() {
+        return CalcService.wpm(typed.length(), 42.5);
+    }
+
+    @Benchmark
+    public double typingStatsUpdateAccuracy() {
+        stats.updateAccuracy(typed, target);
+        return stats.getAccuracy();
+    }
+
+    @Benchmark
+    public int typingStatsCalculateWpm() {
+        return stats.calculateWPM(0.75);
+    }
+}
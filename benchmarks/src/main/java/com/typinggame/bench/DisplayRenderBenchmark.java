@@ -0,0 +1,97 @@
+package com.typinggame.bench;
+
+import com.typinggame.model.TypingDisplayModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-keystroke display cost against drill length. One op types a drill start to finish (with a typo and
+ * its backspace every 20 characters, length * 1.1 keystrokes) and returns the number of nodes touched:
+ * - rebuild: what updateDisplay used to do, one styled element per target character per keystroke
+ *   (headless stand-in for clearing the TextFlow and creating a Text node per character);
+ * - spans: TypingDisplayModel.update plus the span patch the controller applies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DisplayRenderBenchmark {
+
+    @Param({"50", "200", "1000", "5000"})
+    public int length;
+
+    private String target;
+    private String[] keystrokes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        target = StatsEngineBenchmark.text(length);
+        keystrokes = StatsEngineBenchmark.keystrokes(target);
+    }
+
+    /** Old behaviour: a fresh styled element for every character on every keystroke. */
+    @Benchmark
+    public long rebuild() {
+        long nodes = 0;
+        List<Styled> flow = new ArrayList<>();
+        for (String input : keystrokes) {
+            flow.clear();
+            for (int i = 0; i < target.length(); i++) {
+                Styled t = new Styled(String.valueOf(target.charAt(i)));
+                t.fill = i < input.length() ? (input.charAt(i) == target.charAt(i) ? 1 : 2) : 0;
+                flow.add(t);
+            }
+            nodes += flow.size();
+        }
+        return nodes;
+    }
+
+    /** New behaviour: update the span model, then patch only the reported spans. */
+    @Benchmark
+    public long spans() {
+        long nodes = 0;
+        TypingDisplayModel m = new TypingDisplayModel(target);
+        List<Styled> flow = new ArrayList<>();
+        for (TypingDisplayModel.Span s : m.spans()) flow.add(new Styled(m.text(s)));
+        for (String input : keystrokes) {
+            if (m.update(input) == 0) continue;
+            int from = m.changedFrom(), removed = m.removedCount(), added = m.addedCount();
+            int reused = Math.min(removed, added);
+            for (int k = 0; k < reused; k++) {
+                TypingDisplayModel.Span s = m.spans().get(from + k);
+                Styled t = flow.get(from + k);
+                t.text = m.text(s);
+                t.fill = s.state.ordinal();
+            }
+            if (removed > added) flow.subList(from + added, from + removed).clear();
+            for (int k = reused; k < added; k++) flow.add(from + k, new Styled(m.text(m.spans().get(from + k))));
+            nodes += Math.max(removed, added);
+        }
+        return nodes;
+    }
+
+    private static final class Styled {
+        String text;
+        int fill;
+
+        Styled(String text) {
+            this.text = text;
+        }
+    }
+}
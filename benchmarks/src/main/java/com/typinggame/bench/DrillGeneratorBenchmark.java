@@ -0,0 +1,54 @@
+package com.typinggame.bench;
+
+import com.typinggame.util.DrillGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one adaptive drill: DrillGenerator.generate over the bundled corpus with a typical focus set
+ * (8 weak keys + 8 weak bigrams), for a few drill lengths (24 is AdaptiveDrillService.WORDS). The corpus
+ * index is built once in setup, outside the measurement, as in the app.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DrillGeneratorBenchmark {
+
+    @Param({"24", "100", "500"})
+    public int words;
+
+    private DrillGenerator gen;
+    private final Map<String, Double> focus = new LinkedHashMap<>();
+    private final Random rnd = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gen = DrillGenerator.shared();
+        String keys = "zqxjkvbp";
+        for (int i = 0; i < keys.length(); i++) focus.put(String.valueOf(keys.charAt(i)), 400.0 - 20 * i);
+        for (String bigram : new String[] {"th", "qu", "ck", "ng", "ph", "wh", "gr", "e "}) focus.put(bigram, 300.0);
+    }
+
+    @Benchmark
+    public String generate() {
+        return gen.generate(focus, words, rnd);
+    }
+}
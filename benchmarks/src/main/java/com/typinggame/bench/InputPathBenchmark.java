@@ -0,0 +1,244 @@
+package com.typinggame.bench;
+
+import com.typinggame.model.KeystrokePipeline;
+import com.typinggame.model.LiveStats;
+import com.typinggame.model.TypingDisplayModel;
+import com.typinggame.util.LiveChartFeed;
+import com.typinggame.util.SampleRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless run of the game screen's input path: a synthetic typist at a given WPM and error rate drives
+ * KeystrokePipeline (the same stats / keystroke log / display / live stats / chart path the controller
+ * uses), plus stand-ins for the JavaFX side the controller adds on top: patching one node per changed span,
+ * the once-per-frame label update and the 30 fps chart push (decimation into 50 points per line, written
+ * into the existing points).
+ * - keystroke: one key, i.e. the field edit, the key event and the node patch. Frames that fall due and
+ *   the next drill are handled between invocations, outside the samples.
+ * - frame: one 60 Hz pulse after the keys typed since the previous one (typed between invocations), so
+ *   pulses with nothing to do are sampled too.
+ * Sampled, so the output has latency percentiles. Mistakes are typed, then backspaced, then corrected
+ * (three keys). Add -prof gc for allocation and GC counts; its B/op includes the untimed work between
+ * invocations, i.e. a key's share of the frames (keystroke) or a frame's share of the keys (frame). E.g.
+ *   java -jar benchmarks/target/benchmarks.jar InputPath -prof gc -rf json -rff input-path.json
+ * and gate a release on the p0.99 of keystroke from the JSON.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputPathBenchmark {
+
+    private static final String[] WORDS = ("the quick brown fox jumps over lazy dog while seven wizards " +
+            "quietly pack boxes with liquor jugs and amazing vexed zebras hop back from the frozen quay").split(" ");
+    private static final int DRILL_WORDS = 40;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+    private static final long CHART_NANOS = 1_000_000_000L / LiveChartFeed.FRAMES_PER_SECOND;
+    private static final int BACKSPACE = 8;
+
+    @Param({"60", "120", "180", "250"})
+    public int wpm;
+
+    @Param({"0", "0.02", "0.08"})
+    public double errors;
+
+    private Random rnd;
+    private long keyNanos;                // mean gap between keystrokes at this WPM (5 chars per word)
+    private boolean frames;               // running the frame benchmark rather than keystroke
+
+    private final SampleRing[] rings = new SampleRing[3];
+    private final double[] bufX = new double[LiveChartFeed.MAX_POINTS];
+    private final double[] bufY = new double[LiveChartFeed.MAX_POINTS];
+    private final double[][][] points = new double[3][LiveChartFeed.MAX_POINTS][2];   // the chart's points
+    private final LiveStats live = new LiveStats();
+    private KeystrokePipeline pipeline;
+    private final List<Node> flow = new ArrayList<>();
+    private final StringBuilder input = new StringBuilder();
+
+    private final char[] script = new char[3];   // keys still to type for the current target char
+    private int scriptAt, scriptLength;
+    private char next;                           // the key the next keystroke() types
+
+    private long clock;                          // synthetic time since the session began
+    private long roundStart;
+    private long nextFrame, nextChart;
+    private boolean frameRequested, chartDirty;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        frames = params.getBenchmark().endsWith(".frame");
+        rnd = new Random(42);
+        keyNanos = 60_000_000_000L / (wpm * 5L);
+        for (int i = 0; i < rings.length; i++) rings[i] = new SampleRing(LiveChartFeed.CAPACITY);
+        pipeline = new KeystrokePipeline(live, (line, x, y) -> {
+            rings[line].add(x, y);
+            chartDirty = true;
+        });
+        newRound(drill());
+    }
+
+    /** Untimed: the keystroke benchmark gets its next key, the frame benchmark the keys before its pulse. */
+    @Setup(Level.Invocation)
+    public void prepare() {
+        if (frames) {
+            while (clock + keyNanos < nextFrame) {
+                char c = nextKey();
+                clock += gap();
+                key(c);
+            }
+            return;
+        }
+        next = nextKey();
+        clock += gap();
+        while (clock >= nextFrame) {
+            frame(nextFrame);
+            nextFrame += FRAME_NANOS;
+        }
+    }
+
+    @Benchmark
+    public int keystroke() {
+        return key(next);
+    }
+
+    @Benchmark
+    public int frame() {
+        int work = frame(nextFrame);
+        nextFrame += FRAME_NANOS;
+        return work;
+    }
+
+    /** The next key of the typist's script; starts a new drill once the current one is typed. */
+    private char nextKey() {
+        if (scriptAt == scriptLength) {
+            String target = pipeline.target();
+            if (input.length() == target.length()) {
+                newRound(drill());
+                target = pipeline.target();
+            }
+            char expected = target.charAt(input.length());
+            scriptAt = scriptLength = 0;
+            if (rnd.nextDouble() < errors) {
+                script[scriptLength++] = expected == 'x' ? 'z' : 'x';
+                script[scriptLength++] = '\b';
+            }
+            script[scriptLength++] = expected;
+        }
+        return script[scriptAt++];
+    }
+
+    /** ±50% jitter around the mean gap. */
+    private long gap() {
+        return keyNanos / 2 + (long) (rnd.nextDouble() * keyNanos);
+    }
+
+    private void newRound(String target) {
+        pipeline.start(target);
+        live.reset();
+        for (SampleRing r : rings) r.clear();
+        input.setLength(0);
+        flow.clear();
+        for (TypingDisplayModel.Span s : pipeline.display().spans()) flow.add(new Node(pipeline.display().text(s), s.state));
+        roundStart = clock;
+    }
+
+    /** One key: the field edit, the key event, the node patch. */
+    private int key(char c) {
+        int oldLength = input.length();
+        if (c == '\b') {
+            input.setLength(oldLength - 1);
+            pipeline.edit(clock, oldLength, oldLength - 1, oldLength, "", input.toString(), BACKSPACE);
+        } else {
+            input.append(c);
+            pipeline.edit(clock, oldLength, oldLength, oldLength, String.valueOf(c), input.toString(), c);
+        }
+        KeystrokePipeline.Feedback fb = pipeline.keyTyped(input.toString(), (clock - roundStart) / 1_000_000L);
+        patch(pipeline.display());
+        if (live.hasChanges()) frameRequested = true;
+        return fb.ordinal();
+    }
+
+    /** Stand-in for the FX pulse: FrameScheduler's label update and LiveChartFeed's chart push. */
+    private int frame(long now) {
+        int work = 0;
+        if (frameRequested) {
+            frameRequested = false;
+            int changed = live.takeChanges();
+            if ((changed & LiveStats.WPM) != 0) work += ("WPM: " + live.getWpm()).length();
+            if ((changed & LiveStats.ACCURACY) != 0) work += String.format("Accuracy: %.2f%%", live.getAccuracy()).length();
+            if ((changed & LiveStats.STREAK) != 0) work += ("Streak: " + live.getStreak()).length();
+            if ((changed & LiveStats.RANK) != 0) work += live.getRank() == null ? 0 : live.getRank().ordinal();
+        }
+        if (chartDirty && now >= nextChart) {
+            chartDirty = false;
+            nextChart = now + CHART_NANOS;
+            for (int i = 0; i < rings.length; i++) {
+                int n = rings[i].decimate(LiveChartFeed.MAX_POINTS, bufX, bufY);
+                for (int p = 0; p < n; p++) {
+                    points[i][p][0] = bufX[p];
+                    points[i][p][1] = bufY[p];
+                }
+                work += n;
+            }
+        }
+        return work;
+    }
+
+    /** What the controller's patchDisplay does to the TextFlow, on plain objects. */
+    private void patch(TypingDisplayModel m) {
+        int removed = m.removedCount(), added = m.addedCount();
+        if (removed == 0 && added == 0) return;
+        int from = m.changedFrom();
+        int reused = Math.min(removed, added);
+        for (int k = 0; k < reused; k++) {
+            TypingDisplayModel.Span s = m.spans().get(from + k);
+            Node node = flow.get(from + k);
+            String text = m.text(s);
+            if (!text.equals(node.text)) node.text = text;
+            node.state = s.state;
+        }
+        if (removed > added) flow.subList(from + added, from + removed).clear();
+        for (int k = reused; k < added; k++) {
+            TypingDisplayModel.Span s = m.spans().get(from + k);
+            flow.add(from + k, new Node(m.text(s), s.state));
+        }
+    }
+
+    private String drill() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < DRILL_WORDS; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[rnd.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static final class Node {
+        String text;
+        TypingDisplayModel.State state;
+
+        Node(String text, TypingDisplayModel.State state) {
+            this.text = text;
+            this.state = state;
+        }
+    }
+}
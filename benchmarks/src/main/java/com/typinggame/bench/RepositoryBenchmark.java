@@ -0,0 +1,94 @@
+package com.typinggame.bench;
+
+import com.typinggame.data.LeaderboardRepository;
+import com.typinggame.data.SessionRepository;
+import com.typinggame.model.Session;
+import com.typinggame.service.ProgressService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository hot paths against a generated dataset of users x drills x sessions ({@link BenchDataset}):
+ * - SessionRepository.insert: one finished session, including the best_scores / user_progress upkeep;
+ * - LeaderboardRepository.topByBestScoreForDrill: the per-drill leaderboard (top 10);
+ * - ProgressService.unlockedUpTo: the level unlock lookup done when the game screen opens.
+ * Users and drills are picked at random each call so the page cache isn't always hot for one row.
+ * Change the size with -p users=... -p drills=... -p sessionsPerUser=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"100", "1000"})
+    public int users;
+
+    @Param({"100"})
+    public int drills;
+
+    @Param({"20"})
+    public int sessionsPerUser;
+
+    private Path db;
+    private int firstUser;
+    private final Random rnd = new Random(7);
+    private final SessionRepository sessions = new SessionRepository();
+    private final LeaderboardRepository leaderboard = new LeaderboardRepository();
+    private ProgressService progress;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        db = BenchDataset.open(users, drills, sessionsPerUser);
+        firstUser = BenchDataset.firstUserId();
+        progress = new ProgressService();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        BenchDataset.close(db);
+    }
+
+    @Benchmark
+    public Session sessionInsert() {
+        return sessions.insert(BenchDataset.randomSession(rnd, randomUser(), randomDrill(), Instant.now()));
+    }
+
+    @Benchmark
+    public List<LeaderboardRepository.LeaderboardRow> leaderboardTopForDrill() {
+        return leaderboard.topByBestScoreForDrill(randomDrill(), 10);
+    }
+
+    @Benchmark
+    public int progressUnlockedUpTo() {
+        return progress.unlockedUpTo(randomUser());
+    }
+
+    private int randomUser() {
+        return firstUser + rnd.nextInt(users);
+    }
+
+    private int randomDrill() {
+        return BenchDataset.FIRST_DRILL_ID + rnd.nextInt(drills);
+    }
+}
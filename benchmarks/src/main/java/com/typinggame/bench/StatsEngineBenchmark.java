@@ -0,0 +1,108 @@
+package com.typinggame.bench;
+
+import com.typinggame.model.TypingStats;
+import com.typinggame.model.TypingStatsEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-keystroke stats cost, TypingStats (rescan input + split target for WPM) against TypingStatsEngine
+ * (one insert/delete event). One op is a drill typed start to finish, with a typo and its backspace every
+ * 20 characters, followed each time by the accuracy and WPM reads the controller does per key; divide by
+ * length * 1.1 for the cost per keystroke.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StatsEngineBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int length;
+
+    private String target;
+    private String[] inputs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        target = text(length);
+        inputs = keystrokes(target);
+    }
+
+    /** Old path: the whole input string goes through update/updateAccuracy on each keystroke. */
+    @Benchmark
+    public void typingStats(Blackhole bh) {
+        TypingStats stats = new TypingStats(target);
+        for (String input : inputs) {
+            stats.update(input);
+            stats.updateAccuracy(input, target);
+            bh.consume(stats.getAccuracy());
+            bh.consume(stats.calculateWPM(0.5));
+        }
+        bh.consume(stats.isComplete());
+    }
+
+    /** New path: one event per keystroke. Replays the same sequence as keystrokes(). */
+    @Benchmark
+    public void engine(Blackhole bh) {
+        TypingStatsEngine engine = new TypingStatsEngine(target);
+        int pos = 0;
+        for (int i = 0; i < target.length(); i++) {
+            if (i % 20 == 19) {
+                engine.insert(pos, '#');
+                read(engine, bh);
+                engine.delete(pos);
+                read(engine, bh);
+            }
+            engine.insert(pos++, target.charAt(i));
+            read(engine, bh);
+        }
+        bh.consume(engine.isComplete());
+    }
+
+    private static void read(TypingStatsEngine engine, Blackhole bh) {
+        bh.consume(engine.getAccuracy());
+        bh.consume(engine.calculateWPM(0.5));
+    }
+
+    /** The input after each keystroke, for the TypingStats path. */
+    static String[] keystrokes(String target) {
+        List<String> out = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < target.length(); i++) {
+            if (i % 20 == 19) {
+                sb.append('#');
+                out.add(sb.toString());
+                sb.setLength(sb.length() - 1);
+                out.add(sb.toString());
+            }
+            sb.append(target.charAt(i));
+            out.add(sb.toString());
+        }
+        return out.toArray(new String[0]);
+    }
+
+    static String text(int len) {
+        String words = "the quick brown fox jumps over the lazy dog ";
+        StringBuilder sb = new StringBuilder(len);
+        while (sb.length() < len) sb.append(words);
+        return sb.substring(0, len);
+    }
+}
@@ -12,7 +12,12 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import java.net.URL;
 import com.typinggame.data.Database;
+import com.typinggame.service.SessionWriteBehind;
 import com.typinggame.api.ApiServer;
+import com.typinggame.util.ImageCache;
+import com.typinggame.util.SceneCache;
+import com.typinggame.util.SoundEngine;
+import com.typinggame.util.SentenceProvider;
 
 public class MainApp extends Application {
 
@@ -25,6 +30,11 @@ public class MainApp extends Application {
         Database.init();
         System.out.println("[Init] Database initialized.");
 
+        // Map the sentence corpus (if any) in the background; drills started before it's ready use the pangram
+        Thread corpusLoader = new Thread(SentenceProvider::corpus, "corpus-loader");
+        corpusLoader.setDaemon(true);
+        corpusLoader.start();
+
         // --- NEW: start local API server ---
 //        try {
 //            new ApiServer().start(18080);
@@ -77,6 +87,20 @@ public class MainApp extends Application {
         System.out.println("[Stage] Login screen displayed.");
     }
 
+    /**
+     * Writes out any sessions still queued, then closes the pooled database connections on exit.
+     * Also logs the per-view load times collected by the scene cache and the image cache counters.
+     */
+    @Override
+    public void stop() {
+        SceneCache.shared().stats().forEach(stat -> System.out.println("[SceneCache] " + stat));
+        System.out.println("[ImageCache] " + ImageCache.shared().stats());
+        SoundEngine sound = SoundEngine.sharedIfStarted();
+        if (sound != null) System.out.println("[SoundEngine] " + sound.stats());
+        SessionWriteBehind.shutdownShared(5_000);
+        Database.shutdown();
+    }
+
     /**
      * Utility method to load FXML files safely.
      * @param path the resource path to the FXML file
@@ -0,0 +1,93 @@
+package com.typinggame.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and a latency histogram for ApiServer, safe to update from many handler threads.
+ * - Latency is time spent in the handler (routing, repository call, writing the response), in microseconds.
+ * - The histogram is log-linear: exact below 8 us, then 8 buckets per power of two (within 12.5%), so
+ *   percentiles cost no allocation and recording is a single atomic increment.
+ * - Shed requests (503 from the in-flight limit) are counted separately and not timed.
+ */
+final class ApiMetrics {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long maxMicros;
+
+    /** A request entered a handler. */
+    void begin() {
+        int now = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(now, Math::max);
+    }
+
+    /** The request that called {@link #begin()} finished with the given status. */
+    void end(long startNanos, int status) {
+        inFlight.decrementAndGet();
+        long micros = Math.max(0, (System.nanoTime() - startNanos) / 1_000);
+        requests.increment();
+        if (status >= 500) errors.increment();
+        totalMicros.add(micros);
+        histogram.incrementAndGet(bucket(micros));
+        if (micros > maxMicros) maxMicros = micros;   // racy max is fine for reporting
+    }
+
+    /** A request was rejected by the in-flight limit. */
+    void shed() {
+        shed.increment();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    ApiServer.Stats snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        long n = requests.sum();
+        return new ApiServer.Stats(n, shed.sum(), errors.sum(), inFlight.get(), maxInFlight.get(),
+                n == 0 ? 0 : (double) totalMicros.sum() / n,
+                percentile(counts, total, 0.50), percentile(counts, total, 0.99), maxMicros);
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB) return (int) micros;
+        int exp = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    /** Largest value that falls in the bucket. */
+    static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1;
+        long lower = (long) (SUB + bucket % SUB) << (exp - SUB_BITS);
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double p) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(counts.length - 1);
+    }
+}
@@ -13,6 +13,14 @@ import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,22 +32,185 @@ import java.util.regex.Pattern;
  *  - POST   /api/drills        -> create custom drill (JSON or text/plain)
  *  - GET    /api/drills        -> list all drills (use ?custom=true for only custom)
  *  - DELETE /api/drills/{id}   -> delete a custom drill by ID
+ *  - GET    /api/metrics       -> request counts and handler latency (see {@link Stats})
+ *
+ * Concurrency (see {@link ApiServerConfig}):
+ *  - Handlers run on virtual threads by default instead of HttpServer's single dispatcher thread, so a slow
+ *    request no longer holds up every other connection. Reads are served from the drill catalog cache and
+ *    writes go through the pooled writer connection, so many handlers can run at once.
+ *  - At most maxInFlight /api/drills requests are handled concurrently; beyond that the server answers 503
+ *    with Retry-After straight away rather than letting work pile up. With the fixed pool, requests waiting
+ *    for a thread count too (see {@link #fixedPool}); on the dispatcher thread nothing is ever shed.
+ *  - Responses always carry a Content-Length, so HTTP/1.1 connections stay open for the next request, and
+ *    TCP_NODELAY is on so a response isn't held back waiting for the client's ACK.
  */
 public class ApiServer {
+    static {
+        // HttpServer writes headers and body separately; with Nagle on, a keep-alive client's delayed ACK
+        // stalls every response by ~40 ms. Read once when HttpServer's config class loads, so set it here.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
     private final DrillRepository drills = new DrillRepository(); // backing repo
+    private final ApiMetrics metrics = new ApiMetrics();
     private HttpServer server;
+    ExecutorService executor;          // null when running on the dispatcher thread; package-private for tests
+    Semaphore inFlight;                // null when unlimited; package-private for tests
 
-    /** Start the embedded HTTP server on a given port. */
+    /** Start the embedded HTTP server on a given port with the default config. */
     public void start(int port) throws IOException {
-        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
-        server.createContext("/api/drills", new DrillsHandler());
-        server.setExecutor(null); // default executor
+        start(port, ApiServerConfig.defaults());
+    }
+
+    /** Start the embedded HTTP server on a given port (0 picks a free one, see {@link #port()}). */
+    public void start(int port, ApiServerConfig config) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(config.getHost(), port), config.getBacklog());
+        inFlight = config.getMaxInFlight() > 0 ? new Semaphore(config.getMaxInFlight()) : null;
+        server.createContext("/api/drills", new Limited(new DrillsHandler()));
+        server.createContext("/api/metrics", new MetricsHandler());
+
+        executor = switch (config.getExecutor()) {
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-", 0).factory());
+            case FIXED -> fixedPool(config);
+            case DISPATCHER -> null;
+        };
+        server.setExecutor(executor); // null = HttpServer's dispatcher thread
         server.start();
-        System.out.println("API listening on http://127.0.0.1:" + port);
+        System.out.println("API listening on http://" + config.getHost() + ":" + port() + " (" + config + ")");
+    }
+
+    /** Set on the dispatcher thread while it runs an exchange the full fixed pool turned away. */
+    private static final ThreadLocal<Boolean> OVERFLOW = new ThreadLocal<>();
+
+    /**
+     * The FIXED pool with a bounded queue, so running + queued requests stay within maxInFlight. With an
+     * unbounded queue the semaphore in {@link Limited} never fills (only pool threads reach it) and overload
+     * just grows the queue. When the queue is full the dispatcher runs the exchange itself with
+     * {@link #OVERFLOW} set, and Limited answers it with an immediate 503.
+     */
+    private static ExecutorService fixedPool(ApiServerConfig config) {
+        int threads = config.getThreads();
+        int max = config.getMaxInFlight();
+        BlockingQueue<Runnable> queue = max == 0
+                ? new LinkedBlockingQueue<>()
+                : new ArrayBlockingQueue<>(Math.max(1, max - threads));
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("api-", 0).factory(),
+                (task, pool) -> {
+                    if (pool.isShutdown()) return;   // server is stopping
+                    OVERFLOW.set(Boolean.TRUE);
+                    try {
+                        task.run();
+                    } finally {
+                        OVERFLOW.remove();
+                    }
+                });
+    }
+
+    /** Stop the server (no delay) and its executor. */
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /** Port the server is bound to. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Counters and latency since start. */
+    public Stats stats() {
+        return metrics.snapshot();
+    }
+
+    /** Snapshot of the server's request metrics; latencies are handler time in microseconds. */
+    public static class Stats {
+        public final long requests;
+        public final long shed;
+        public final long serverErrors;
+        public final int inFlight;
+        public final int maxInFlight;
+        public final double meanMicros;
+        public final long p50Micros;
+        public final long p99Micros;
+        public final long maxMicros;
+
+        public Stats(long requests, long shed, long serverErrors, int inFlight, int maxInFlight,
+                     double meanMicros, long p50Micros, long p99Micros, long maxMicros) {
+            this.requests = requests;
+            this.shed = shed;
+            this.serverErrors = serverErrors;
+            this.inFlight = inFlight;
+            this.maxInFlight = maxInFlight;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"requests\":%d,\"shed\":%d,\"serverErrors\":%d,\"inFlight\":%d,\"maxInFlight\":%d," +
+                            "\"meanMicros\":%.1f,\"p50Micros\":%d,\"p99Micros\":%d,\"maxMicros\":%d}",
+                    requests, shed, serverErrors, inFlight, maxInFlight, meanMicros, p50Micros, p99Micros, maxMicros);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "api{requests=%d shed=%d 5xx=%d inFlight=%d maxInFlight=%d mean=%.0fus p50=%dus p99=%dus max=%dus}",
+                    requests, shed, serverErrors, inFlight, maxInFlight, meanMicros, p50Micros, p99Micros, maxMicros);
+        }
     }
 
-    /** Stop the server (no delay). */
-    public void stop() { if (server != null) server.stop(0); }
+    /**
+     * Applies the in-flight limit and records timing around a handler.
+     * Over the limit the request is answered with 503 + Retry-After without touching the repository.
+     */
+    class Limited implements HttpHandler {
+        private final HttpHandler next;
+
+        Limited(HttpHandler next) { this.next = next; }
+
+        @Override
+        public void handle(HttpExchange ex) throws IOException {
+            Semaphore limit = inFlight;
+            if (OVERFLOW.get() != null || (limit != null && !limit.tryAcquire())) {
+                metrics.shed();
+                ex.getRequestBody().readAllBytes();   // drain so the connection can be reused
+                ex.getResponseHeaders().set("Retry-After", "1");
+                sendBytes(ex, 503, "{\"error\":\"overloaded\"}");
+                return;
+            }
+            long start = System.nanoTime();
+            metrics.begin();
+            try {
+                next.handle(ex);
+            } finally {
+                metrics.end(start, ex.getResponseCode());
+                if (limit != null) limit.release();
+            }
+        }
+    }
+
+    /** Handler for GET /api/metrics. */
+    class MetricsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange ex) throws IOException {
+            if (!"GET".equals(ex.getRequestMethod())) { sendBytes(ex, 405, "{\"error\":\"Method Not Allowed\"}"); return; }
+            sendBytes(ex, 200, stats().toJson());
+        }
+    }
+
+    /** Write JSON response with status code. */
+    static void sendBytes(HttpExchange ex, int code, String body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        byte[] b = body.getBytes(StandardCharsets.UTF_8);
+        ex.sendResponseHeaders(code, b.length);
+        try (OutputStream os = ex.getResponseBody()) { os.write(b); }
+    }
 
     /**
      * Handler for all /api/drills routes.
@@ -144,10 +315,7 @@ public class ApiServer {
 
         /** Write JSON response with status code. */
         private void send(HttpExchange ex, int code, String body) throws IOException {
-            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
-            byte[] b = body.getBytes(StandardCharsets.UTF_8);
-            ex.sendResponseHeaders(code, b.length);
-            try (OutputStream os = ex.getResponseBody()) { os.write(b); }
+            sendBytes(ex, code, body);
         }
 
         /** Simple helper for small JSON messages. */
@@ -0,0 +1,92 @@
+package com.typinggame.api;
+
+/**
+ * Settings handed to {@link ApiServer#start(int, ApiServerConfig)}: which executor runs the handlers, how many
+ * requests may be in flight before new ones are shed with 503, and the listen backlog.
+ * Defaults run each request on its own virtual thread (handlers mostly wait on SQLite and the socket) with at
+ * most 256 in flight. Setters return {@code this} so a config can be built inline.
+ */
+public class ApiServerConfig {
+
+    /** What runs the request handlers. */
+    public enum Executor {
+        /** One virtual thread per request. */
+        VIRTUAL,
+        /** A fixed pool of platform threads ({@link #setThreads}); requests waiting for a thread count as in flight. */
+        FIXED,
+        /**
+         * HttpServer's own dispatcher thread: one request at a time (the original behaviour). Never sheds:
+         * waiting requests sit in the accept backlog, not behind the in-flight limit.
+         */
+        DISPATCHER
+    }
+
+    /** Interface to bind; the API is local-only. */
+    private String host = "127.0.0.1";
+
+    private Executor executor = Executor.VIRTUAL;
+
+    /** Pool size for {@link Executor#FIXED}. */
+    private int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Requests handled concurrently; the rest get 503 + Retry-After instead of queueing (0 = no limit).
+     * For FIXED this includes requests queued for a pool thread; DISPATCHER ignores it.
+     */
+    private int maxInFlight = 256;
+
+    /** TCP accept backlog (0 = system default). */
+    private int backlog = 128;
+
+    /** A config with all defaults. */
+    public static ApiServerConfig defaults() {
+        return new ApiServerConfig();
+    }
+
+    public String getHost() { return host; }
+
+    public ApiServerConfig setHost(String host) {
+        if (host == null || host.isBlank()) throw new IllegalArgumentException("host must not be empty");
+        this.host = host;
+        return this;
+    }
+
+    public Executor getExecutor() { return executor; }
+
+    public ApiServerConfig setExecutor(Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("executor must not be null");
+        this.executor = executor;
+        return this;
+    }
+
+    public int getThreads() { return threads; }
+
+    public ApiServerConfig setThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        this.threads = threads;
+        return this;
+    }
+
+    public int getMaxInFlight() { return maxInFlight; }
+
+    public ApiServerConfig setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 0) throw new IllegalArgumentException("maxInFlight must be >= 0");
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public int getBacklog() { return backlog; }
+
+    public ApiServerConfig setBacklog(int backlog) {
+        if (backlog < 0) throw new IllegalArgumentException("backlog must be >= 0");
+        this.backlog = backlog;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ApiServerConfig{host=" + host + ", executor=" + executor
+                + (executor == Executor.FIXED ? ", threads=" + threads : "")
+                + ", maxInFlight=" + maxInFlight + ", backlog=" + backlog + '}';
+    }
+}
@@ -1,8 +1,8 @@
 
 package com.typinggame.controller;
 
+import com.typinggame.util.SceneCache;
 import javafx.event.ActionEvent;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -21,7 +21,8 @@ public class Controller {
                 return false;
             }
 
-            Parent root = FXMLLoader.load(getClass().getResource(fxmlFile));
+            // Common views are kept and reused (see SceneCache); others are loaded fresh
+            Parent root = SceneCache.shared().acquire(fxmlFile);
             Stage stage = (Stage)((Node) event.getSource()).getScene().getWindow();
             Scene currentScene = stage.getScene();
 
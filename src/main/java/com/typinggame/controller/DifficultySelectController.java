@@ -6,6 +6,7 @@ import com.typinggame.data.SqliteUserRepository;
 import com.typinggame.data.UserManager;
 import com.typinggame.model.Drill;
 import com.typinggame.service.ProgressService;
+import com.typinggame.util.Refreshable;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -15,7 +16,7 @@ import java.util.List;
 /**
  * Selects difficulty (levels 1–10) and locks higher ones until previous are completed.
  */
-public class DifficultySelectController extends Controller {
+public class DifficultySelectController extends Controller implements Refreshable {
 
     private final DrillRepository drillRepo = new DrillRepository();
     private final ProgressService progress  = new ProgressService();
@@ -25,6 +26,12 @@ public class DifficultySelectController extends Controller {
 
     @FXML
     public void initialize() {
+        refresh();
+    }
+
+    /** Re-reads the user's progress so a cached view shows newly unlocked levels. */
+    @Override
+    public void refresh() {
         int userId = resolveUserId();
         int unlockedUpTo = progress.unlockedUpTo(userId);
         System.out.println("[DifficultySelect] userId=" + userId + " unlockedUpTo=" + unlockedUpTo);
@@ -10,6 +10,7 @@ import com.typinggame.service.LeaderboardService;
 import com.typinggame.service.ProgressService;
 import com.typinggame.util.Rank;
 import com.typinggame.util.RankLoader;
+import com.typinggame.util.Refreshable;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -25,7 +26,7 @@ import javafx.scene.text.Font;
 import java.io.IOException;
 import java.util.List;
 
-public class LeaderboardsController extends Controller { // <-- extend Controller
+public class LeaderboardsController extends Controller implements Refreshable { // <-- extend Controller
 
     @FXML private Button backButton;
     @FXML private ComboBox<Drill> drillSelect;
@@ -34,6 +35,9 @@ public class LeaderboardsController extends Controller { // <-- extend Controlle
     @FXML private TableColumn<LeaderboardService.Row, Number> colScore;
     @FXML private  TableColumn<LeaderboardService.Row, Image> colRank;
 
+    // rank badge height in the table (badges are decoded at this size)
+    private static final int BADGE_SIZE = 128;
+
     private LeaderboardService leaderboardService;
     private DrillService drillService;
 
@@ -46,21 +50,12 @@ public class LeaderboardsController extends Controller { // <-- extend Controlle
         customizeColumnHeader(colName, "User");
         customizeColumnHeader(colScore, "Score (WPM×Acc)");
 
-        User current = AppContext.userManager.getCurrentUser();
-        int userId = current.getUserID();
-
-        List<Drill> unlocked = drillService.listUnlocked(userId);
-        drillSelect.setItems(FXCollections.observableArrayList(unlocked));
-        if (!unlocked.isEmpty()) {
-            drillSelect.getSelectionModel().selectFirst();
-        }
-
         colName.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().name));
         colScore.setCellValueFactory(c -> new SimpleDoubleProperty(c.getValue().score));
 
         colRank.setCellValueFactory(c -> {
             var rank = Rank.forTypingSpeed(c.getValue().wpm);
-            Image rankImage = RankLoader.loadIcon(rank);
+            Image rankImage = RankLoader.loadIcon(rank, BADGE_SIZE);
             return new SimpleObjectProperty<>(rankImage);
         });
 
@@ -68,7 +63,7 @@ public class LeaderboardsController extends Controller { // <-- extend Controlle
             private final ImageView view = new ImageView();
             {
                 view.setPreserveRatio(true);
-                view.setFitHeight(128);
+                view.setFitHeight(BADGE_SIZE);
                 view.setSmooth(true);
             }
 
@@ -84,7 +79,22 @@ public class LeaderboardsController extends Controller { // <-- extend Controlle
             }
         });
         drillSelect.getSelectionModel().selectedItemProperty().addListener((obs, oldV, newV) -> refreshTable());
-        refreshTable();
+        refresh();
+    }
+
+    /** Reloads the current user's unlocked drills and the scores, so a cached view is up to date. */
+    @Override
+    public void refresh() {
+        User current = AppContext.userManager.getCurrentUser();
+        int userId = current.getUserID();
+
+        List<Drill> unlocked = drillService.listUnlocked(userId);
+        drillSelect.setItems(FXCollections.observableArrayList(unlocked));
+        if (!unlocked.isEmpty()) {
+            drillSelect.getSelectionModel().selectFirst(); // listener refreshes the table
+        } else {
+            table.setItems(FXCollections.observableArrayList());
+        }
     }
 
     private void customizeColumnHeader(TableColumn<?, ?> column, String heading) {
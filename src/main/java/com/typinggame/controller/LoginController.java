@@ -4,6 +4,7 @@ import com.typinggame.data.SqliteUserRepository;
 import com.typinggame.data.UserManager;
 import com.typinggame.data.FileUserRepository;
 import com.typinggame.config.AppContext;
+import com.typinggame.util.SceneCache;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -45,6 +46,7 @@ public class LoginController extends Controller {
                     globalUserManager.getCurrentUser().getUserID());
 
             setStatus("Login successful. Welcome, " + username + "!", true);
+            SceneCache.shared().prewarm(); // load the menus and game screen in the background
             boolean switched = displayScene(MAIN_MENU_FXML, event);
             if (!switched) {
                 setStatus("Failed to load main menu. Please try again.", false);
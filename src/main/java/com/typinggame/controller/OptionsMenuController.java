@@ -8,11 +8,13 @@ import com.typinggame.data.User;
 //import com.typinggame.data.FileUserRepository;
 //import com.typinggame.util.SceneManager;
 import com.typinggame.util.Rank;
+import com.typinggame.util.SoundEngine;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 
@@ -32,6 +34,7 @@ public class OptionsMenuController extends Controller{
     @FXML private ComboBox<String> fontCombo;
     @FXML private ComboBox<String> fontSizeCombo;
     @FXML private ComboBox<String> themeCombo;
+    @FXML private CheckBox soundCheck;
     private UserManager userManager;
     private User user;
     private Rank userRank;
@@ -85,6 +88,7 @@ public class OptionsMenuController extends Controller{
         fontCombo.setValue(user.getFont());
         fontSizeCombo.setValue(String.valueOf(user.getFontSize()));
         themeCombo.setValue(user.getTheme());
+        soundCheck.setSelected(user.isSoundEnabled());
 
     }
     //this only exists for the sake of simplifying making unit tests
@@ -121,6 +125,17 @@ public class OptionsMenuController extends Controller{
         userToUpdate.updateAllSettings(displayName, font, fontSize, theme);
     }
 
+    /**
+     * turns key sounds on/off straight away and saves it to the user's settings
+     * @param event the event
+     */
+    @FXML
+    public void toggleSound(ActionEvent event) {
+        boolean enabled = soundCheck.isSelected();
+        userManager.getCurrentUser().updateSoundEnabled(enabled);
+        SoundEngine.shared().setMuted(!enabled);
+    }
+
     /**
      * sends back to main menu
      * @param event da event
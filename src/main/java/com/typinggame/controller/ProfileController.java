@@ -2,10 +2,11 @@ package com.typinggame.controller;
 
 //import com.typinggame.data.Database;
 import com.typinggame.config.AppContext;
-import com.typinggame.data.Database;
 import com.typinggame.data.UserManager;
 //import com.typinggame.controller.LoginController;
 import com.typinggame.data.User;
+import com.typinggame.model.KeyStats;
+import com.typinggame.service.KeyStatsService;
 //import com.typinggame.data.FileUserRepository;
 //import com.typinggame.util.SceneManager;
 import com.typinggame.util.Rank;
@@ -15,11 +16,6 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
 /**
  * ProfileController displays user statistics and handles navigation
  * to gameplay, logout, and main menu.
@@ -41,6 +37,8 @@ public class ProfileController extends Controller {
     @FXML
     private Label sessionsLabel;
     @FXML
+    private Label slowKeysLabel;
+    @FXML
     private ImageView rankBadgeImageView;
 
     private UserManager userManager = AppContext.userManager;
@@ -49,7 +47,8 @@ public class ProfileController extends Controller {
 
     //private final UserManager userManager = new UserManager(new FileUserRepository());
     /**
-     * things that need to happen before screen logic starts. mostly changing values in labels
+     * things that need to happen before screen logic starts. mostly changing values in labels.
+     * All of these read the user's cached profile snapshot, so this is at most one DB trip.
      */
     @FXML
     public void initialize() {
@@ -57,6 +56,7 @@ public class ProfileController extends Controller {
         wpmLabel.setText(String.valueOf(user.getBestWPM()));
         accuracyLabel.setText(String.valueOf(user.getBestAccuracy()));
         sessionsLabel.setText(String.valueOf(user.getTotalSessions()));
+        updateSlowKeys();
         updateRank();
 
         //}
@@ -66,19 +66,22 @@ public class ProfileController extends Controller {
      */
     @FXML
     public void updateDisplay() {
-        int idToSearch = user.getUserID();
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "Select display_name FROM user_settings WHERE user_id = ?")) {
-            ps.setInt(1, idToSearch);
-            ResultSet rs = ps.executeQuery();
-            displayNameLabel.setText("Display Name: " + rs.getString("display_name"));
-        } catch (SQLException e) {
-            System.err.println("Retreive ID failed: " + e.getMessage());
-        }
+        displayNameLabel.setText("Display Name: " + user.getDisplayName());
         //displayNameLabel.setText("");
     }
 
+    /**
+     * Shows the user's three slowest keys (p95 inter-key time), read from the per-user key_stats aggregates.
+     */
+    public void updateSlowKeys() {
+        StringBuilder keys = new StringBuilder();
+        for (KeyStats.Stat s : new KeyStatsService().slowestKeys(user.getUserID(), 3)) {
+            if (keys.length() > 0) keys.append(' ');
+            keys.append(s.key.equals(" ") ? "SPC" : s.key.toUpperCase());
+        }
+        slowKeysLabel.setText(keys.length() == 0 ? "-" : keys.toString());
+    }
+
     public void handleBack(ActionEvent event) {
         displayScene("/MainMenuView.fxml", event);
     }
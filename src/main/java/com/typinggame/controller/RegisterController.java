@@ -1,6 +1,7 @@
 package com.typinggame.controller;
 
 import com.typinggame.config.AppContext;
+import com.typinggame.util.SceneCache;
 import com.typinggame.data.SqliteUserRepository;
 import com.typinggame.data.UserManager;
 import javafx.fxml.FXML;
@@ -52,6 +53,7 @@ public class RegisterController extends Controller {
         if (globalUserManager.register(email, password)) {
             AppContext.userManager = globalUserManager;
             globalUserManager.getCurrentUser().updateDisplayName(displayName);
+            SceneCache.shared().prewarm(); // load the menus and game screen in the background
             displayScene("/MainMenuView.fxml", event);
         } else {
             errorResponse.setText("Email in use");
@@ -3,25 +3,36 @@ package com.typinggame.controller;
 import com.typinggame.config.AppContext;
 import com.typinggame.data.Database;
 import com.typinggame.data.DrillRepository;
-import com.typinggame.data.SessionRepository;
 import com.typinggame.data.SqliteUserRepository;
 import com.typinggame.data.User;
 import com.typinggame.data.UserManager;
 import com.typinggame.model.Drill;
+import com.typinggame.model.KeystrokePipeline;
+import com.typinggame.model.LiveStats;
 import com.typinggame.model.Session;
-import com.typinggame.model.TypingStats;
+import com.typinggame.model.TypingDisplayModel;
+import com.typinggame.service.AdaptiveDrillService;
 import com.typinggame.service.ProgressService;
+import com.typinggame.service.SessionWriteBehind;
+import com.typinggame.util.FrameScheduler;
+import com.typinggame.util.ImageCache;
+import com.typinggame.util.LiveChartFeed;
 import com.typinggame.util.Rank;
 import com.typinggame.util.RankLoader;
-import com.typinggame.util.SentenceProvider;
+import com.typinggame.util.Refreshable;
+import com.typinggame.util.SoundEngine;
 
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
@@ -30,6 +41,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.control.TextFormatter;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
@@ -50,11 +62,11 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.Image;
 
-import javafx.scene.media.AudioClip;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import java.time.Instant;
@@ -65,7 +77,7 @@ import java.time.Instant;
  * <p>
  * [Ben M – Sept 10 2025]
  */
-public class TypingGameController extends Controller {
+public class TypingGameController extends Controller implements Refreshable {
 
     // UI Components
     @FXML
@@ -220,21 +232,32 @@ public class TypingGameController extends Controller {
     private boolean[] capsActive = {false};
     private boolean leftShiftActive = false;
     private boolean rightShiftActive = false;
-    // WPM
-    private final Deque<Integer> wpmHistory = new ArrayDeque<>();
+    // Live WPM/accuracy/streak/rank: keystrokes update the model, labels are applied once per frame
+    private final LiveStats liveStats = new LiveStats();
+    private final FrameScheduler uiFrame = new FrameScheduler(this::applyLiveStats);
+    private static final Map<Rank, PseudoClass> RANK_BORDERS = new EnumMap<>(Rank.class);
+    static {
+        for (Rank r : Rank.values()) RANK_BORDERS.put(r, PseudoClass.getPseudoClass(r.name().toLowerCase()));
+    }
+    private Rank shownRank;
     @FXML
     private LineChart<Number, Number> wpmChart;
 
     private XYChart.Series<Number, Number> wpmSeries;
     private XYChart.Series<Number, Number> accuracySeries;
     private XYChart.Series<Number, Number> streakSeries;
+    private LiveChartFeed chartFeed;
 
     // Game State
     private String targetText;
     private long startTime;
     private Timeline timer;
-    private TypingStats stats;
+    // stats, keystroke log and display model of the current round (same path the input benchmark drives)
+    private final KeystrokePipeline pipeline = new KeystrokePipeline(liveStats, (line, x, y) -> chartFeed.add(line, x, y));
+    private int lastKeyCode = 0;             // KeyCode of the last key pressed (edits arrive without one)
     private Drill currentDrill;
+    private int displayFontSize;             // read once per scene; getFontSize() hits the DB
+    private String displayFlowStyle;         // last style applied, so it's only re-set (and re-parsed) on change
 
     // >>> CHANGE: level-scoped navigation state
     private int activeLevel = 0; // 0 = mixed/all, >0 = fixed level
@@ -243,8 +266,8 @@ public class TypingGameController extends Controller {
     // <<< CHANGE
 
     // Data access
-    private final SessionRepository sessionRepo = new SessionRepository();
     private final DrillRepository drillRepo = new DrillRepository();
+    private final AdaptiveDrillService adaptiveDrills = new AdaptiveDrillService();
 
     // User Context
     private UserManager userManager = AppContext.userManager;
@@ -333,20 +356,13 @@ public class TypingGameController extends Controller {
     private Label usernameLabel;
     private boolean usernameApplied = false;
 
+    // set once the deferred first-time setup in initialize() has run
+    private boolean viewReady = false;
+    private ObservableValue<Boolean> viewShowing;   // kept so the listener below stays attached
 
-    // sound files
-    // 3 correct sounds of bubbles to give variety/depth to user experience. 1 incorrect for recognisable consistency of errors
-    private AudioClip[] correctSounds;
-    private AudioClip incorrectSound;
 
-    private void initializeSounds() {
-        correctSounds = new AudioClip[] {
-                new AudioClip(getClass().getResource("/sounds/correct1.mp3").toExternalForm()),
-                new AudioClip(getClass().getResource("/sounds/correct2.mp3").toExternalForm()),
-                new AudioClip(getClass().getResource("/sounds/correct3.mp3").toExternalForm())
-        };
-        incorrectSound = new AudioClip(getClass().getResource("/sounds/incorrect.mp3").toExternalForm());
-    }
+    // key feedback sounds (decoded once, played off the FX thread)
+    private final SoundEngine sound = SoundEngine.shared();
 
     // begin game state
     private User user;
@@ -355,8 +371,7 @@ public class TypingGameController extends Controller {
         user = AppContext.userManager.getCurrentUser(); // fallback
         System.out.println("[Controller] Instance hash: " + System.identityHashCode(this));
 
-        // Load sound effects
-        initializeSounds();
+        sound.setMuted(user != null && !user.isSoundEnabled());
 
         // Initialize chart series before UI
         wpmSeries = new XYChart.Series<>();
@@ -366,6 +381,7 @@ public class TypingGameController extends Controller {
         wpmSeries.setName("WPM");
         accuracySeries.setName("Accuracy");
         streakSeries.setName("Streak");
+        chartFeed = new LiveChartFeed(List.of(wpmSeries, accuracySeries, streakSeries));
 
         Platform.runLater(() -> {
             System.out.println("[Controller] TypingGameController initialized");
@@ -373,13 +389,13 @@ public class TypingGameController extends Controller {
             setupChart();
             setupUserDisplay();
             setupInputField();
+            viewReady = true;
         });
     }
     //set up chart
     private void setupBG() {
         String resourcePath = user.themePath();
-        Image image = new Image(getClass().getResourceAsStream(resourcePath));
-        bgImage.setImage(image);
+        bgImage.setImage(ImageCache.shared().get(resourcePath, (int) bgImage.getFitWidth(), (int) bgImage.getFitHeight()));
     }
     private void setupChart() {
         if (wpmChart == null) {
@@ -391,6 +407,7 @@ public class TypingGameController extends Controller {
 
         wpmChart.getData().addAll(wpmSeries, accuracySeries, streakSeries);
         wpmChart.setCreateSymbols(false); // disables dot markers
+        wpmChart.setAnimated(false);      // points are replaced every frame, don't animate each one
 
         NumberAxis xAxis = (NumberAxis) wpmChart.getXAxis();
         NumberAxis yAxis = (NumberAxis) wpmChart.getYAxis();
@@ -435,7 +452,7 @@ public class TypingGameController extends Controller {
 
         if (rankBadgeImageView != null) {
             try {
-                Image badge = RankLoader.loadIcon(rank);
+                Image badge = RankLoader.loadIcon(rank, (int) rankBadgeImageView.getFitHeight());
                 rankBadgeImageView.setImage(badge);
                 System.out.println("[Controller] Rank badge loaded: " + rank.resourcePath);
             } catch (Exception e) {
@@ -451,153 +468,63 @@ public class TypingGameController extends Controller {
         inputField.setDisable(false);
         Platform.runLater(() -> inputField.requestFocus());
 
-        inputField.setStyle(
-                "-fx-font-family: 'Press Start 2P'; " +
-                        "-fx-font-size: " + user.getFontSize() + "px; " +
-                        "-fx-text-fill: whitesmoke; " +
-                        "-fx-background-color: transparent; " +
-                        "-fx-background-radius: 14;"
-        );
+        applyInputFont();
+        inputField.getStyleClass().add("rank-input");
+        // The view is cached and reused: stop frame work whenever it leaves the screen
+        viewShowing = inputField.sceneProperty()
+                .flatMap(Scene::windowProperty)
+                .flatMap(Window::showingProperty)
+                .orElse(false);
+        viewShowing.addListener((obs, was, showing) -> {
+            if (!showing) {
+                uiFrame.stop();
+                chartFeed.stop();
+            }
+        });
 
         // Game setup...
-        try {
-            Database.init();
-
-            int userId = resolveUserId();
-            int unlocked = new ProgressService().unlockedUpTo(userId);
-
-            // >>> CHANGE: Respect the level/drill set by DifficultySelectController
-            Integer chosenLevel   = AppContext.get().getSelectedTier();
-            Integer chosenDrillId = AppContext.get().getSelectedDrillId();
-
-            var options = (chosenLevel != null)
-                    ? drillRepo.findByLevel(chosenLevel)
-                    : drillRepo.findUpToTier(unlocked);
-
-            // keep level context for Prev/Next
-            activeLevel = (chosenLevel != null) ? chosenLevel : 0;
-            currentLevelDrills = options;
-            // <<< CHANGE
-
-            if (drillSelect != null) {
-                drillSelect.getItems().setAll(options);
-
-                Drill initial = null;
-                if (chosenLevel != null) {
-                    // try to select the specified drill (or first in that level)
-                    if (chosenDrillId != null) {
-                        for (int i = 0; i < options.size(); i++) {
-                            Drill d = options.get(i);
-                            if (d.id == chosenDrillId) { initial = d; currentDrillIndex = i; break; }
-                        }
-                    }
-                    if (initial == null && !options.isEmpty()) { initial = options.get(0); currentDrillIndex = 0; }
-                } else if (!options.isEmpty()) {
-                    initial = options.get(0);
-                    currentDrillIndex = 0;
-                }
-
-                if (initial != null) {
-                    drillSelect.getSelectionModel().select(initial);
-                    currentDrill = initial;
-                    targetText = initial.body;
-                    startButton.setDisable(false);
-                } else {
-                    startButton.setDisable(true);
-                    currentDrill = null;
-                    targetText = SentenceProvider.getSentence();
-                }
-
-                // keep Prev/Next state in sync with selection
-                drillSelect.getSelectionModel().selectedIndexProperty().addListener((obs, ov, nv) -> {
-                    currentDrillIndex = Math.max(0, nv == null ? 0 : nv.intValue());
-                    updatePrevNextButtons();
-                });
+        loadInitialDrill();
+        if (drillSelect != null) {
+            // keep Prev/Next state in sync with selection
+            drillSelect.getSelectionModel().selectedIndexProperty().addListener((obs, ov, nv) -> {
+                currentDrillIndex = Math.max(0, nv == null ? 0 : nv.intValue());
                 updatePrevNextButtons();
-            } else {
-                currentDrill = (!options.isEmpty()) ? options.get(0) : null;
-                currentDrillIndex = 0;
-                targetText = (currentDrill != null) ? currentDrill.body : SentenceProvider.getSentence();
-            }
-
-            // Clear consumed selection so future entries don't "stick"
-            AppContext.get().setSelectedTier(null);
-            AppContext.get().setSelectedDrillId(null);
-
-        } catch (Exception ex) {
-            System.err.println("[GameView] drill init skipped: " + ex.getMessage());
-            currentDrill = null;
-            targetText = SentenceProvider.getSentence();
+            });
         }
 
-        stats = new TypingStats(targetText);
-        updateDisplay("");
-        startTimer();
-
         inputField.setEditable(true);
         inputField.setDisable(false);
 
+        // Stats follow the field edit by edit (typed char / backspace / paste) instead of rescanning the text.
+        // A multi-char change is split into single deletes/inserts so the keystroke log replays to the same stats.
+        inputField.setTextFormatter(new TextFormatter<String>(change -> {
+            if (change.isContentChange()) {
+                pipeline.edit(System.nanoTime(), change.getControlText().length(), change.getRangeStart(),
+                        change.getRangeEnd(), change.getText(), change.getControlNewText(), lastKeyCode);
+            }
+            return change;
+        }));
+
         inputField.setOnKeyTyped(e -> {
             String rawInput = inputField.getText();
-            String input = rawInput == null ? "" : rawInput.trim(); // trim for accuracy calc
-
-            updateDisplay(input);
-            stats.update(input);
-            stats.updateAccuracy(input, targetText); // now handles edge cases internally
-
-            long elapsedMillis = System.currentTimeMillis() - startTime;
-            double elapsedMinutes = elapsedMillis / 60000.0;
-            double accuracy = stats.getAccuracy();
-
-            int liveWPM = stats.calculateWPM(elapsedMinutes);
-            wpmHistory.addLast(liveWPM);
-            if (wpmHistory.size() > 5) wpmHistory.removeFirst();
-
-            int avgWPM = wpmHistory.stream().mapToInt(Integer::intValue).sum() / wpmHistory.size();
-            wpmLabel.setText("WPM: " + avgWPM);
-            Rank rank = Rank.forTypingSpeed(avgWPM);
-            updateInputBorderByRank(rank);
+            String input = rawInput == null ? "" : rawInput;
 
-            int elapsedSeconds = (int) (elapsedMillis / 1000);
-            int currentStreak = stats.getCurrentStreak();
+            // the flow was cleared/replaced elsewhere: rebuild rather than patch the wrong nodes
+            if (displayFlow.getChildren().size() != pipeline.display().spans().size()) resetDisplay();
 
-            // Chart updates
-            wpmSeries.getData().add(new XYChart.Data<>(elapsedSeconds, avgWPM));
-            accuracySeries.getData().add(new XYChart.Data<>(elapsedSeconds, accuracy));
-            streakSeries.getData().add(new XYChart.Data<>(elapsedSeconds, currentStreak));
-
-            if (wpmSeries.getData().size() > 50) wpmSeries.getData().remove(0);
-            if (accuracySeries.getData().size() > 50) accuracySeries.getData().remove(0);
-            if (streakSeries.getData().size() > 50) streakSeries.getData().remove(0);
-
-            accuracyLabel.setText(String.format("Accuracy: %.2f%%", accuracy));
-            streakLabel.setText("Streak: " + currentStreak);
+            // Display spans, live stats and chart samples (buffered, drawn on the next frame)
+            KeystrokePipeline.Feedback feedback =
+                    pipeline.keyTyped(input, System.currentTimeMillis() - startTime);
+            patchDisplay();
+            if (liveStats.hasChanges()) uiFrame.request();
 
             // Sound logic
-            String typedText = e.getCharacter();
-            if (!input.isEmpty()
-                    && input.length() <= targetText.length()
-                    && typedText != null
-                    && typedText.length() == 1
-                    && !typedText.equals(" ") // skip space
-                    && !typedText.equals("\b")) { // skip backspace
-
-                char typedChar = typedText.charAt(0);
-                char expectedChar = targetText.charAt(input.length() - 1);
-                boolean isCorrect = typedChar == expectedChar;
-
-                stats.updateStreak(typedChar, expectedChar);
-
-                if (isCorrect) {
-                    int soundIndex = (int) (Math.random() * correctSounds.length);
-                    correctSounds[soundIndex].play();
-                } else {
-                    incorrectSound.play();
-                }
+            if (feedback != KeystrokePipeline.Feedback.NONE) {
+                sound.keyFeedback(feedback == KeystrokePipeline.Feedback.CORRECT);
             }
 
             // Completion check
-            if (stats.isComplete()) {
+            if (pipeline.stats().isComplete()) {
                 try {
                     if (timer != null) timer.stop();
                 } catch (Exception ignore) {}
@@ -675,11 +602,10 @@ public class TypingGameController extends Controller {
 
             inputField.setOnKeyPressed(event -> {
                 KeyCode code = event.getCode();
+                lastKeyCode = code.getCode();
                 String input = inputField.getText();
                 int index = input.length();
 
-                System.out.println("Pressed: " + code + " | Text: '" + event.getText() + "'");
-
                 // TAB: prevent focus shift and reclaim focus
                 if (code == KeyCode.TAB) {
                     event.consume();
@@ -772,33 +698,137 @@ public class TypingGameController extends Controller {
         });
     }
 
-    private void updateInputBorderByRank(Rank rank) {
-        String color;
-
-        switch (rank) {
-            case KRILL -> color = "#ff3b30";      // red
-            case CLOWNFISH -> color = "#ff9500";  // orange
-            case TUNA -> color = "#ffd700";       // gold
-            case SWORDFISH -> color = "#00ccff";  // light blue
-            case WHALE -> color = "#00ffcc";      // turquoise
-            default -> color = "white";
-        }
-
+    private void applyInputFont() {
+        displayFontSize = user.getFontSize();
         inputField.setStyle(
                 "-fx-font-family: 'Press Start 2P'; " +
-                        "-fx-font-size: 24px; " +
+                        "-fx-font-size: " + displayFontSize + "px; " +
                         "-fx-text-fill: whitesmoke; " +
                         "-fx-background-color: transparent; " +
-                        "-fx-background-radius: 14; " +
-                        "-fx-border-color: " + color + "; " +
-                        "-fx-border-width: 3px; " +
-                        "-fx-border-radius: 14; " +
-                        "-fx-focus-color: transparent; " +
-                        "-fx-faint-focus-color: transparent;" +
-                        "-fx-effect: dropshadow(gaussian, " + color + ", 15, 0.5, 0, 0);"
+                        "-fx-background-radius: 14;"
         );
     }
 
+    /**
+     * Picks the drill to start with (the level/drill chosen on the difficulty screen, else the first
+     * unlocked one) and starts it.
+     */
+    private void loadInitialDrill() {
+        try {
+            Database.init();
+
+            int userId = resolveUserId();
+            int unlocked = new ProgressService().unlockedUpTo(userId);
+
+            // >>> CHANGE: Respect the level/drill set by DifficultySelectController
+            Integer chosenLevel   = AppContext.get().getSelectedTier();
+            Integer chosenDrillId = AppContext.get().getSelectedDrillId();
+
+            var options = (chosenLevel != null)
+                    ? drillRepo.findByLevel(chosenLevel)
+                    : drillRepo.findUpToTier(unlocked);
+
+            // keep level context for Prev/Next
+            activeLevel = (chosenLevel != null) ? chosenLevel : 0;
+            currentLevelDrills = options;
+            // <<< CHANGE
+
+            if (drillSelect != null) {
+                drillSelect.getItems().setAll(options);
+
+                Drill initial = null;
+                if (chosenLevel != null) {
+                    // try to select the specified drill (or first in that level)
+                    if (chosenDrillId != null) {
+                        for (int i = 0; i < options.size(); i++) {
+                            Drill d = options.get(i);
+                            if (d.id == chosenDrillId) { initial = d; currentDrillIndex = i; break; }
+                        }
+                    }
+                    if (initial == null && !options.isEmpty()) { initial = options.get(0); currentDrillIndex = 0; }
+                } else if (!options.isEmpty()) {
+                    initial = options.get(0);
+                    currentDrillIndex = 0;
+                }
+
+                if (initial != null) {
+                    drillSelect.getSelectionModel().select(initial);
+                    currentDrill = initial;
+                    targetText = initial.body;
+                    startButton.setDisable(false);
+                } else {
+                    startButton.setDisable(true);
+                    currentDrill = null;
+                    targetText = practiceSentence();
+                }
+
+                updatePrevNextButtons();
+            } else {
+                currentDrill = (!options.isEmpty()) ? options.get(0) : null;
+                currentDrillIndex = 0;
+                targetText = (currentDrill != null) ? currentDrill.body : practiceSentence();
+            }
+
+            // Clear consumed selection so future entries don't "stick"
+            AppContext.get().setSelectedTier(null);
+            AppContext.get().setSelectedDrillId(null);
+
+        } catch (Exception ex) {
+            System.err.println("[GameView] drill init skipped: " + ex.getMessage());
+            currentDrill = null;
+            targetText = practiceSentence();
+        }
+
+        pipeline.start(targetText);
+        resetDisplay();
+        startTimer();
+    }
+
+    /**
+     * Called when the cached game view is shown again: picks up the current user (theme, rank, font size)
+     * and the level/drill chosen on the difficulty screen, then starts a fresh round.
+     */
+    @Override
+    public void refresh() {
+        if (!viewReady) return; // first-time setup is still queued and will read the current state itself
+        user = userManager.getCurrentUser();
+        sound.setMuted(user != null && !user.isSoundEnabled());
+        usernameApplied = false;
+        setupBG();
+        setupUserDisplay();
+        applyInputFont();
+
+        resetRound();
+        loadInitialDrill();
+        updatePrevNextButtons();
+
+        Platform.runLater(() -> {
+            if (wpmChart != null && wpmChart.getScene() != null) showWelcomePopup(wpmChart.getScene().getWindow());
+        });
+    }
+
+    /**
+     * Applies the live stats that changed since the last frame (run by uiFrame, at most once per frame).
+     */
+    private void applyLiveStats() {
+        int changed = liveStats.takeChanges();
+        if ((changed & LiveStats.WPM) != 0) wpmLabel.setText("WPM: " + liveStats.getWpm());
+        if ((changed & LiveStats.ACCURACY) != 0) accuracyLabel.setText(String.format("Accuracy: %.2f%%", liveStats.getAccuracy()));
+        if ((changed & LiveStats.STREAK) != 0) streakLabel.setText("Streak: " + liveStats.getStreak());
+        if ((changed & LiveStats.RANK) != 0) updateInputBorderByRank(liveStats.getRank());
+    }
+
+    /**
+     * Colours the input border for the rank (styles/rankStyle.css); only called when the rank changes.
+     * @param rank the new rank, or null for no border
+     */
+    private void updateInputBorderByRank(Rank rank) {
+        if (rank == shownRank) return;
+        if (shownRank != null) inputField.pseudoClassStateChanged(RANK_BORDERS.get(shownRank), false);
+        if (rank != null) inputField.pseudoClassStateChanged(RANK_BORDERS.get(rank), true);
+        shownRank = rank;
+    }
+
 // Keyboard
     private void highlightKey(KeyCode code, boolean isCorrect) {
         Button key = keyMap.get(code);
@@ -849,9 +879,9 @@ public class TypingGameController extends Controller {
         }
 
         // Reset chart lines
-        wpmSeries.getData().clear();
-        accuracySeries.getData().clear();
-        streakSeries.getData().clear();
+        chartFeed.clear();
+        liveStats.reset();
+        uiFrame.request();
 
         wpmChart.getData().clear();
         wpmChart.getData().addAll(wpmSeries, accuracySeries, streakSeries);
@@ -879,15 +909,34 @@ public class TypingGameController extends Controller {
      */
     @FXML
     private void restartGame() {
+        resetRound();
+
+        // Restart the current drill
+        Drill d = (currentDrill != null)
+                ? currentDrill
+                : (drillSelect != null ? drillSelect.getSelectionModel().getSelectedItem() : null);
+
+        if (d == null && drillSelect != null && !drillSelect.getItems().isEmpty()) {
+            d = drillSelect.getItems().get(0);
+            drillSelect.getSelectionModel().selectFirst();
+            currentDrillIndex = 0; // <<< CHANGE keep index in sync
+        }
+
+        if (d != null) loadDrill(d);
+        else loadRandomDrill();
+
+        updatePrevNextButtons();
+    }
+    /**
+     * Stops the timer and clears the labels, text, input, chart and keyboard highlights.
+     */
+    private void resetRound() {
         try {
             if (timer != null) timer.stop();
         } catch (Exception ignore) {}
 
-        // Reset UI stats
-        accuracyLabel.setText("Accuracy: 0%");
-        wpmLabel.setText("WPM: 0");
+        // Reset UI stats (WPM, accuracy and streak redraw on the next frame after liveStats.reset())
         timerLabel.setText("Time: 0s");
-        streakLabel.setText("Streak: 0");
         displayFlow.getChildren().clear();
 
         // Reset input field
@@ -897,9 +946,9 @@ public class TypingGameController extends Controller {
         Platform.runLater(() -> inputField.requestFocus());
 
         // Reset chart lines and force refresh
-        wpmSeries.getData().clear();
-        accuracySeries.getData().clear();
-        streakSeries.getData().clear();
+        chartFeed.clear();
+        liveStats.reset();
+        uiFrame.request();
 
         wpmChart.getData().clear(); // remove all series
         wpmChart.getData().addAll(wpmSeries, accuracySeries, streakSeries); // re-add empty series
@@ -909,23 +958,8 @@ public class TypingGameController extends Controller {
             if (key == keyCAPS && capsActive[0]) continue; // preserve CAPS if active
             key.setStyle(DEFAULT_KEY_STYLE);
         }
-
-        // Restart the current drill
-        Drill d = (currentDrill != null)
-                ? currentDrill
-                : (drillSelect != null ? drillSelect.getSelectionModel().getSelectedItem() : null);
-
-        if (d == null && drillSelect != null && !drillSelect.getItems().isEmpty()) {
-            d = drillSelect.getItems().get(0);
-            drillSelect.getSelectionModel().selectFirst();
-            currentDrillIndex = 0; // <<< CHANGE keep index in sync
-        }
-
-        if (d != null) loadDrill(d);
-        else loadRandomDrill();
-
-        updatePrevNextButtons();
     }
+
     /**
      * Load a specific drill and (re)start the game.
      */
@@ -940,32 +974,40 @@ public class TypingGameController extends Controller {
         inputField.setEditable(true);
         inputField.setDisable(false);
 
-        targetText = (d != null) ? d.body : SentenceProvider.getSentence();
-        stats = new TypingStats(targetText);
-        updateDisplay("");
+        targetText = (d != null) ? d.body : practiceSentence();
+        pipeline.start(targetText);
+        resetDisplay();
         startTimer();
     }
 
     /**
-     * Load a random sentence as a dummy drill (fallback).
+     * Load a generated practice drill aimed at the user's weak keys (fallback when no drill is selected).
      */
     private void loadRandomDrill() {
-        Drill random = new Drill(0, "Random", SentenceProvider.getSentence(), 1);
+        Drill random = new Drill(0, "Practice: weak keys", practiceSentence(), 1);
         loadDrill(random);
     }
 
     /**
-     * Persist the finished session, then refresh unlocked drills.
+     * Text for when there is no stored drill: generated from the user's key stats, or a sentence matching
+     * the chosen level's difficulty.
+     */
+    private String practiceSentence() {
+        return adaptiveDrills.sentenceFor(resolveUserId(), activeLevel);
+    }
+
+    /**
+     * Queue the finished session for saving (off the FX thread), then refresh unlocked drills once it's committed.
      */
     private void saveSession() {
         try {
             int userId = resolveUserId();
             System.out.println("[GameView] resolveUserId() = " + userId);
 
-            double accuracyPct = stats.getAccuracy(); // 0..100
+            double accuracyPct = pipeline.stats().getAccuracy(); // 0..100
             long elapsedMillis = System.currentTimeMillis() - startTime;
             double elapsedMinutes = elapsedMillis / 60000.0;
-            int wpm = stats.calculateWPM(elapsedMinutes);
+            int wpm = pipeline.stats().calculateWPM(elapsedMinutes);
             int typed = inputField.getText().length();
             double durationSeconds = elapsedMillis / 1000.0;
             int drillId = (currentDrill != null) ? currentDrill.id : 1;
@@ -978,81 +1020,136 @@ public class TypingGameController extends Controller {
                     accuracyPct,
                     typed,
                     durationSeconds,
-                    Instant.now()
+                    Instant.now(),
+                    pipeline.log().finish()
             );
 
-            sessionRepo.insert(s);
-            System.out.println("[GameView] Session saved: user=" + userId +
-                    " drill=" + drillId + " wpm=" + wpm + " acc=" + accuracyPct);
-
-            // >>> CHANGE: keep the visible list scoped to the same level, if we’re in a level
-            int unlocked = new ProgressService().unlockedUpTo(userId);
-            var options = (activeLevel > 0)
-                    ? drillRepo.findByLevel(activeLevel)
-                    : drillRepo.findUpToTier(unlocked);
+            final int level = activeLevel;
+            // The callback runs on the writer thread right after the commit: do the (cheap) DB reads there,
+            // then hand only the UI update to the FX thread.
+            SessionWriteBehind.shared().submit(s, saved -> {
+                if (user != null) user.invalidate(); // stats changed; profile reloads on next read
+                System.out.println("[GameView] Session saved: id=" + saved.id + " user=" + userId +
+                        " drill=" + drillId + " wpm=" + wpm + " acc=" + accuracyPct);
+
+                // >>> CHANGE: keep the visible list scoped to the same level, if we’re in a level
+                int unlocked = new ProgressService().unlockedUpTo(userId);
+                var options = (level > 0)
+                        ? drillRepo.findByLevel(level)
+                        : drillRepo.findUpToTier(unlocked);
+                Platform.runLater(() -> refreshDrillOptions(options));
+            }, err -> System.err.println("[GameView] Failed to save session: " + err.getMessage()), Runnable::run);
+        } catch (Exception saveEx) {
+            System.err.println("[GameView] Failed to save session: " + saveEx.getMessage());
+            saveEx.printStackTrace();
+        }
+    }
 
-            if (drillSelect != null) {
-                // Remember where we were
-                Drill previous = currentDrill;
-                int previousIndex = currentDrillIndex;
+    /**
+     * Swap in the refreshed drill list after a save, keeping the current drill selected where possible.
+     */
+    private void refreshDrillOptions(java.util.List<Drill> options) {
+        if (drillSelect != null) {
+            // Remember where we were
+            Drill previous = currentDrill;
+            int previousIndex = currentDrillIndex;
 
-                drillSelect.getItems().setAll(options);
-                currentLevelDrills = options;
+            drillSelect.getItems().setAll(options);
+            currentLevelDrills = options;
 
-                // Restore by id (objects are different instances after reload)
-                if (previous != null && !options.isEmpty()) {
-                    int restore = -1;
-                    for (int i = 0; i < options.size(); i++) {
-                        if (options.get(i).id == previous.id) { restore = i; break; }
-                    }
-                    if (restore >= 0) {
-                        currentDrillIndex = restore;
-                        drillSelect.getSelectionModel().select(options.get(restore));
-                    } else if (previousIndex < options.size()) {
-                        currentDrillIndex = previousIndex;
-                        drillSelect.getSelectionModel().select(options.get(previousIndex));
-                    } else {
-                        currentDrillIndex = 0;
-                        drillSelect.getSelectionModel().selectFirst();
-                    }
-                } else if (!options.isEmpty()) {
-                    currentDrillIndex = Math.min(previousIndex, options.size() - 1);
-                    drillSelect.getSelectionModel().select(options.get(currentDrillIndex));
+            // Restore by id (objects are different instances after reload)
+            if (previous != null && !options.isEmpty()) {
+                int restore = -1;
+                for (int i = 0; i < options.size(); i++) {
+                    if (options.get(i).id == previous.id) { restore = i; break; }
                 }
-
-                updatePrevNextButtons();
+                if (restore >= 0) {
+                    currentDrillIndex = restore;
+                    drillSelect.getSelectionModel().select(options.get(restore));
+                } else if (previousIndex < options.size()) {
+                    currentDrillIndex = previousIndex;
+                    drillSelect.getSelectionModel().select(options.get(previousIndex));
+                } else {
+                    currentDrillIndex = 0;
+                    drillSelect.getSelectionModel().selectFirst();
+                }
+            } else if (!options.isEmpty()) {
+                currentDrillIndex = Math.min(previousIndex, options.size() - 1);
+                drillSelect.getSelectionModel().select(options.get(currentDrillIndex));
             }
-            // <<< CHANGE
-        } catch (Exception saveEx) {
-            System.err.println("[GameView] Failed to save session: " + saveEx.getMessage());
-            saveEx.printStackTrace();
+
+            updatePrevNextButtons();
         }
+        // <<< CHANGE
     }
 
     /**
-     * Renders sentence with color-coded feedback (matches your original look).
+     * Builds the display for a new target: one Text node per span (the whole text starts as one
+     * PENDING span). The flow's style is only re-applied when the font size actually changed.
      */
-    private void updateDisplay(String userInput) {
-        displayFlow.getChildren().clear();
+    private void resetDisplay() {
+        TypingDisplayModel display = pipeline.resetDisplay();
+        List<Node> nodes = new ArrayList<>();
+        for (TypingDisplayModel.Span span : display.spans()) nodes.add(spanText(span));
+        displayFlow.getChildren().setAll(nodes);
+
+        String style = "-fx-font-family: 'Press Start 2P'; " +
+                "-fx-font-size: " + displayFontSize + "px; " +
+                "-fx-background-color: transparent; " +
+                "-fx-background-radius: 20; " +
+                "-fx-padding: 20;";
+        if (!style.equals(displayFlowStyle)) {
+            displayFlow.setStyle(style);
+            displayFlowStyle = style;
+        }
+    }
 
-        for (int i = 0; i < targetText.length(); i++) {
-            Text t = new Text(String.valueOf(targetText.charAt(i)));
-            if (i < userInput.length()) {
-                t.setFill(userInput.charAt(i) == targetText.charAt(i) ? Color.GREEN : Color.RED);
-            } else {
-                t.setFill(Color.WHITESMOKE);
-            }
-            displayFlow.getChildren().add(t);
+    /**
+     * Renders sentence with color-coded feedback (matches your original look).
+     * Only the spans the model reports as changed by its last update are patched: existing Text nodes in
+     * that range are reused (text/fill set only if different), extras are removed and missing ones inserted.
+     * A normal keystroke touches one or two nodes regardless of drill length.
+     */
+    private void patchDisplay() {
+        TypingDisplayModel display = pipeline.display();
+        if (display.removedCount() == 0 && display.addedCount() == 0) return;
+
+        ObservableList<Node> kids = displayFlow.getChildren();
+        List<TypingDisplayModel.Span> spans = display.spans();
+        int from = display.changedFrom();
+        int removed = display.removedCount();
+        int added = display.addedCount();
+
+        int reused = Math.min(removed, added);
+        for (int k = 0; k < reused; k++) {
+            TypingDisplayModel.Span span = spans.get(from + k);
+            Text t = (Text) kids.get(from + k);
+            String text = display.text(span);
+            if (!text.equals(t.getText())) t.setText(text);
+            Color fill = fillFor(span.state);
+            if (!fill.equals(t.getFill())) t.setFill(fill);
         }
+        if (removed > added) {
+            kids.remove(from + added, from + removed);
+        } else if (added > removed) {
+            List<Node> extra = new ArrayList<>(added - removed);
+            for (int k = reused; k < added; k++) extra.add(spanText(spans.get(from + k)));
+            kids.addAll(from + reused, extra);
+        }
+    }
 
-        // style once (not inside the loop)
-        displayFlow.setStyle(
-                "-fx-font-family: 'Press Start 2P'; " +
-                        "-fx-font-size: " + user.getFontSize() + "px; " +
-                        "-fx-background-color: transparent; " +
-                        "-fx-background-radius: 20; " +
-                        "-fx-padding: 20;"
-        );
+    private Text spanText(TypingDisplayModel.Span span) {
+        Text t = new Text(pipeline.display().text(span));
+        t.setFill(fillFor(span.state));
+        return t;
+    }
+
+    private static Color fillFor(TypingDisplayModel.State state) {
+        return switch (state) {
+            case CORRECT -> Color.GREEN;
+            case WRONG -> Color.RED;
+            case PENDING -> Color.WHITESMOKE;
+        };
     }
 
     /**
@@ -1075,14 +1172,14 @@ public class TypingGameController extends Controller {
         long elapsedMillis = System.currentTimeMillis() - startTime;
         double elapsedMin = elapsedMillis / 60000.0;
 
-        int wpm = stats.calculateWPM(elapsedMin);
-        double accuracy = stats.getAccuracy();
-        int bestStreak = stats.getBestStreak();
+        int wpm = pipeline.stats().calculateWPM(elapsedMin);
+        double accuracy = pipeline.stats().getAccuracy();
+        int bestStreak = pipeline.stats().getBestStreak();
 
         // Bottom labels already show live info; no top-left result label used.
-        wpmLabel.setText("WPM: " + wpm);
-        accuracyLabel.setText(String.format("Accuracy: %.2f%%", accuracy));
-        streakLabel.setText("Streak: " + bestStreak);
+        liveStats.finish(wpm, accuracy, bestStreak);
+        uiFrame.request();
+        uiFrame.flush();
     }
 
 
@@ -1098,18 +1195,15 @@ public class TypingGameController extends Controller {
             if (selected != null) {
                 // Repeat restartGame logic inline
                 try { if (timer != null) timer.stop(); } catch (Exception ignore) {}
-                accuracyLabel.setText("Accuracy: 0%");
-                wpmLabel.setText("WPM: 0");
                 timerLabel.setText("Time: 0s");
-                streakLabel.setText("Streak: 0");
                 displayFlow.getChildren().clear();
                 inputField.clear();
                 inputField.setEditable(true);
                 inputField.setDisable(false);
                 Platform.runLater(() -> inputField.requestFocus());
-                wpmSeries.getData().clear();
-                accuracySeries.getData().clear();
-                streakSeries.getData().clear();
+                chartFeed.clear();
+                liveStats.reset();
+                uiFrame.request();
                 wpmChart.getData().clear();
                 wpmChart.getData().addAll(wpmSeries, accuracySeries, streakSeries);
                 for (Button key : keyMap.values()) {
@@ -1133,18 +1227,15 @@ public class TypingGameController extends Controller {
             if (selected != null) {
                 // Repeat restartGame logic inline
                 try { if (timer != null) timer.stop(); } catch (Exception ignore) {}
-                accuracyLabel.setText("Accuracy: 0%");
-                wpmLabel.setText("WPM: 0");
                 timerLabel.setText("Time: 0s");
-                streakLabel.setText("Streak: 0");
                 displayFlow.getChildren().clear();
                 inputField.clear();
                 inputField.setEditable(true);
                 inputField.setDisable(false);
                 Platform.runLater(() -> inputField.requestFocus());
-                wpmSeries.getData().clear();
-                accuracySeries.getData().clear();
-                streakSeries.getData().clear();
+                chartFeed.clear();
+                liveStats.reset();
+                uiFrame.request();
                 wpmChart.getData().clear();
                 wpmChart.getData().addAll(wpmSeries, accuracySeries, streakSeries);
                 for (Button key : keyMap.values()) {
@@ -0,0 +1,299 @@
+package com.typinggame.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Long-lived SQLite connections: one writer plus a fixed set of readers.
+ * - The writer is exclusive. A thread that already holds it gets the same connection back (re-entrant),
+ *   so nested repository calls inside a write don't deadlock and can see their own uncommitted rows.
+ * - Readers come from a bounded queue; callers wait up to the configured timeout.
+ * - Callers still use try-with-resources: close() hands the connection back instead of closing it.
+ */
+public final class ConnectionPool {
+
+    private final DatabaseConfig config;
+    private final String url;
+    private final long timeoutMillis;
+
+    private final Connection writer;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+
+    private final List<Runnable> afterWrite = new ArrayList<>();   // guarded by writerLock
+
+    private final List<Connection> readers = new ArrayList<>();
+    private final BlockingQueue<Connection> idleReaders;
+
+    private volatile boolean closed = false;
+
+    // ---- metrics ----
+    private final AtomicLong writerCheckouts = new AtomicLong();
+    private final AtomicLong readerCheckouts = new AtomicLong();
+    private final AtomicLong reentrantCheckouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    ConnectionPool(DatabaseConfig config) throws SQLException {
+        this.config = config;
+        this.url = config.jdbcUrl();
+        this.timeoutMillis = config.getCheckoutTimeoutMillis();
+        this.idleReaders = new ArrayBlockingQueue<>(config.getReaderConnections());
+
+        this.writer = open();
+        try {
+            for (int i = 0; i < config.getReaderConnections(); i++) {
+                Connection r = open();
+                readers.add(r);
+                idleReaders.add(r);
+            }
+        } catch (SQLException e) {
+            closeQuietly(writer);
+            readers.forEach(ConnectionPool::closeQuietly);
+            throw e;
+        }
+    }
+
+    /** Opens one physical connection and applies the configured PRAGMAs to it. */
+    private Connection open() throws SQLException {
+        Connection c = DriverManager.getConnection(url);
+        try (Statement st = c.createStatement()) {
+            for (String pragma : config.connectionPragmas()) st.execute(pragma);
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw e;
+        }
+        return c;
+    }
+
+    /** Borrow the writer connection (exclusive, re-entrant per thread). */
+    Connection borrowWriter() throws SQLException {
+        ensureOpen();
+        if (writerLock.isHeldByCurrentThread()) {
+            writerLock.lock();
+            reentrantCheckouts.incrementAndGet();
+            return lease(writer, true);
+        }
+
+        long start = System.nanoTime();
+        boolean got;
+        try {
+            got = writerLock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for writer connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+        if (!got) {
+            timeouts.incrementAndGet();
+            throw new SQLException("Timed out after " + timeoutMillis + "ms waiting for writer connection");
+        }
+        writerCheckouts.incrementAndGet();
+        return lease(writer, true);
+    }
+
+    /**
+     * Borrow a reader connection.
+     * If this thread is already holding the writer we hand that back instead, so reads inside a write
+     * see the same transaction and we never wait on ourselves.
+     */
+    Connection borrowReader() throws SQLException {
+        if (writerLock.isHeldByCurrentThread()) return borrowWriter();
+        ensureOpen();
+
+        long start = System.nanoTime();
+        Connection c;
+        try {
+            c = idleReaders.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for reader connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+        if (c == null) {
+            timeouts.incrementAndGet();
+            throw new SQLException("Timed out after " + timeoutMillis + "ms waiting for reader connection");
+        }
+        readerCheckouts.incrementAndGet();
+        return lease(c, false);
+    }
+
+    /**
+     * Run {@code action} once this thread has handed the writer back, i.e. after its transaction has been
+     * committed or rolled back. Runs straight away if the writer isn't held by this thread.
+     */
+    void afterWriterRelease(Runnable action) {
+        if (!writerLock.isHeldByCurrentThread()) {
+            action.run();
+            return;
+        }
+        afterWrite.add(action);
+    }
+
+    /** Return a connection to the pool; leaves it in autocommit mode with no open transaction. */
+    private void release(Connection physical, boolean isWriter) {
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("[ConnectionPool] reset on release failed: " + e.getMessage());
+        }
+
+        if (isWriter) {
+            List<Runnable> actions = afterWrite.isEmpty() ? List.of() : List.copyOf(afterWrite);
+            afterWrite.clear();
+            writerLock.unlock();
+            for (Runnable a : actions) {
+                try {
+                    a.run();
+                } catch (RuntimeException e) {
+                    System.err.println("[ConnectionPool] after-write action failed: " + e.getMessage());
+                }
+            }
+        } else if (!closed) {
+            idleReaders.offer(physical);
+        }
+    }
+
+    /** Close every physical connection. Outstanding leases fail on next use. */
+    synchronized void close() {
+        if (closed) return;
+        closed = true;
+        readers.forEach(ConnectionPool::closeQuietly);
+        closeQuietly(writer);
+    }
+
+    boolean isClosed() { return closed; }
+
+    /** Point-in-time metrics. */
+    public Stats stats() {
+        return new Stats(
+                readers.size(),
+                idleReaders.size(),
+                writerLock.isLocked(),
+                writerCheckouts.get(),
+                readerCheckouts.get(),
+                reentrantCheckouts.get(),
+                totalWaitNanos.get(),
+                maxWaitNanos.get(),
+                timeouts.get()
+        );
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+    }
+
+    private static void closeQuietly(Connection c) {
+        try { c.close(); } catch (SQLException ignore) {}
+    }
+
+    private Connection lease(Connection physical, boolean isWriter) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease(physical, isWriter));
+    }
+
+    /** Wraps a pooled connection so that close() returns it instead of closing it. */
+    private final class Lease implements InvocationHandler {
+        private final Connection physical;
+        private final boolean isWriter;
+        private boolean returned = false;
+
+        Lease(Connection physical, boolean isWriter) {
+            this.physical = physical;
+            this.isWriter = isWriter;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        if (isWriter && writerLock.getHoldCount() > 1) writerLock.unlock(); // nested lease
+                        else release(physical, isWriter);
+                    }
+                    return null;
+                }
+                case "isClosed" -> { return returned || physical.isClosed(); }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "Pooled" + (isWriter ? "Writer" : "Reader") + "[" + url + "]"; }
+                default -> {
+                    if (returned) throw new SQLException("Connection already returned to pool");
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Snapshot of pool counters. Wait times are cumulative since the pool was opened. */
+    public static class Stats {
+        public final int readerConnections;
+        public final int idleReaders;
+        public final boolean writerBusy;
+        public final long writerCheckouts;
+        public final long readerCheckouts;
+        public final long reentrantCheckouts;
+        public final long totalWaitNanos;
+        public final long maxWaitNanos;
+        public final long timeouts;
+
+        public Stats(int readerConnections, int idleReaders, boolean writerBusy,
+                     long writerCheckouts, long readerCheckouts, long reentrantCheckouts,
+                     long totalWaitNanos, long maxWaitNanos, long timeouts) {
+            this.readerConnections = readerConnections;
+            this.idleReaders = idleReaders;
+            this.writerBusy = writerBusy;
+            this.writerCheckouts = writerCheckouts;
+            this.readerCheckouts = readerCheckouts;
+            this.reentrantCheckouts = reentrantCheckouts;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeouts = timeouts;
+        }
+
+        /** Total checkouts that had to wait on the pool (excludes re-entrant writer reuse). */
+        public long checkouts() { return writerCheckouts + readerCheckouts; }
+
+        /** Mean wait per checkout in microseconds. */
+        public double meanWaitMicros() {
+            long n = checkouts();
+            return n == 0 ? 0.0 : totalWaitNanos / 1_000.0 / n;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("pool{readers=%d idle=%d writerBusy=%s writer=%d reader=%d reentrant=%d " +
+                            "meanWait=%.1fus maxWait=%.1fus timeouts=%d}",
+                    readerConnections, idleReaders, writerBusy, writerCheckouts, readerCheckouts,
+                    reentrantCheckouts, meanWaitMicros(), maxWaitNanos / 1_000.0, timeouts);
+        }
+    }
+}
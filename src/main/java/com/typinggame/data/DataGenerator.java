@@ -0,0 +1,448 @@
+package com.typinggame.data;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk synthetic data for performance testing: users (+ user_settings), drills and sessions at realistic
+ * volumes (e.g. 100k users, 1k drills, tens of millions of sessions).
+ * - Everything is inserted with batched prepared statements on the writer connection, committed every
+ *   {@link Spec#setCommitEvery commitEvery} rows. The sessions indexes are dropped during the load and
+ *   re-created afterwards (one sorted build instead of per-row updates), and synchronous is OFF while loading.
+ * - Sessions skip SessionRepository's per-row projection upkeep; best_scores is rebuilt once from sessions at
+ *   the end and user_progress is rebuilt from it in one pass, so the projections match what the app would
+ *   have built.
+ * - Same {@link Spec} (including the seed) on an empty database gives the same rows.
+ *
+ * Distributions: per-user activity is uniform or Zipf (a few heavy players, a long tail); each user has a
+ * skill level (WPM and accuracy, normal around the configured means) that their sessions vary around;
+ * drills are picked level by level with lower levels more popular.
+ *
+ * Run with: mvn -q compile exec:java -Dexec.mainClass=com.typinggame.data.DataGenerator
+ *           -Dexec.args="--db perf.db --users 100000 --drills 1000 --sessions 20000000 --seed 42"
+ */
+public final class DataGenerator {
+
+    /** How sessions are spread over users. */
+    public enum Activity { UNIFORM, ZIPF }
+
+    /** What to generate. Setters return {@code this} so a spec can be built inline. */
+    public static final class Spec {
+        private int users = 100_000;
+        private int drills = 1_000;
+        private long sessions = 10_000_000L;
+        private int levels = 10;
+        private long seed = 42;
+        private Activity activity = Activity.ZIPF;
+        private double zipfExponent = 1.0;
+        private double meanWpm = 45, sdWpm = 15;
+        private double meanAccuracy = 92, sdAccuracy = 5;
+        private double levelDecay = 0.75;      // popularity of level n+1 relative to level n
+        private int days = 365;                // sessions spread over this many days before 2025-01-01
+        private int firstDrillId = 10_000;     // clear of the baseline catalog's ids
+        private String usernamePrefix = "gen";
+        private int batchSize = 5_000;
+        private int commitEvery = 500_000;
+
+        public static Spec defaults() {
+            return new Spec();
+        }
+
+        public Spec setUsers(int users) { this.users = positive(users, "users"); return this; }
+        public Spec setDrills(int drills) { this.drills = positive(drills, "drills"); return this; }
+        public Spec setSessions(long sessions) {
+            if (sessions < 0) throw new IllegalArgumentException("sessions must be >= 0");
+            this.sessions = sessions;
+            return this;
+        }
+        public Spec setLevels(int levels) { this.levels = positive(levels, "levels"); return this; }
+        public Spec setSeed(long seed) { this.seed = seed; return this; }
+        public Spec setActivity(Activity activity) { this.activity = activity; return this; }
+        public Spec setZipfExponent(double s) {
+            if (s <= 0) throw new IllegalArgumentException("zipfExponent must be positive");
+            this.zipfExponent = s;
+            return this;
+        }
+        public Spec setWpm(double mean, double sd) { this.meanWpm = mean; this.sdWpm = sd; return this; }
+        public Spec setAccuracy(double mean, double sd) { this.meanAccuracy = mean; this.sdAccuracy = sd; return this; }
+        public Spec setLevelDecay(double decay) {
+            if (decay <= 0) throw new IllegalArgumentException("levelDecay must be positive");
+            this.levelDecay = decay;
+            return this;
+        }
+        public Spec setDays(int days) { this.days = positive(days, "days"); return this; }
+        public Spec setFirstDrillId(int id) { this.firstDrillId = positive(id, "firstDrillId"); return this; }
+        public Spec setUsernamePrefix(String prefix) {
+            if (prefix == null || prefix.isBlank()) throw new IllegalArgumentException("usernamePrefix must not be empty");
+            this.usernamePrefix = prefix;
+            return this;
+        }
+        public Spec setBatchSize(int n) { this.batchSize = positive(n, "batchSize"); return this; }
+        public Spec setCommitEvery(int n) { this.commitEvery = positive(n, "commitEvery"); return this; }
+
+        public int getUsers() { return users; }
+        public int getDrills() { return drills; }
+        public long getSessions() { return sessions; }
+        public int getFirstDrillId() { return firstDrillId; }
+        public String getUsernamePrefix() { return usernamePrefix; }
+
+        private static int positive(int v, String name) {
+            if (v <= 0) throw new IllegalArgumentException(name + " must be positive");
+            return v;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("users=%d drills=%d sessions=%d levels=%d seed=%d activity=%s%s wpm=%.0f±%.0f acc=%.0f±%.0f",
+                    users, drills, sessions, levels, seed, activity,
+                    activity == Activity.ZIPF ? "(s=" + zipfExponent + ")" : "", meanWpm, sdWpm, meanAccuracy, sdAccuracy);
+        }
+    }
+
+    /** What was written and how long each phase took. */
+    public static final class Result {
+        public final int firstUserId;
+        public final int users;
+        public final int drills;
+        public final long sessions;
+        public final double usersMillis, drillsMillis, sessionsMillis, indexMillis, projectionsMillis;
+
+        Result(int firstUserId, int users, int drills, long sessions, double usersMillis, double drillsMillis,
+               double sessionsMillis, double indexMillis, double projectionsMillis) {
+            this.firstUserId = firstUserId;
+            this.users = users;
+            this.drills = drills;
+            this.sessions = sessions;
+            this.usersMillis = usersMillis;
+            this.drillsMillis = drillsMillis;
+            this.sessionsMillis = sessionsMillis;
+            this.indexMillis = indexMillis;
+            this.projectionsMillis = projectionsMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("users=%d (from id %d) drills=%d sessions=%d | users %.0f ms, drills %.0f ms, " +
+                            "sessions %.0f ms (%.0f rows/s), indexes %.0f ms, projections %.0f ms",
+                    users, firstUserId, drills, sessions, usersMillis, drillsMillis, sessionsMillis,
+                    sessions / Math.max(1e-3, sessionsMillis / 1000), indexMillis, projectionsMillis);
+        }
+    }
+
+    static final String INSERT_USER_SQL = "INSERT INTO users(id, username, password_hash) VALUES(?,?,?)";
+    static final String INSERT_SETTINGS_SQL = "INSERT INTO user_settings(user_id, display_name, theme) VALUES(?,?,?)";
+    static final String INSERT_DRILL_SQL = "INSERT INTO drills(id, title, body, tier, level, is_custom) VALUES(?,?,?,?,?,0)";
+    static final String INSERT_SESSION_SQL = """
+        INSERT INTO sessions(user_id, drill_id, wpm, accuracy, score, typed_chars, duration_seconds, started_at)
+        VALUES(?,?,?,?,?,?,?,?)
+        """;
+
+    private static final String[] THEMES = {"KRILL", "CLOWNFISH", "TUNA", "SWORDFISH", "WHALE"};
+    private static final String[] WORDS = ("the quick brown fox jumps over lazy dog pack my box with five dozen " +
+            "liquor jugs sphinx of black quartz judge vow").split(" ");
+    private static final Instant END = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final Spec spec;
+
+    public DataGenerator(Spec spec) {
+        this.spec = spec;
+    }
+
+    /** Generate into the database {@link Database} is set up for (call Database.init first). */
+    public Result generate() {
+        Database.init();
+        Random rnd = new Random(spec.seed);
+        try (Connection c = Database.getConnection()) {
+            if (exists(c, spec.usernamePrefix + 0)) {
+                throw new IllegalStateException("users '" + spec.usernamePrefix + "*' already exist; use another prefix or database");
+            }
+            try (Statement st = c.createStatement()) {
+                st.execute("PRAGMA synchronous = OFF");   // only allowed outside a transaction
+            }
+            c.setAutoCommit(false);
+            try {
+                long t0 = System.nanoTime();
+                int firstUser = nextId(c, "users");
+                double[] skill = insertUsers(c, firstUser, rnd);
+                long t1 = System.nanoTime();
+                int[] drillLengths = insertDrills(c, rnd);
+                long t2 = System.nanoTime();
+
+                List<String> indexes = dropIndexes(c, "sessions");
+                long t3;
+                try {
+                    insertSessions(c, firstUser, skill, drillLengths, rnd);
+                    t3 = System.nanoTime();
+                } catch (SQLException | RuntimeException e) {
+                    c.rollback();   // drop the partial chunk before the indexes go back
+                    throw e;
+                } finally {
+                    // the DROPs are committed and migrations won't re-create them: always put them back
+                    recreateIndexes(c, indexes);
+                }
+                long t4 = System.nanoTime();
+
+                rebuildProjections(c);
+                long t5 = System.nanoTime();
+                return new Result(firstUser, spec.users, spec.drills, spec.sessions,
+                        (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6, (t4 - t3) / 1e6, (t5 - t4) / 1e6);
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+                try (Statement st = c.createStatement()) {
+                    st.execute("PRAGMA synchronous = " + Database.config().getSynchronous());
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("data generation failed", e);
+        }
+    }
+
+    /** Inserts users + settings; returns each user's skill (mean WPM and accuracy, interleaved). */
+    private double[] insertUsers(Connection c, int firstUser, Random rnd) throws SQLException {
+        double[] skill = new double[spec.users * 2];
+        try (PreparedStatement users = c.prepareStatement(INSERT_USER_SQL);
+             PreparedStatement settings = c.prepareStatement(INSERT_SETTINGS_SQL)) {
+            for (int u = 0; u < spec.users; u++) {
+                double wpm = clamp(spec.meanWpm + rnd.nextGaussian() * spec.sdWpm, 5, 200);
+                double acc = clamp(spec.meanAccuracy + rnd.nextGaussian() * spec.sdAccuracy, 50, 100);
+                skill[2 * u] = wpm;
+                skill[2 * u + 1] = acc;
+
+                String name = spec.usernamePrefix + u;
+                users.setInt(1, firstUser + u);
+                users.setString(2, name);
+                users.setString(3, "generated");   // not a real hash: generated users can't log in
+                users.addBatch();
+                settings.setInt(1, firstUser + u);
+                settings.setString(2, name);
+                settings.setString(3, THEMES[Math.min(THEMES.length - 1, (int) (wpm / 20))]);
+                settings.addBatch();
+                if ((u + 1) % spec.batchSize == 0) {
+                    users.executeBatch();
+                    settings.executeBatch();
+                }
+            }
+            users.executeBatch();
+            settings.executeBatch();
+        }
+        c.commit();
+        return skill;
+    }
+
+    /** Inserts the generated drills (levels round-robin); returns each drill's body length. */
+    private int[] insertDrills(Connection c, Random rnd) throws SQLException {
+        int[] lengths = new int[spec.drills];
+        try (PreparedStatement ps = c.prepareStatement(INSERT_DRILL_SQL)) {
+            for (int d = 0; d < spec.drills; d++) {
+                StringBuilder body = new StringBuilder();
+                int words = 8 + rnd.nextInt(25);
+                for (int w = 0; w < words; w++) {
+                    if (w > 0) body.append(' ');
+                    body.append(WORDS[rnd.nextInt(WORDS.length)]);
+                }
+                lengths[d] = body.length();
+                int level = 1 + d % spec.levels;
+                ps.setInt(1, spec.firstDrillId + d);
+                ps.setString(2, "Generated drill " + d);
+                ps.setString(3, body.toString());
+                ps.setInt(4, level);
+                ps.setInt(5, level);
+                ps.addBatch();
+                if ((d + 1) % spec.batchSize == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        DrillRepository.drillsChanged(c);
+        c.commit();
+        return lengths;
+    }
+
+    private void insertSessions(Connection c, int firstUser, double[] skill, int[] drillLengths, Random rnd)
+            throws SQLException {
+        long[] perUser = sessionsPerUser(rnd);
+        double[] levelCdf = levelCdf();
+        int perLevel = (spec.drills + spec.levels - 1) / spec.levels;
+        long spanSeconds = spec.days * 86_400L;
+        long written = 0;
+        long start = System.nanoTime();
+
+        try (PreparedStatement ps = c.prepareStatement(INSERT_SESSION_SQL)) {
+            for (int u = 0; u < spec.users; u++) {
+                long n = perUser[u];
+                if (n == 0) continue;
+                // a user's sessions are spread over their own active period, in time order
+                long first = (long) (rnd.nextDouble() * spanSeconds);
+                double gap = (double) (spanSeconds - first) / n;
+                double wpmSkill = skill[2 * u], accSkill = skill[2 * u + 1];
+                for (long s = 0; s < n; s++) {
+                    int level = pick(levelCdf, rnd.nextDouble());
+                    int d = Math.min(spec.drills - 1, level + spec.levels * rnd.nextInt(perLevel));
+                    double wpm = clamp(wpmSkill * (1 + rnd.nextGaussian() * 0.12), 1, 250);
+                    double acc = clamp(accSkill + rnd.nextGaussian() * 2, 0, 100);
+                    int chars = drillLengths[d];
+
+                    ps.setInt(1, firstUser + u);
+                    ps.setInt(2, spec.firstDrillId + d);
+                    ps.setDouble(3, wpm);
+                    ps.setDouble(4, acc);
+                    ps.setDouble(5, wpm * acc);
+                    ps.setInt(6, chars);
+                    ps.setDouble(7, chars / (wpm * 5 / 60.0));
+                    ps.setString(8, END.minusSeconds(spanSeconds - first - (long) (s * gap)).toString());
+                    ps.addBatch();
+
+                    written++;
+                    if (written % spec.batchSize == 0) ps.executeBatch();
+                    if (written % spec.commitEvery == 0) {
+                        ps.executeBatch();
+                        c.commit();
+                        double secs = (System.nanoTime() - start) / 1e9;
+                        System.out.printf("[DataGenerator] sessions %,d / %,d (%.0f rows/s)%n",
+                                written, spec.sessions, written / secs);
+                    }
+                }
+            }
+            ps.executeBatch();
+        }
+        c.commit();
+    }
+
+    /** Sessions for each user, summing exactly to spec.sessions. */
+    private long[] sessionsPerUser(Random rnd) {
+        int n = spec.users;
+        double[] weight = new double[n];
+        if (spec.activity == Activity.UNIFORM) {
+            Arrays.fill(weight, 1);
+        } else {
+            // Zipf by rank; ranks are shuffled so heavy players aren't simply the lowest ids
+            int[] rank = new int[n];
+            for (int i = 0; i < n; i++) rank[i] = i;
+            for (int i = n - 1; i > 0; i--) {
+                int j = rnd.nextInt(i + 1);
+                int t = rank[i]; rank[i] = rank[j]; rank[j] = t;
+            }
+            for (int i = 0; i < n; i++) weight[i] = 1.0 / Math.pow(rank[i] + 1, spec.zipfExponent);
+        }
+        double total = 0;
+        for (double w : weight) total += w;
+
+        long[] out = new long[n];
+        long assigned = 0;
+        for (int i = 0; i < n; i++) {
+            out[i] = (long) Math.floor(spec.sessions * weight[i] / total);
+            assigned += out[i];
+        }
+        for (int i = 0; assigned < spec.sessions; i = (i + 1) % n, assigned++) out[i]++;
+        return out;
+    }
+
+    /** Cumulative level popularity (0-based levels), decaying by levelDecay per level. */
+    private double[] levelCdf() {
+        double[] cdf = new double[Math.min(spec.levels, spec.drills)];
+        double sum = 0, w = 1;
+        for (int i = 0; i < cdf.length; i++) {
+            sum += w;
+            cdf[i] = sum;
+            w *= spec.levelDecay;
+        }
+        for (int i = 0; i < cdf.length; i++) cdf[i] /= sum;
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double x) {
+        for (int i = 0; i < cdf.length; i++) if (x < cdf[i]) return i;
+        return cdf.length - 1;
+    }
+
+    /** best_scores from sessions in one statement, then user_progress from best_scores in one pass. */
+    private void rebuildProjections(Connection c) throws SQLException {
+        int best = LeaderboardRepository.backfill(c);
+        int progress = ProgressRepository.rebuildAll(c);
+        c.commit();
+        System.out.printf("[DataGenerator] projections: best_scores %,d rows, user_progress %,d rows%n", best, progress);
+    }
+
+    /** Drops the table's explicit indexes; returns their CREATE statements. */
+    private static List<String> dropIndexes(Connection c, String table) throws SQLException {
+        List<String> names = new ArrayList<>(), sql = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                    sql.add(rs.getString(2));
+                }
+            }
+        }
+        try (Statement st = c.createStatement()) {
+            for (String name : names) st.execute("DROP INDEX \"" + name + "\"");
+        }
+        c.commit();
+        return sql;
+    }
+
+    private static void recreateIndexes(Connection c, List<String> createStatements) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            for (String sql : createStatements) st.execute(sql);
+        }
+        c.commit();
+    }
+
+    private static boolean exists(Connection c, String username) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SqliteUserRepository.USER_EXISTS_SQL)) {
+            ps.setString(1, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static int nextId(Connection c, String table) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 1;
+        }
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    public static void main(String[] args) {
+        DatabaseConfig db = DatabaseConfig.defaults().setPath("perf.db");
+        Spec spec = Spec.defaults();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--db" -> db.setPath(v);
+                case "--users" -> spec.setUsers(Integer.parseInt(v));
+                case "--drills" -> spec.setDrills(Integer.parseInt(v));
+                case "--sessions" -> spec.setSessions(Long.parseLong(v));
+                case "--levels" -> spec.setLevels(Integer.parseInt(v));
+                case "--seed" -> spec.setSeed(Long.parseLong(v));
+                case "--activity" -> spec.setActivity(Activity.valueOf(v.toUpperCase()));
+                case "--zipf" -> spec.setZipfExponent(Double.parseDouble(v));
+                case "--wpm" -> { String[] p = v.split(":"); spec.setWpm(Double.parseDouble(p[0]), Double.parseDouble(p[1])); }
+                case "--accuracy" -> { String[] p = v.split(":"); spec.setAccuracy(Double.parseDouble(p[0]), Double.parseDouble(p[1])); }
+                case "--prefix" -> spec.setUsernamePrefix(v);
+                case "--batch" -> spec.setBatchSize(Integer.parseInt(v));
+                default -> throw new IllegalArgumentException("unknown option " + args[i]
+                        + " (options: --db --users --drills --sessions --levels --seed --activity uniform|zipf"
+                        + " --zipf S --wpm MEAN:SD --accuracy MEAN:SD --prefix P --batch N)");
+            }
+        }
+        System.out.println("[DataGenerator] " + spec + " -> " + db.getPath());
+        Database.init(db);
+        Result r = new DataGenerator(spec).generate();
+        System.out.println("[DataGenerator] " + r);
+        Database.shutdown();
+    }
+}
@@ -1,133 +1,111 @@
 package com.typinggame.data;
 
 import java.sql.*;
-import com.typinggame.data.DrillSeeder;
 
+/**
+ * Owns the SQLite schema (via {@link Migrations}) and the shared connection pool.
+ * - getConnection() hands out the single writer connection (use it for anything that modifies data).
+ * - getReadConnection() hands out one of the pooled reader connections.
+ * Both are returned to the pool by close(), so keep using try-with-resources.
+ */
 public class Database {
-    private static final String URL = "jdbc:sqlite:typinggame.db";
     private static boolean inited = false;
+    private static DatabaseConfig config = DatabaseConfig.defaults();
+    private static volatile ConnectionPool pool;
 
     public static synchronized void init() {
+        init(config);
+    }
+
+    /**
+     * Initialise the schema using the given file/pool/PRAGMA settings. If they changed, the pool is re-opened
+     * and the (possibly different) database is migrated and seeded again.
+     */
+    public static synchronized void init(DatabaseConfig cfg) {
+        if (cfg != config) {
+            config = cfg;
+            closePool();
+            inited = false;
+        }
         if (inited) return;
 
         try { Class.forName("org.sqlite.JDBC"); } catch (ClassNotFoundException ignore) {}
 
-        try (Connection c = getConnection(); Statement st = c.createStatement()) {
-            // --- Users (unchanged) ---
-            st.execute("""
-              CREATE TABLE IF NOT EXISTS users(
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                username      TEXT UNIQUE NOT NULL,
-                password_hash TEXT NOT NULL
-              );
-            """);
-
-            // --- Drills (original shape with body/tier retained for compat) ---
-            st.execute("""
-              CREATE TABLE IF NOT EXISTS drills(
-                id    INTEGER PRIMARY KEY AUTOINCREMENT,
-                title TEXT    NOT NULL,
-                body  TEXT    NOT NULL,
-                tier  INTEGER NOT NULL DEFAULT 1
-              );
-            """);
-
-            // --- Additive migrations (idempotent) ---
-            // Custom-drill metadata (you already had these)
-            try (Statement st2 = c.createStatement()) {
-                st2.execute("ALTER TABLE drills ADD COLUMN is_custom INTEGER DEFAULT 0");
-            } catch (SQLException ignore) {}
-            try (Statement st2 = c.createStatement()) {
-                st2.execute("ALTER TABLE drills ADD COLUMN created_by TEXT");
-            } catch (SQLException ignore) {}
-            try (Statement st2 = c.createStatement()) {
-                st2.execute("ALTER TABLE drills ADD COLUMN created_at INTEGER");
-            } catch (SQLException ignore) {}
-
-            // --- NEW: Levels migration ---
-            // 1) Add 'level' column if it doesn't exist
-            try (Statement st2 = c.createStatement()) {
-                // Keep it nullable with DEFAULT 1 for maximal compatibility in SQLite
-                st2.execute("ALTER TABLE drills ADD COLUMN level INTEGER DEFAULT 1");
-            } catch (SQLException ignore) {}
-
-            // 2) Backfill level from tier where sensible
-            try (Statement st2 = c.createStatement()) {
-                // If 'tier' exists/has data, copy it into 'level' when level is NULL or default
-                // (SQLite sets new column to DEFAULT; we still overwrite to mirror previous data)
-                st2.execute("""
-                    UPDATE drills
-                       SET level = CASE
-                           WHEN tier IS NOT NULL AND tier > 0 THEN tier
-                           ELSE 1
-                       END
-                """);
-            } catch (SQLException ignore) {}
-
-            // 3) Helpful index for level-based queries
-            try (Statement st2 = c.createStatement()) {
-                st2.execute("CREATE INDEX IF NOT EXISTS idx_drills_level_id ON drills(level, id)");
-            } catch (SQLException ignore) {}
-
-            // --- Sessions (unchanged; your columns preserved) ---
-            st.execute("""
-              CREATE TABLE IF NOT EXISTS sessions(
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                user_id          INTEGER NOT NULL,
-                drill_id         INTEGER NOT NULL,
-                wpm              REAL    NOT NULL,
-                accuracy         REAL    NOT NULL,
-                score            REAL    NOT NULL,
-                typed_chars      INTEGER NOT NULL,
-                duration_seconds REAL    NOT NULL,
-                started_at       TEXT    NOT NULL DEFAULT (datetime('now')),
-                FOREIGN KEY(user_id)  REFERENCES users(id),
-                FOREIGN KEY(drill_id) REFERENCES drills(id)
-              );
-            """);
-
-            // --- User settings (unchanged) ---
-            st.execute("""
-              CREATE TABLE IF NOT EXISTS user_settings(
-                user_id      INTEGER PRIMARY KEY,
-                display_name TEXT    NOT NULL DEFAULT '',
-                font_family  TEXT    NOT NULL DEFAULT 'System',
-                font_size    INTEGER NOT NULL DEFAULT 24,
-                theme        TEXT    NOT NULL DEFAULT 'KRILL',
-                FOREIGN KEY(user_id) REFERENCES users(id)
-              );
-            """);
-
-            // --- Seed demo user/settings (unchanged) ---
-            try (PreparedStatement ps = c.prepareStatement(
-                    "INSERT OR IGNORE INTO users(username, password_hash) VALUES(?, ?)")) {
-                ps.setString(1, "demo");
-                ps.setString(2, Integer.toHexString("demo123".hashCode()));
-                ps.executeUpdate();
-            }
+        try (Connection c = getConnection()) {
+            // --- Schema: apply any migrations newer than schema_version (none on a warm start) ---
+            Migrations.migrate(c);
 
-            try (PreparedStatement ps = c.prepareStatement(
-                    "INSERT OR IGNORE INTO user_settings(user_id, display_name) " +
-                            "SELECT id, 'Demo User' FROM users WHERE username='demo'")) {
-                ps.executeUpdate();
-            }
-
-            // --- Seeder: update this class to create 10 levels × 3 drills each ---
-            // Keep your existing call; just ensure DrillSeeder writes 'level' (not 'tier').
+            // --- Baseline drills: a hash check on warm start, a single batched upsert when they changed ---
             DrillSeeder.ensureBaselineDrills();
 
+            // --- Self-check: every registered hot-path query should be index-backed ---
+            IndexAdvisor.check(c);
+
             inited = true;
-            System.out.println("DB init OK -> typinggame.db");
+            System.out.println("DB init OK -> " + config);
         } catch (SQLException e) {
             throw new RuntimeException("DB init failed: " + e.getMessage(), e);
         }
     }
 
+    /** Borrow the writer connection. Re-entrant: nested calls on the same thread share it. */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return pool().borrowWriter();
+    }
+
+    /**
+     * Run {@code action} once the current thread's writer lease ends (its transaction committed or rolled
+     * back), or straight away if it doesn't hold the writer. For cache invalidation that must not run before
+     * readers can see the committed rows.
+     */
+    public static void afterWrite(Runnable action) throws SQLException {
+        pool().afterWriterRelease(action);
+    }
+
+    /** Borrow a reader connection (falls back to the writer if this thread already holds it). */
+    public static Connection getReadConnection() throws SQLException {
+        return pool().borrowReader();
+    }
+
+    /** The settings the pool was (or will be) opened with. */
+    public static DatabaseConfig config() {
+        return config;
+    }
+
+    /** Current pool metrics (size, checkouts, wait times). */
+    public static ConnectionPool.Stats poolStats() {
+        ConnectionPool p = pool;
+        return p == null ? null : p.stats();
+    }
+
+    /** Close all pooled connections; the next getConnection() re-opens them. */
+    public static synchronized void shutdown() {
+        closePool();
+        inited = false;
     }
 
     public static synchronized void forceReinitForTests() {
+        closePool();
         inited = false;
     }
+
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool p = pool;
+        if (p != null && !p.isClosed()) return p;   // fast path: no lock while borrowing
+        synchronized (Database.class) {
+            if (pool == null || pool.isClosed()) {
+                pool = new ConnectionPool(config);
+            }
+            return pool;
+        }
+    }
+
+    private static void closePool() {
+        if (pool != null) {
+            System.out.println("[Database] closing " + pool.stats());
+            pool.close();
+            pool = null;
+        }
+        DrillRepository.invalidateCatalog();   // cached drills belong to the old database
+    }
 }
@@ -0,0 +1,157 @@
+package com.typinggame.data;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Settings handed to {@link Database#init(DatabaseConfig)}: file location, pool sizing and the PRAGMAs
+ * applied to every pooled connection.
+ * Defaults keep the original {@code typinggame.db} file but switch it to WAL so a session insert no longer
+ * blocks concurrent leaderboard reads. Setters return {@code this} so a config can be built inline.
+ */
+public class DatabaseConfig {
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNC_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    /** SQLite file (relative to the working directory unless absolute). */
+    private String path = "typinggame.db";
+
+    /** PRAGMA journal_mode. WAL lets readers run while the writer commits. */
+    private String journalMode = "WAL";
+
+    /** PRAGMA synchronous. NORMAL is durable across app crashes in WAL mode and skips most fsyncs. */
+    private String synchronous = "NORMAL";
+
+    /** PRAGMA cache_size in KiB per connection (passed to SQLite as a negative number). */
+    private int cacheSizeKb = 8 * 1024;
+
+    /** PRAGMA mmap_size in bytes (0 disables memory-mapped I/O). */
+    private long mmapSizeBytes = 64L * 1024 * 1024;
+
+    /** PRAGMA temp_store. */
+    private String tempStore = "MEMORY";
+
+    /** PRAGMA busy_timeout: how long SQLite retries a locked database before SQLITE_BUSY. */
+    private int busyTimeoutMillis = 5_000;
+
+    /** Reader connections kept open next to the single writer. */
+    private int readerConnections = 4;
+
+    /** How long a caller may wait for a free connection before giving up. */
+    private long checkoutTimeoutMillis = 5_000;
+
+    /** A config with all defaults. */
+    public static DatabaseConfig defaults() {
+        return new DatabaseConfig();
+    }
+
+    public String getPath() { return path; }
+
+    public DatabaseConfig setPath(String path) {
+        if (path == null || path.isBlank()) throw new IllegalArgumentException("path must not be empty");
+        this.path = path;
+        return this;
+    }
+
+    /** JDBC url for {@link #getPath()}. */
+    public String jdbcUrl() {
+        return "jdbc:sqlite:" + path;
+    }
+
+    public String getJournalMode() { return journalMode; }
+
+    public DatabaseConfig setJournalMode(String journalMode) {
+        this.journalMode = checked(journalMode, JOURNAL_MODES, "journalMode");
+        return this;
+    }
+
+    public String getSynchronous() { return synchronous; }
+
+    public DatabaseConfig setSynchronous(String synchronous) {
+        this.synchronous = checked(synchronous, SYNC_MODES, "synchronous");
+        return this;
+    }
+
+    public int getCacheSizeKb() { return cacheSizeKb; }
+
+    public DatabaseConfig setCacheSizeKb(int cacheSizeKb) {
+        if (cacheSizeKb < 0) throw new IllegalArgumentException("cacheSizeKb must be >= 0");
+        this.cacheSizeKb = cacheSizeKb;
+        return this;
+    }
+
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+
+    public DatabaseConfig setMmapSizeBytes(long mmapSizeBytes) {
+        if (mmapSizeBytes < 0) throw new IllegalArgumentException("mmapSizeBytes must be >= 0");
+        this.mmapSizeBytes = mmapSizeBytes;
+        return this;
+    }
+
+    public String getTempStore() { return tempStore; }
+
+    public DatabaseConfig setTempStore(String tempStore) {
+        this.tempStore = checked(tempStore, TEMP_STORES, "tempStore");
+        return this;
+    }
+
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+
+    public DatabaseConfig setBusyTimeoutMillis(int busyTimeoutMillis) {
+        if (busyTimeoutMillis < 0) throw new IllegalArgumentException("busyTimeoutMillis must be >= 0");
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * PRAGMAs to run on each new connection, in order.
+     * Values are whitelisted/numeric above, so building the strings here is safe.
+     */
+    String[] connectionPragmas() {
+        return new String[] {
+                "PRAGMA busy_timeout = " + busyTimeoutMillis,
+                "PRAGMA journal_mode = " + journalMode,
+                "PRAGMA synchronous = " + synchronous,
+                "PRAGMA cache_size = -" + cacheSizeKb,
+                "PRAGMA mmap_size = " + mmapSizeBytes,
+                "PRAGMA temp_store = " + tempStore
+        };
+    }
+
+    public int getReaderConnections() { return readerConnections; }
+
+    public DatabaseConfig setReaderConnections(int readerConnections) {
+        if (readerConnections < 1) throw new IllegalArgumentException("readerConnections must be >= 1");
+        this.readerConnections = readerConnections;
+        return this;
+    }
+
+    public long getCheckoutTimeoutMillis() { return checkoutTimeoutMillis; }
+
+    public DatabaseConfig setCheckoutTimeoutMillis(long checkoutTimeoutMillis) {
+        if (checkoutTimeoutMillis < 0) throw new IllegalArgumentException("checkoutTimeoutMillis must be >= 0");
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        return this;
+    }
+
+    private static String checked(String value, Set<String> allowed, String name) {
+        String v = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(v)) throw new IllegalArgumentException(name + " must be one of " + allowed);
+        return v;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseConfig{path=" + path +
+                ", journal=" + journalMode +
+                ", synchronous=" + synchronous +
+                ", cacheKb=" + cacheSizeKb +
+                ", mmap=" + mmapSizeBytes +
+                ", tempStore=" + tempStore +
+                ", busyTimeoutMillis=" + busyTimeoutMillis +
+                ", readers=" + readerConnections +
+                ", checkoutTimeoutMillis=" + checkoutTimeoutMillis + '}';
+    }
+}
@@ -0,0 +1,109 @@
+package com.typinggame.data;
+
+import com.typinggame.model.Drill;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Immutable snapshot of the whole drills table, used by DrillRepository instead of querying per call.
+ * - all: every drill sorted by (level, id), so "up to level N" is a prefix and a level is a contiguous slice.
+ * - byId / byLevel: direct lookups.
+ * - version: the DrillRepository write counter at the time the snapshot was loaded; a snapshot whose
+ *   version no longer matches is stale and gets reloaded.
+ * All lists handed out are unmodifiable and share the snapshot's Drill objects.
+ */
+final class DrillCatalog {
+
+    static final String LOAD_SQL =
+            "SELECT id, title, body, level, COALESCE(is_custom, 0) AS is_custom FROM drills ORDER BY level, id";
+
+    final long version;
+    private final List<Drill> all;                      // sorted by (level, id)
+    private final Map<Integer, Drill> byId;
+    private final Map<Integer, List<Drill>> byLevel;
+    private final List<Drill> custom;                   // newest (highest id) first, like findCustom()
+    private final int[] levelEnd;                       // levelEnd[i] = index after the last drill with level <= levels[i]
+    private final int[] levels;                         // distinct levels, ascending
+
+    private DrillCatalog(long version, Drill[] sorted, boolean[] isCustom) {
+        this.version = version;
+        this.all = List.of(sorted);
+
+        Map<Integer, Drill> ids = new HashMap<>(sorted.length * 2);
+        Map<Integer, List<Drill>> lv = new HashMap<>();
+        List<Drill> cust = new ArrayList<>();
+        int[] distinct = new int[sorted.length];
+        int[] ends = new int[sorted.length];
+        int n = 0;
+
+        int start = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            Drill d = sorted[i];
+            ids.put(d.id, d);
+            if (isCustom[i]) cust.add(d);
+            boolean lastOfLevel = i == sorted.length - 1 || sorted[i + 1].level != d.level;
+            if (lastOfLevel) {
+                lv.put(d.level, all.subList(start, i + 1));
+                distinct[n] = d.level;
+                ends[n] = i + 1;
+                n++;
+                start = i + 1;
+            }
+        }
+        cust.sort((a, b) -> Integer.compare(b.id, a.id));
+
+        this.byId = Map.copyOf(ids);
+        this.byLevel = Map.copyOf(lv);
+        this.custom = List.copyOf(cust);
+        this.levels = Arrays.copyOf(distinct, n);
+        this.levelEnd = Arrays.copyOf(ends, n);
+    }
+
+    /** Read the drills table (one query) into a snapshot tagged with the given version. */
+    static DrillCatalog load(Connection c, long version) throws SQLException {
+        List<Drill> rows = new ArrayList<>();
+        List<Boolean> flags = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(LOAD_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(DrillRepository.row(rs));
+                flags.add(rs.getInt("is_custom") == 1);
+            }
+        }
+        boolean[] isCustom = new boolean[flags.size()];
+        for (int i = 0; i < isCustom.length; i++) isCustom[i] = flags.get(i);
+        return new DrillCatalog(version, rows.toArray(new Drill[0]), isCustom);
+    }
+
+    List<Drill> all() {
+        return all;
+    }
+
+    List<Drill> upToLevel(int maxLevel) {
+        int i = Arrays.binarySearch(levels, maxLevel);
+        if (i < 0) i = -i - 2;                      // last level below maxLevel
+        return i < 0 ? List.of() : all.subList(0, levelEnd[i]);
+    }
+
+    List<Drill> level(int level) {
+        return byLevel.getOrDefault(level, List.of());
+    }
+
+    Optional<Drill> byId(int id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /** Highest level present, or 1 when there are no drills (matches COALESCE(MAX(level), 1)). */
+    int maxLevel() {
+        return levels.length == 0 ? 1 : levels[levels.length - 1];
+    }
+
+    List<Drill> custom() {
+        return custom;
+    }
+
+    int size() {
+        return all.size();
+    }
+}
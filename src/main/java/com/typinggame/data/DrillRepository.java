@@ -3,87 +3,50 @@ package com.typinggame.data;
 import com.typinggame.model.Drill;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Drill reads are served from an in-memory {@link DrillCatalog} snapshot that is reloaded only after
+ * the drills table changes (custom drill insert/delete, clearAll, seeding). Returned lists are read-only.
+ */
 public class DrillRepository {
 
+    // One catalog shared by every repository instance; VERSION is bumped on each drills write.
+    private static final AtomicReference<DrillCatalog> CATALOG = new AtomicReference<>();
+    private static final AtomicLong VERSION = new AtomicLong();
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
     // -----------------------------
     // Core (level-based) operations
     // -----------------------------
 
     /** Get all drills, ordered by (level, id). */
     public List<Drill> findAll() {
-        final String sql = "SELECT id, title, body, level FROM drills ORDER BY level, id";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            List<Drill> out = new ArrayList<>();
-            while (rs.next()) out.add(row(rs));
-            return out;
-        } catch (SQLException e) {
-            throw new RuntimeException("findAll drills failed", e);
-        }
+        return catalog().all();
     }
 
     /** Get drills with level <= maxLevel, ordered by (level, id). */
     public List<Drill> findUpToLevel(int maxLevel) {
-        final String sql = "SELECT id, title, body, level FROM drills WHERE level <= ? ORDER BY level, id";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, maxLevel);
-            try (ResultSet rs = ps.executeQuery()) {
-                List<Drill> out = new ArrayList<>();
-                while (rs.next()) out.add(row(rs));
-                return out;
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("findUpToLevel failed", e);
-        }
+        return catalog().upToLevel(maxLevel);
     }
 
     /** Get exactly the drills for a specific level. */
     public List<Drill> findByLevel(int level) {
-        final String sql = "SELECT id, title, body, level FROM drills WHERE level = ? ORDER BY id";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, level);
-            try (ResultSet rs = ps.executeQuery()) {
-                List<Drill> out = new ArrayList<>();
-                while (rs.next()) out.add(row(rs));
-                return out;
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("findByLevel failed", e);
-        }
+        return catalog().level(level);
     }
 
     /** Find a drill by id. */
     public Optional<Drill> findById(int drillId) {
-        final String sql = "SELECT id, title, body, level FROM drills WHERE id = ?";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, drillId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return Optional.of(row(rs));
-                return Optional.empty();
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("findById failed", e);
-        }
+        return catalog().byId(drillId);
     }
 
     /** Highest level in the table (returns 1 if empty). */
     public int maxLevel() {
-        final String sql = "SELECT COALESCE(MAX(level), 1) AS ml FROM drills";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getInt("ml") : 1;
-        } catch (SQLException e) {
-            throw new RuntimeException("maxLevel failed", e);
-        }
+        return catalog().maxLevel();
     }
 
     // -------------------------------------------------
@@ -92,17 +55,8 @@ public class DrillRepository {
 
     /** Get the first drill in a level (lowest id). */
     public Optional<Drill> findFirstDrillInLevel(int level) {
-        final String sql = "SELECT id, title, body, level FROM drills WHERE level = ? ORDER BY id ASC LIMIT 1";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, level);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return Optional.of(row(rs));
-                return Optional.empty();
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("findFirstDrillInLevel failed", e);
-        }
+        List<Drill> drills = catalog().level(level);
+        return drills.isEmpty() ? Optional.empty() : Optional.of(drills.get(0));
     }
 
     // -----------------------------
@@ -131,26 +85,19 @@ public class DrillRepository {
             ps.setLong(7, System.currentTimeMillis());
             ps.executeUpdate();
 
+            int id = -1;
             try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) return rs.getInt(1);
+                if (rs.next()) id = rs.getInt(1);
             }
-            return -1;
+            drillsChanged(c);
+            return id;
         } catch (SQLException e) {
             throw new RuntimeException("insertCustom failed", e);
         }
     }
 
     public List<Drill> findCustom() {
-        final String sql = "SELECT id, title, body, level FROM drills WHERE is_custom=1 ORDER BY id DESC";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            List<Drill> out = new ArrayList<>();
-            while (rs.next()) out.add(row(rs));
-            return out;
-        } catch (SQLException e) {
-            throw new RuntimeException("findCustom failed", e);
-        }
+        return catalog().custom();
     }
 
     public boolean deleteCustom(int id) {
@@ -158,7 +105,9 @@ public class DrillRepository {
         try (Connection c = Database.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean deleted = ps.executeUpdate() > 0;
+            if (deleted) drillsChanged(c);
+            return deleted;
         } catch (SQLException e) {
             throw new RuntimeException("deleteCustom failed", e);
         }
@@ -174,11 +123,80 @@ public class DrillRepository {
              Statement st = c.createStatement()) {
             st.executeUpdate("DELETE FROM drills;");
             st.executeUpdate("DELETE FROM sqlite_sequence WHERE name='drills';");
+            AppMeta.remove(c, DrillSeeder.HASH_KEY);   // let the next start re-seed the baseline
+            drillsChanged(c);
         } catch (SQLException e) {
             throw new RuntimeException("clearAll failed", e);
         }
     }
 
+    // -----------------------------
+    // Catalog cache
+    // -----------------------------
+
+    /**
+     * Must be called (on the writing connection) after any change to the drills table:
+     * drops the per-user unlock levels that depend on level sizes (in the same transaction) and the cached
+     * catalog. The catalog is only marked stale once the writer is released, after the commit: bumping it
+     * earlier would let a concurrent reload stamp the new version on pre-commit (or rolled-back) rows.
+     */
+    static void drillsChanged(Connection c) throws SQLException {
+        ProgressRepository.invalidateAll(c);
+        Database.afterWrite(DrillRepository::invalidateCatalog);
+    }
+
+    /** Mark the cached catalog stale; the next read reloads it. */
+    public static void invalidateCatalog() {
+        VERSION.incrementAndGet();
+    }
+
+    /** Current catalog counters. */
+    public static CatalogStats catalogStats() {
+        DrillCatalog cur = CATALOG.get();
+        return new CatalogStats(HITS.get(), MISSES.get(), VERSION.get(),
+                cur != null && cur.version == VERSION.get() ? cur.size() : -1);
+    }
+
+    /** The current snapshot, reloading it with one query if a write has happened since it was built. */
+    static DrillCatalog catalog() {
+        long version = VERSION.get();
+        DrillCatalog cur = CATALOG.get();
+        if (cur != null && cur.version == version) {
+            HITS.incrementAndGet();
+            return cur;
+        }
+
+        MISSES.incrementAndGet();
+        try (Connection c = Database.getReadConnection()) {
+            DrillCatalog fresh = DrillCatalog.load(c, version);
+            // Never replace a newer snapshot with an older one if two threads reload at once.
+            CATALOG.accumulateAndGet(fresh, (old, neu) -> old != null && old.version > neu.version ? old : neu);
+            return fresh;
+        } catch (SQLException e) {
+            throw new RuntimeException("load drill catalog failed", e);
+        }
+    }
+
+    /** Hit/miss counters for the catalog cache. size is -1 when no current snapshot is loaded. */
+    public static class CatalogStats {
+        public final long hits;
+        public final long misses;
+        public final long version;
+        public final int size;
+
+        public CatalogStats(long hits, long misses, long version, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.version = version;
+            this.size = size;
+        }
+
+        @Override
+        public String toString() {
+            return "drillCatalog{hits=" + hits + " misses=" + misses + " version=" + version + " size=" + size + "}";
+        }
+    }
+
     // -----------------------------
     // Backward-compat shims (tier)
     // -----------------------------
@@ -198,7 +216,7 @@ public class DrillRepository {
     // -----------------------------
     // Row mapper
     // -----------------------------
-    private static Drill row(ResultSet rs) throws SQLException {
+    static Drill row(ResultSet rs) throws SQLException {
         return new Drill(
                 rs.getInt("id"),
                 rs.getString("title"),
@@ -1,136 +1,177 @@
 package com.typinggame.data;
 
+import com.typinggame.model.Drill;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.*;
+import java.util.HexFormat;
+import java.util.List;
 
 /**
  * Seeds baseline drills (Levels 1–10, 3 drills per level).
  * Fully hard-coded and idempotent (UPSERT on id).
- * SAFE: only adds 'level' column if it doesn't already exist.
+ * - All rows go in as one JDBC batch inside a single transaction (one commit, not one per drill).
+ * - A SHA-256 of the seed set is kept in app_meta; when it matches, seeding is skipped without writing.
+ *   DrillRepository.clearAll() drops the stored hash so the next start seeds again.
  */
 public final class DrillSeeder {
     private DrillSeeder() {}
 
-    /** Ensure baseline drills exist (adds/updates rows). */
+    static final String HASH_KEY = "drill_seed_hash";
+
+    static final String UPSERT_SQL = """
+        INSERT INTO drills(id, title, body, tier, level)
+        VALUES(?,?,?,?,?)
+        ON CONFLICT(id) DO UPDATE SET
+          title = excluded.title,
+          body  = excluded.body,
+          tier  = excluded.tier,
+          level = excluded.level
+        """;
+
+    /** The built-in catalog. Change it freely; a new hash makes the next start re-seed. */
+    static final List<Drill> BASELINE = List.of(
+        // ---------- LEVEL 1 ----------
+        d(11, "Level 1 – Home Row A", "fff jjj fff jjj fjfj fjfj", 1),
+        d(12, "Level 1 – Home Row B", "asdf jkl; asdf jkl; aaaa ssss dddd ffff", 1),
+        d(13, "Level 1 – Words",      "sad flask dad salad ask fall desk", 1),
+
+        // ---------- LEVEL 2 ----------
+        d(21, "Level 2 – Numbers",     "123 456 789 0 12 34 56 78 90", 2),
+        d(22, "Level 2 – Punctuation", "Now, add commas, periods. Do you see?", 2),
+        d(23, "Level 2 – Capitals",    "CAPS Lock Practice: The Quick Brown Fox.", 2),
+
+        // ---------- LEVEL 3 ----------
+        d(31, "Level 3 – Sentences",   "Typing practice improves both speed and accuracy.", 3),
+        d(32, "Level 3 – Mixed Case",  "Type These Words Exactly As You See Them.", 3),
+        d(33, "Level 3 – Challenge",   "Stay calm and keep typing under pressure!", 3),
+
+        // ---------- LEVEL 4 ----------
+        d(41, "Level 4 – Short Paragraph",
+                "Typing steadily builds muscle memory and confidence. Focus on smooth keystrokes.", 4),
+        d(42, "Level 4 – Symbols",     "Try symbols: @#$%^&*()_+ =- [] {}", 4),
+        d(43, "Level 4 – Accuracy Drill",
+                "Slow is smooth, smooth is fast. Type cleanly to reduce mistakes.", 4),
+
+        // ---------- LEVEL 5 ----------
+        d(51, "Level 5 – Long Words",
+                "encyclopaedia manoeuvre miscellaneous acknowledgement responsibility", 5),
+        d(52, "Level 5 – Rhythm",
+                "Tap the keys with rhythm and flow; maintain consistent finger motion.", 5),
+        d(53, "Level 5 – Sentences",
+                "Accuracy first, speed second; both improve with daily deliberate practice.", 5),
+
+        // ---------- LEVEL 6 ----------
+        d(61, "Level 6 – Speed Burst",
+                "Type faster now! Push your WPM beyond comfort but avoid chaos.", 6),
+        d(62, "Level 6 – Punctuation Practice",
+                "Commas, semicolons; and full stops. Keep spacing neat.", 6),
+        d(63, "Level 6 – Numbers & Words",
+                "I typed 50 words in 60 seconds with 98 percent accuracy.", 6),
+
+        // ---------- LEVEL 7 ----------
+        d(71, "Level 7 – Mixed Drill",
+                "The quick brown fox jumps over 13 lazy dogs and 2 sleepy cats.", 7),
+        d(72, "Level 7 – Quotes",
+                "\"Practice makes permanent,\" said the wise instructor.", 7),
+        d(73, "Level 7 – Balance",
+                "Focus equally on speed, accuracy, and endurance.", 7),
+
+        // ---------- LEVEL 8 ----------
+        d(81, "Level 8 – Long Passage",
+                "Typing is a skill developed through repetition and conscious correction of mistakes.", 8),
+        d(82, "Level 8 – Variety",
+                "Switch between words, numbers, and punctuation for dynamic flow.", 8),
+        d(83, "Level 8 – Timing",
+                "Keep a steady rhythm; avoid rushing or slowing excessively.", 8),
+
+        // ---------- LEVEL 9 ----------
+        d(91, "Level 9 – Complex Text",
+                "While perfection is unattainable, consistent improvement defines mastery.", 9),
+        d(92, "Level 9 – Challenge Paragraph",
+                "Students typing daily for ten minutes improve speed by twenty percent.", 9),
+        d(93, "Level 9 – Creative Writing",
+                "Compose short creative sentences while maintaining proper technique.", 9),
+
+        // ---------- LEVEL 10 ----------
+        d(101, "Level 10 – Final Challenge",
+                "This is your final typing test; deliver speed, precision, and confidence.", 10),
+        d(102, "Level 10 – Mastery",
+                "Typing fluently allows ideas to flow freely from mind to screen.", 10),
+        d(103, "Level 10 – Endurance",
+                "Sustain high WPM for a full minute without dropping accuracy.", 10)
+    );
+
+    /** Ensure baseline drills exist (adds/updates rows); no-op if the baseline hasn't changed since last time. */
     public static void ensureBaselineDrills() {
+        seed(BASELINE);
+    }
+
+    /**
+     * Upsert the given drills in one batched transaction, unless the same set was the last one seeded.
+     * @return true if rows were written, false if skipped because the stored hash matched
+     */
+    public static boolean seed(List<Drill> drills) {
+        String hash = hash(drills);
+        long start = System.nanoTime();
         try (Connection c = Database.getConnection()) {
-            // make sure 'level' exists, but only add it if missing
-            if (!columnExists(c, "drills", "level")) {
-                try (Statement st = c.createStatement()) {
-                    st.executeUpdate("ALTER TABLE drills ADD COLUMN level INTEGER DEFAULT 1;");
-                }
+            // migration v8 creates app_meta before seeding; a schema without it just gets no hash stored
+            boolean hasMeta = Migrations.tableExists(c, "app_meta");
+            if (hasMeta && hash.equals(AppMeta.get(c, HASH_KEY))) {
+                System.out.println("DrillSeeder: baseline unchanged, skipped.");
+                return false;
             }
 
-            // also keep legacy 'tier' and 'level' aligned for existing rows
-            try (Statement st = c.createStatement()) {
-                st.executeUpdate("UPDATE drills SET level = COALESCE(level, tier, 1);");
-                st.executeUpdate("UPDATE drills SET tier  = COALESCE(tier,  level, 1);");
-            } catch (SQLException ignore) {}
-
-            final String sql = """
-                INSERT INTO drills(id, title, body, tier, level)
-                VALUES(?,?,?,?,?)
-                ON CONFLICT(id) DO UPDATE SET
-                  title = excluded.title,
-                  body  = excluded.body,
-                  tier  = excluded.tier,
-                  level = excluded.level
-                """;
-
-            try (PreparedStatement ps = c.prepareStatement(sql)) {
-                // ---------- LEVEL 1 ----------
-                upsert(ps, 11, "Level 1 – Home Row A", "fff jjj fff jjj fjfj fjfj", 1);
-                upsert(ps, 12, "Level 1 – Home Row B", "asdf jkl; asdf jkl; aaaa ssss dddd ffff", 1);
-                upsert(ps, 13, "Level 1 – Words",      "sad flask dad salad ask fall desk", 1);
-
-                // ---------- LEVEL 2 ----------
-                upsert(ps, 21, "Level 2 – Numbers",     "123 456 789 0 12 34 56 78 90", 2);
-                upsert(ps, 22, "Level 2 – Punctuation", "Now, add commas, periods. Do you see?", 2);
-                upsert(ps, 23, "Level 2 – Capitals",    "CAPS Lock Practice: The Quick Brown Fox.", 2);
-
-                // ---------- LEVEL 3 ----------
-                upsert(ps, 31, "Level 3 – Sentences",   "Typing practice improves both speed and accuracy.", 3);
-                upsert(ps, 32, "Level 3 – Mixed Case",  "Type These Words Exactly As You See Them.", 3);
-                upsert(ps, 33, "Level 3 – Challenge",   "Stay calm and keep typing under pressure!", 3);
-
-                // ---------- LEVEL 4 ----------
-                upsert(ps, 41, "Level 4 – Short Paragraph",
-                        "Typing steadily builds muscle memory and confidence. Focus on smooth keystrokes.", 4);
-                upsert(ps, 42, "Level 4 – Symbols",     "Try symbols: @#$%^&*()_+ =- [] {}", 4);
-                upsert(ps, 43, "Level 4 – Accuracy Drill",
-                        "Slow is smooth, smooth is fast. Type cleanly to reduce mistakes.", 4);
-
-                // ---------- LEVEL 5 ----------
-                upsert(ps, 51, "Level 5 – Long Words",
-                        "encyclopaedia manoeuvre miscellaneous acknowledgement responsibility", 5);
-                upsert(ps, 52, "Level 5 – Rhythm",
-                        "Tap the keys with rhythm and flow; maintain consistent finger motion.", 5);
-                upsert(ps, 53, "Level 5 – Sentences",
-                        "Accuracy first, speed second; both improve with daily deliberate practice.", 5);
-
-                // ---------- LEVEL 6 ----------
-                upsert(ps, 61, "Level 6 – Speed Burst",
-                        "Type faster now! Push your WPM beyond comfort but avoid chaos.", 6);
-                upsert(ps, 62, "Level 6 – Punctuation Practice",
-                        "Commas, semicolons; and full stops. Keep spacing neat.", 6);
-                upsert(ps, 63, "Level 6 – Numbers & Words",
-                        "I typed 50 words in 60 seconds with 98 percent accuracy.", 6);
-
-                // ---------- LEVEL 7 ----------
-                upsert(ps, 71, "Level 7 – Mixed Drill",
-                        "The quick brown fox jumps over 13 lazy dogs and 2 sleepy cats.", 7);
-                upsert(ps, 72, "Level 7 – Quotes",
-                        "\"Practice makes permanent,\" said the wise instructor.", 7);
-                upsert(ps, 73, "Level 7 – Balance",
-                        "Focus equally on speed, accuracy, and endurance.", 7);
-
-                // ---------- LEVEL 8 ----------
-                upsert(ps, 81, "Level 8 – Long Passage",
-                        "Typing is a skill developed through repetition and conscious correction of mistakes.", 8);
-                upsert(ps, 82, "Level 8 – Variety",
-                        "Switch between words, numbers, and punctuation for dynamic flow.", 8);
-                upsert(ps, 83, "Level 8 – Timing",
-                        "Keep a steady rhythm; avoid rushing or slowing excessively.", 8);
-
-                // ---------- LEVEL 9 ----------
-                upsert(ps, 91, "Level 9 – Complex Text",
-                        "While perfection is unattainable, consistent improvement defines mastery.", 9);
-                upsert(ps, 92, "Level 9 – Challenge Paragraph",
-                        "Students typing daily for ten minutes improve speed by twenty percent.", 9);
-                upsert(ps, 93, "Level 9 – Creative Writing",
-                        "Compose short creative sentences while maintaining proper technique.", 9);
-
-                // ---------- LEVEL 10 ----------
-                upsert(ps, 101, "Level 10 – Final Challenge",
-                        "This is your final typing test; deliver speed, precision, and confidence.", 10);
-                upsert(ps, 102, "Level 10 – Mastery",
-                        "Typing fluently allows ideas to flow freely from mind to screen.", 10);
-                upsert(ps, 103, "Level 10 – Endurance",
-                        "Sustain high WPM for a full minute without dropping accuracy.", 10);
+            boolean ownTx = c.getAutoCommit();   // join the caller's transaction (e.g. a migration) if there is one
+            if (ownTx) c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = c.prepareStatement(UPSERT_SQL)) {
+                    for (Drill d : drills) {
+                        ps.setInt(1, d.id);
+                        ps.setString(2, d.title);
+                        ps.setString(3, d.body);
+                        ps.setInt(4, d.level); // tier (mirror for legacy)
+                        ps.setInt(5, d.level); // level
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                if (hasMeta) AppMeta.put(c, HASH_KEY, hash);
+
+                // level totals may have changed
+                DrillRepository.drillsChanged(c);
+                if (ownTx) c.commit();
+            } catch (SQLException e) {
+                if (ownTx) c.rollback();
+                throw e;
+            } finally {
+                if (ownTx) c.setAutoCommit(true);
             }
 
-            System.out.println("DrillSeeder: seeded 10 levels × 3 drills each.");
+            System.out.printf("DrillSeeder: seeded %d drills in %.1f ms.%n", drills.size(), (System.nanoTime() - start) / 1e6);
+            return true;
         } catch (SQLException e) {
             throw new RuntimeException("DrillSeeder failed", e);
         }
     }
 
-    private static void upsert(PreparedStatement ps, int id, String title, String body, int level) throws SQLException {
-        ps.setInt(1, id);
-        ps.setString(2, title);
-        ps.setString(3, body);
-        ps.setInt(4, level); // tier (mirror for legacy)
-        ps.setInt(5, level); // level
-        ps.executeUpdate();
-    }
-
-    private static boolean columnExists(Connection c, String table, String col) throws SQLException {
-        try (PreparedStatement ps = c.prepareStatement("PRAGMA table_info('" + table + "')");
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                String name = rs.getString("name");
-                if (name != null && name.equalsIgnoreCase(col)) return true;
+    /** SHA-256 over (id, title, body, level) of every drill, in list order. */
+    static String hash(List<Drill> drills) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (Drill d : drills) {
+                md.update((d.id + "\0" + d.title + "\0" + d.body + "\0" + d.level + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
             }
-            return false;
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
+
+    private static Drill d(int id, String title, String body, int level) {
+        return new Drill(id, title, body, level);
+    }
 }
@@ -0,0 +1,95 @@
+package com.typinggame.data;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Startup self-check: runs EXPLAIN QUERY PLAN for each registered repository query and reports any step
+ * that reads a whole table - "SCAN sessions", "SCAN users USING COVERING INDEX ..." (a full index walk), or a
+ * bare "SEARCH sessions" with no usable key - instead of a keyed "SEARCH ... USING INDEX (col=?)".
+ * Scans of a query's own subqueries/CTEs are not reported.
+ * Add new hot-path SQL to {@link #QUERIES} so a missing index shows up in the log instead of in production;
+ * queries that have to visit every row by design go in {@link #FULL_SCAN_OK}.
+ */
+final class IndexAdvisor {
+    private IndexAdvisor() {}
+
+    /** Queries that should be index-backed, keyed by where they live. */
+    static final Map<String, String> QUERIES = new LinkedHashMap<>();
+    static {
+        QUERIES.put("SessionRepository.HAS_PLAYED_SQL", SessionRepository.HAS_PLAYED_SQL);
+        QUERIES.put("SessionRepository.BEST_SCORE_SQL", SessionRepository.BEST_SCORE_SQL);
+        QUERIES.put("SessionRepository.COUNT_IN_LEVEL_SQL", SessionRepository.COUNT_IN_LEVEL_SQL);
+        QUERIES.put("SessionRepository.COMPLETED_DRILLS_SQL", SessionRepository.COMPLETED_DRILLS_SQL);
+        QUERIES.put("SessionRepository.KEYSTROKES_SQL", SessionRepository.KEYSTROKES_SQL);
+        QUERIES.put("SessionRepository.TOP_BY_BEST_SQL", SessionRepository.TOP_BY_BEST_SQL);
+        QUERIES.put("LeaderboardRepository.UPSERT_SQL", LeaderboardRepository.UPSERT_SQL);
+        QUERIES.put("LeaderboardRepository.TOP_SQL", LeaderboardRepository.TOP_SQL);
+        QUERIES.put("LeaderboardRepository.TOP_FOR_DRILL_SQL", LeaderboardRepository.TOP_FOR_DRILL_SQL);
+        QUERIES.put("KeyStatsRepository.READ_SQL", KeyStatsRepository.READ_SQL);
+        QUERIES.put("KeyStatsRepository.USER_LOGS_SQL", KeyStatsRepository.USER_LOGS_SQL);
+        QUERIES.put("ProgressRepository.READ_SQL", ProgressRepository.READ_SQL);
+        QUERIES.put("ProgressRepository.LEVELS_SQL", ProgressRepository.LEVELS_SQL);
+        QUERIES.put("User.PROFILE_SQL", User.PROFILE_SQL);
+        QUERIES.put("User.USER_ID_SQL", User.USER_ID_SQL);
+        QUERIES.put("SqliteUserRepository.LOAD_USER_SQL", SqliteUserRepository.LOAD_USER_SQL);
+        QUERIES.put("SqliteUserRepository.USER_EXISTS_SQL", SqliteUserRepository.USER_EXISTS_SQL);
+    }
+
+    /** Queries that legitimately read every row (a global ranking has to look at each user's best). */
+    static final Set<String> FULL_SCAN_OK = Set.of(
+            "SessionRepository.TOP_BY_BEST_SQL",
+            "LeaderboardRepository.TOP_SQL");
+
+    /**
+     * Explain every registered query and log the full-table scans.
+     * @return one "name: plan step" entry per scan found (empty when everything is indexed)
+     */
+    static List<String> check(Connection c) {
+        List<String> scans = new ArrayList<>();
+        for (Map.Entry<String, String> q : QUERIES.entrySet()) {
+            if (FULL_SCAN_OK.contains(q.getKey())) continue;
+            try {
+                for (String step : fullScans(c, q.getValue())) scans.add(q.getKey() + ": " + step);
+            } catch (SQLException e) {
+                scans.add(q.getKey() + ": EXPLAIN failed (" + e.getMessage() + ")");
+            }
+        }
+        for (String s : scans) System.err.println("[IndexAdvisor] full table scan -> " + s);
+        System.out.println("[IndexAdvisor] checked " + (QUERIES.size() - FULL_SCAN_OK.size()) + " queries, "
+                + scans.size() + " full scan(s)");
+        return scans;
+    }
+
+    /** The plan steps of one query that read a whole real table. Parameters are left unbound (NULL). */
+    static List<String> fullScans(Connection c, String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) steps.add(rs.getString("detail"));
+        }
+
+        // Subqueries and CTEs show up as "CO-ROUTINE b" / "MATERIALIZE c" before they're scanned as "SCAN b".
+        Set<String> derived = new HashSet<>();
+        for (String step : steps) {
+            for (String prefix : new String[] {"CO-ROUTINE ", "MATERIALIZE "}) {
+                if (step.startsWith(prefix)) derived.add(firstWord(step.substring(prefix.length())));
+            }
+        }
+
+        List<String> out = new ArrayList<>();
+        for (String step : steps) {
+            boolean scan = step.startsWith("SCAN ");
+            boolean unkeyedSearch = step.startsWith("SEARCH ") && !step.contains(" USING ");
+            if (!scan && !unkeyedSearch) continue;
+            String target = firstWord(step.substring(step.indexOf(' ') + 1));
+            if (!derived.contains(target) && !target.equals("CONSTANT")) out.add(step);
+        }
+        return out;
+    }
+
+    private static String firstWord(String s) {
+        int sp = s.indexOf(' ');
+        return sp < 0 ? s : s.substring(0, sp);
+    }
+}
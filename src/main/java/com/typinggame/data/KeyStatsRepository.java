@@ -0,0 +1,111 @@
+package com.typinggame.data;
+
+import com.typinggame.model.KeyStats;
+
+import java.sql.*;
+
+/**
+ * Per-user key latency/error aggregates, stored as one {@link KeyStats} blob per user in key_stats.
+ * SessionRepository.insert folds each session's keystroke log in via {@link #recordSession} (same
+ * transaction), so reading a user's heatmap is a single primary-key lookup.
+ */
+public class KeyStatsRepository {
+
+    static final String READ_SQL = "SELECT data FROM key_stats WHERE user_id = ?";
+
+    static final String UPSERT_SQL = """
+        INSERT INTO key_stats(user_id, format, sessions, data, updated_at)
+        VALUES(?,?,?,?,datetime('now'))
+        ON CONFLICT(user_id) DO UPDATE SET
+          format     = excluded.format,
+          sessions   = excluded.sessions,
+          data       = excluded.data,
+          updated_at = excluded.updated_at
+        """;
+
+    /** Every stored keystroke log of a user, oldest first (for rebuilds). */
+    static final String USER_LOGS_SQL = """
+        SELECT k.data
+        FROM sessions s
+        JOIN session_keystrokes k ON k.session_id = s.id
+        WHERE s.user_id = ?
+        ORDER BY s.id
+        """;
+
+    /** The user's aggregates; empty (zero sessions) if nothing has been recorded yet. */
+    public KeyStats load(int userId) {
+        try (Connection c = Database.getReadConnection()) {
+            return read(c, userId);
+        } catch (SQLException e) {
+            throw new RuntimeException("load key stats failed", e);
+        }
+    }
+
+    /**
+     * Recompute a user's aggregates from all their stored keystroke logs (e.g. after a format change).
+     * @return the rebuilt aggregates
+     */
+    public KeyStats rebuild(int userId) {
+        try (Connection c = Database.getConnection()) {
+            return rebuild(c, userId);
+        } catch (SQLException e) {
+            throw new RuntimeException("rebuild key stats failed", e);
+        }
+    }
+
+    static KeyStats rebuild(Connection c, int userId) throws SQLException {
+        KeyStats stats = new KeyStats();
+        try (PreparedStatement ps = c.prepareStatement(USER_LOGS_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) addLog(stats, rs.getBytes(1));
+            }
+        }
+        write(c, userId, stats);
+        return stats;
+    }
+
+    /**
+     * Fold one session's keystroke log into the user's stored aggregates.
+     * Runs on the caller's connection so it commits (or rolls back) with the session insert.
+     */
+    static void recordSession(Connection c, int userId, byte[] keystrokeLog) throws SQLException {
+        KeyStats stats = read(c, userId);
+        addLog(stats, keystrokeLog);
+        write(c, userId, stats);
+    }
+
+    private static KeyStats read(Connection c, int userId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(READ_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return new KeyStats();
+                try {
+                    return KeyStats.fromBytes(rs.getBytes(1));
+                } catch (IllegalArgumentException e) {
+                    // unreadable (older format): start over rather than fail the caller
+                    System.err.println("[KeyStats] discarding unreadable aggregates for user " + userId + ": " + e.getMessage());
+                    return new KeyStats();
+                }
+            }
+        }
+    }
+
+    private static void write(Connection c, int userId, KeyStats stats) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(UPSERT_SQL)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, KeyStats.VERSION);
+            ps.setInt(3, stats.sessions());
+            ps.setBytes(4, stats.toBytes());
+            ps.executeUpdate();
+        }
+    }
+
+    private static void addLog(KeyStats stats, byte[] log) throws SQLException {
+        try {
+            stats.addSession(log);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("invalid keystroke log: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.typinggame.data;
 
+import com.typinggame.model.Session;
+
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Read-only leaderboard queries using the sessions table.
+ * Leaderboard queries served from the best_scores projection (one row per user per drill).
  * - Global best (per user)
  * - Per-drill best (per user)
+ * SessionRepository.insert keeps best_scores current via {@link #recordSession}, so reads no longer
+ * scan the whole sessions history, and ties can't produce duplicate rows for a user.
  */
 public class LeaderboardRepository {
 
@@ -22,38 +26,61 @@ public class LeaderboardRepository {
         }
     }
 
+    /** Keep a user's row only if the new session beats it on (score, wpm, accuracy). */
+    static final String UPSERT_SQL = """
+        INSERT INTO best_scores(user_id, drill_id, score, wpm, accuracy, session_id)
+        VALUES(?,?,?,?,?,?)
+        ON CONFLICT(user_id, drill_id) DO UPDATE SET
+          score      = excluded.score,
+          wpm        = excluded.wpm,
+          accuracy   = excluded.accuracy,
+          session_id = excluded.session_id
+        WHERE (excluded.score, excluded.wpm, excluded.accuracy)
+            > (best_scores.score, best_scores.wpm, best_scores.accuracy)
+        """;
+
+    /** Rebuild best_scores from the full sessions history (first session wins an exact tie). */
+    static final String BACKFILL_SQL = """
+        INSERT OR REPLACE INTO best_scores(user_id, drill_id, score, wpm, accuracy, session_id)
+        SELECT user_id, drill_id, score, wpm, accuracy, id
+        FROM (
+          SELECT s.*, ROW_NUMBER() OVER (
+                   PARTITION BY user_id, drill_id
+                   ORDER BY score DESC, wpm DESC, accuracy DESC, id) AS rn
+          FROM sessions s
+        )
+        WHERE rn = 1
+        """;
+
+    static final String TOP_SQL = """
+        SELECT u.username AS name, b.wpm, b.accuracy, b.score
+        FROM (
+          SELECT user_id, wpm, accuracy, score,
+                 ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY score DESC, wpm DESC, accuracy DESC) AS rn
+          FROM best_scores
+        ) b
+        JOIN users u ON u.id = b.user_id
+        WHERE b.rn = 1
+        ORDER BY b.score DESC, b.wpm DESC, b.accuracy DESC
+        LIMIT ?
+        """;
+
+    static final String TOP_FOR_DRILL_SQL = """
+        SELECT u.username AS name, b.wpm, b.accuracy, b.score
+        FROM best_scores b
+        JOIN users u ON u.id = b.user_id
+        WHERE b.drill_id = ?
+        ORDER BY b.score DESC, b.wpm DESC, b.accuracy DESC
+        LIMIT ?
+        """;
+
     /** Best single session per user across all drills. Sorted by score, then WPM, then accuracy. */
     public List<LeaderboardRow> topByBestScore(int limit) {
-        String sql = ""
-                + "WITH best AS ("
-                + "  SELECT user_id, MAX(score) AS best_score"
-                + "  FROM sessions"
-                + "  GROUP BY user_id"
-                + ") "
-                + "SELECT u.username AS name, s.wpm, s.accuracy, s.score "
-                + "FROM sessions s "
-                + "JOIN best b ON b.user_id = s.user_id AND b.best_score = s.score "
-                + "JOIN users u ON u.id = s.user_id "
-                + "ORDER BY s.score DESC, s.wpm DESC, s.accuracy DESC "
-                + "LIMIT ?";
-
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(TOP_SQL)) {
 
             ps.setInt(1, limit);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                List<LeaderboardRow> out = new ArrayList<>();
-                while (rs.next()) {
-                    out.add(new LeaderboardRow(
-                            rs.getString("name"),
-                            rs.getDouble("wpm"),
-                            rs.getDouble("accuracy"),
-                            rs.getDouble("score")
-                    ));
-                }
-                return out;
-            }
+            return rows(ps);
         } catch (SQLException e) {
             throw new RuntimeException("topByBestScore failed", e);
         }
@@ -61,42 +88,49 @@ public class LeaderboardRepository {
 
     /** Best single session per user for a given drill. Sorted by score, then WPM, then accuracy. */
     public List<LeaderboardRow> topByBestScoreForDrill(int drillId, int limit) {
-        String sql = ""
-                + "WITH best AS ("
-                + "  SELECT user_id, MAX(score) AS best_score"
-                + "  FROM sessions"
-                + "  WHERE drill_id = ?"
-                + "  GROUP BY user_id"
-                + ") "
-                + "SELECT u.username AS name, s.wpm, s.accuracy, s.score "
-                + "FROM sessions s "
-                + "JOIN best b ON b.user_id = s.user_id AND b.best_score = s.score "
-                + "JOIN users u ON u.id = s.user_id "
-                + "WHERE s.drill_id = ? "
-                + "ORDER BY s.score DESC, s.wpm DESC, s.accuracy DESC "
-                + "LIMIT ?";
-
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(TOP_FOR_DRILL_SQL)) {
 
             ps.setInt(1, drillId);
-            ps.setInt(2, drillId);
-            ps.setInt(3, limit);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                List<LeaderboardRow> out = new ArrayList<>();
-                while (rs.next()) {
-                    out.add(new LeaderboardRow(
-                            rs.getString("name"),
-                            rs.getDouble("wpm"),
-                            rs.getDouble("accuracy"),
-                            rs.getDouble("score")
-                    ));
-                }
-                return out;
-            }
+            ps.setInt(2, limit);
+            return rows(ps);
         } catch (SQLException e) {
             throw new RuntimeException("topByBestScoreForDrill failed", e);
         }
     }
+
+    /** Fold a just-inserted session into best_scores (call on the writer, inside the insert's transaction). */
+    static void recordSession(Connection c, Session s, int sessionId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(UPSERT_SQL)) {
+            ps.setInt(1, s.userId);
+            ps.setInt(2, s.drillId);
+            ps.setDouble(3, s.score);
+            ps.setDouble(4, s.wpm);
+            ps.setDouble(5, s.accuracy);
+            ps.setInt(6, sessionId);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Recompute best_scores from sessions; returns the number of rows written. */
+    static int backfill(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            return st.executeUpdate(BACKFILL_SQL);
+        }
+    }
+
+    private static List<LeaderboardRow> rows(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            List<LeaderboardRow> out = new ArrayList<>();
+            while (rs.next()) {
+                out.add(new LeaderboardRow(
+                        rs.getString("name"),
+                        rs.getDouble("wpm"),
+                        rs.getDouble("accuracy"),
+                        rs.getDouble("score")
+                ));
+            }
+            return out;
+        }
+    }
 }
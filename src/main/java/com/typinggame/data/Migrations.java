@@ -0,0 +1,339 @@
+package com.typinggame.data;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Ordered, versioned schema changes.
+ * - schema_version records each applied step (version, description, when, how long it took).
+ * - On startup only steps newer than the recorded version run, each in its own transaction, so a warm
+ *   start issues no DDL/DML at all.
+ * - Steps are written to be safe on databases created before schema_version existed (IF NOT EXISTS,
+ *   column checks), so older typinggame.db files upgrade in place.
+ * Never edit or reorder a released step; append a new one instead.
+ */
+final class Migrations {
+    private Migrations() {}
+
+    /** One schema change. */
+    interface Step {
+        void apply(Connection c) throws SQLException;
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    static final List<Migration> ALL = List.of(
+            new Migration(1, "base tables", Migrations::baseTables),
+            new Migration(2, "custom drill metadata columns", Migrations::customDrillColumns),
+            new Migration(3, "drill levels (backfilled from tier)", Migrations::drillLevels),
+            new Migration(4, "user_progress table", Migrations::userProgress),
+            new Migration(5, "best_scores projection (backfilled from sessions)", Migrations::bestScores),
+            new Migration(6, "secondary indexes for sessions/users/best_scores", Migrations::secondaryIndexes),
+            new Migration(7, "demo user and settings", Migrations::demoUser),
+            new Migration(8, "baseline drills", Migrations::baselineDrills),
+            new Migration(9, "app_meta key/value table", Migrations::appMeta),
+            new Migration(10, "session_keystrokes table", Migrations::sessionKeystrokes),
+            new Migration(11, "key_stats aggregates (backfilled from session_keystrokes)", Migrations::keyStats),
+            new Migration(12, "user_settings.sound_enabled", Migrations::soundSetting)
+    );
+
+    /** Highest version in {@link #ALL}. */
+    static int latestVersion() {
+        return ALL.get(ALL.size() - 1).version;
+    }
+
+    /**
+     * Bring the schema up to {@link #latestVersion()}.
+     * @return number of migrations applied (0 on a warm start)
+     */
+    static int migrate(Connection c) throws SQLException {
+        if (!tableExists(c, "schema_version")) {
+            try (Statement st = c.createStatement()) {
+                st.execute("""
+                  CREATE TABLE schema_version(
+                    version     INTEGER PRIMARY KEY,
+                    description TEXT    NOT NULL,
+                    applied_at  TEXT    NOT NULL DEFAULT (datetime('now')),
+                    duration_ms REAL    NOT NULL
+                  );
+                """);
+            }
+        }
+
+        int current = currentVersion(c);
+        int applied = 0;
+        for (Migration m : ALL) {
+            if (m.version <= current) continue;
+            long start = System.nanoTime();
+            c.setAutoCommit(false);
+            try {
+                m.step.apply(c);
+                double ms = (System.nanoTime() - start) / 1e6;
+                try (PreparedStatement ps = c.prepareStatement(
+                        "INSERT INTO schema_version(version, description, duration_ms) VALUES(?,?,?)")) {
+                    ps.setInt(1, m.version);
+                    ps.setString(2, m.description);
+                    ps.setDouble(3, ms);
+                    ps.executeUpdate();
+                }
+                c.commit();
+                System.out.printf("[Migrations] v%d %s: %.1f ms%n", m.version, m.description, ms);
+                applied++;
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw new SQLException("migration v" + m.version + " (" + m.description + ") failed: " + e.getMessage(), e);
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+        if (applied == 0) System.out.println("[Migrations] schema up to date (v" + current + ")");
+        return applied;
+    }
+
+    /** Highest applied version, or 0 for a new/legacy database. */
+    static int currentVersion(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // -----------------------------
+    // Steps
+    // -----------------------------
+
+    private static void baseTables(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS users(
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                username      TEXT UNIQUE NOT NULL,
+                password_hash TEXT NOT NULL
+              );
+            """);
+
+            // original shape with body/tier retained for compat
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS drills(
+                id    INTEGER PRIMARY KEY AUTOINCREMENT,
+                title TEXT    NOT NULL,
+                body  TEXT    NOT NULL,
+                tier  INTEGER NOT NULL DEFAULT 1
+              );
+            """);
+
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS sessions(
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id          INTEGER NOT NULL,
+                drill_id         INTEGER NOT NULL,
+                wpm              REAL    NOT NULL,
+                accuracy         REAL    NOT NULL,
+                score            REAL    NOT NULL,
+                typed_chars      INTEGER NOT NULL,
+                duration_seconds REAL    NOT NULL,
+                started_at       TEXT    NOT NULL DEFAULT (datetime('now')),
+                FOREIGN KEY(user_id)  REFERENCES users(id),
+                FOREIGN KEY(drill_id) REFERENCES drills(id)
+              );
+            """);
+
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS user_settings(
+                user_id      INTEGER PRIMARY KEY,
+                display_name TEXT    NOT NULL DEFAULT '',
+                font_family  TEXT    NOT NULL DEFAULT 'System',
+                font_size    INTEGER NOT NULL DEFAULT 24,
+                theme        TEXT    NOT NULL DEFAULT 'KRILL',
+                FOREIGN KEY(user_id) REFERENCES users(id)
+              );
+            """);
+        }
+    }
+
+    private static void customDrillColumns(Connection c) throws SQLException {
+        addColumnIfMissing(c, "drills", "is_custom", "INTEGER DEFAULT 0");
+        addColumnIfMissing(c, "drills", "created_by", "TEXT");
+        addColumnIfMissing(c, "drills", "created_at", "INTEGER");
+    }
+
+    private static void drillLevels(Connection c) throws SQLException {
+        // nullable with DEFAULT 1 for maximal compatibility in SQLite
+        addColumnIfMissing(c, "drills", "level", "INTEGER DEFAULT 1");
+        try (Statement st = c.createStatement()) {
+            // copy tier into level, then keep the legacy tier column aligned
+            st.executeUpdate("""
+                UPDATE drills
+                   SET level = CASE
+                       WHEN tier IS NOT NULL AND tier > 0 THEN tier
+                       ELSE 1
+                   END
+            """);
+            st.executeUpdate("UPDATE drills SET tier = COALESCE(tier, level, 1)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_drills_level_id ON drills(level, id)");
+        }
+    }
+
+    private static void userProgress(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS user_progress(
+                user_id        INTEGER PRIMARY KEY,
+                unlocked_up_to INTEGER NOT NULL,
+                FOREIGN KEY(user_id) REFERENCES users(id)
+              );
+            """);
+        }
+    }
+
+    private static void bestScores(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS best_scores(
+                user_id    INTEGER NOT NULL,
+                drill_id   INTEGER NOT NULL,
+                score      REAL    NOT NULL,
+                wpm        REAL    NOT NULL,
+                accuracy   REAL    NOT NULL,
+                session_id INTEGER NOT NULL,
+                PRIMARY KEY(user_id, drill_id)
+              );
+            """);
+            st.execute("CREATE INDEX IF NOT EXISTS idx_best_scores_drill_score " +
+                    "ON best_scores(drill_id, score DESC, wpm DESC, accuracy DESC, user_id)");
+        }
+        int n = LeaderboardRepository.backfill(c);
+        System.out.println("[Migrations] backfilled best_scores: " + n + " rows");
+    }
+
+    private static void secondaryIndexes(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            // (user_id, drill_id): "has played", completed drills, per-level counts, level unlocks
+            st.execute("CREATE INDEX IF NOT EXISTS idx_sessions_user_drill ON sessions(user_id, drill_id)");
+            // (user_id, score): best score per user (MAX read straight off the index)
+            st.execute("CREATE INDEX IF NOT EXISTS idx_sessions_user_score ON sessions(user_id, score)");
+            // (user_id, wpm, accuracy): profile stats MAX(wpm)/MAX(accuracy)/COUNT(*) without touching rows
+            st.execute("CREATE INDEX IF NOT EXISTS idx_sessions_user_stats ON sessions(user_id, wpm, accuracy)");
+            // login/lookup compares usernames case-insensitively; the UNIQUE index is BINARY
+            st.execute("CREATE INDEX IF NOT EXISTS idx_users_username_nocase ON users(username COLLATE NOCASE)");
+            // global board: each user's rows already in (score, wpm, accuracy) order for the window
+            st.execute("CREATE INDEX IF NOT EXISTS idx_best_scores_user_score " +
+                    "ON best_scores(user_id, score DESC, wpm DESC, accuracy DESC)");
+        }
+    }
+
+    private static void demoUser(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT OR IGNORE INTO users(username, password_hash) VALUES(?, ?)")) {
+            ps.setString(1, "demo");
+            ps.setString(2, Integer.toHexString("demo123".hashCode()));
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT OR IGNORE INTO user_settings(user_id, display_name) " +
+                        "SELECT id, 'Demo User' FROM users WHERE username='demo'")) {
+            ps.executeUpdate();
+        }
+    }
+
+    private static void baselineDrills(Connection c) throws SQLException {
+        // app_meta (v9) first, so the seeder can store the baseline hash and Database.init doesn't seed again
+        appMeta(c);
+        DrillSeeder.ensureBaselineDrills();
+    }
+
+    private static void appMeta(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS app_meta(
+                key   TEXT PRIMARY KEY,
+                value TEXT NOT NULL
+              );
+            """);
+        }
+    }
+
+    private static void sessionKeystrokes(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            // one KeystrokeLog blob per session; kept out of sessions so aggregate queries don't page it in
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS session_keystrokes(
+                session_id  INTEGER PRIMARY KEY,
+                format      INTEGER NOT NULL,
+                event_count INTEGER NOT NULL,
+                data        BLOB    NOT NULL,
+                FOREIGN KEY(session_id) REFERENCES sessions(id)
+              );
+            """);
+        }
+    }
+
+    private static void keyStats(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("""
+              CREATE TABLE IF NOT EXISTS key_stats(
+                user_id    INTEGER PRIMARY KEY,
+                format     INTEGER NOT NULL,
+                sessions   INTEGER NOT NULL,
+                data       BLOB    NOT NULL,
+                updated_at TEXT    NOT NULL,
+                FOREIGN KEY(user_id) REFERENCES users(id)
+              );
+            """);
+        }
+        // users who already have keystroke logs (recorded since v10) get their aggregates now
+        List<Integer> users = new java.util.ArrayList<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT DISTINCT s.user_id FROM session_keystrokes k JOIN sessions s ON s.id = k.session_id")) {
+            while (rs.next()) users.add(rs.getInt(1));
+        }
+        for (int userId : users) KeyStatsRepository.rebuild(c, userId);
+    }
+
+    private static void soundSetting(Connection c) throws SQLException {
+        addColumnIfMissing(c, "user_settings", "sound_enabled", "INTEGER NOT NULL DEFAULT 1");
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+
+    static boolean tableExists(Connection c, String table) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type='table' AND name=?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    static boolean columnExists(Connection c, String table, String col) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("PRAGMA table_info('" + table + "')");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String name = rs.getString("name");
+                if (name != null && name.equalsIgnoreCase(col)) return true;
+            }
+            return false;
+        }
+    }
+
+    private static void addColumnIfMissing(Connection c, String table, String col, String type) throws SQLException {
+        if (columnExists(c, table, col)) return;
+        try (Statement st = c.createStatement()) {
+            st.execute("ALTER TABLE " + table + " ADD COLUMN " + col + " " + type);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.typinggame.data;
+
+import java.sql.*;
+
+/**
+ * Level-unlock state per user, materialized in the user_progress table.
+ * - Reads are a single primary-key lookup.
+ * - A missing row is computed with one grouped query (per-level totals vs. completed drills) and stored.
+ * - SessionRepository refreshes the row when a user completes a drill for the first time.
+ * - Any change to the drill catalog drops all rows, since level totals may have changed.
+ *
+ * Rule (unchanged): all drills in a level need ≥ 1 session to unlock the next; Level 1 is always unlocked.
+ */
+public class ProgressRepository {
+
+    static final String READ_SQL = "SELECT unlocked_up_to FROM user_progress WHERE user_id = ?";
+
+    /** One pass over drills: how many drills each level has and how many of them the user has played. */
+    static final String LEVELS_SQL = """
+        SELECT d.level AS level, COUNT(*) AS total, COUNT(c.drill_id) AS completed
+        FROM drills d
+        LEFT JOIN (SELECT DISTINCT drill_id FROM sessions WHERE user_id = ?) c ON c.drill_id = d.id
+        WHERE d.level >= 1
+        GROUP BY d.level
+        ORDER BY d.level
+        """;
+
+    static final String UPSERT_SQL = """
+        INSERT INTO user_progress(user_id, unlocked_up_to) VALUES(?, ?)
+        ON CONFLICT(user_id) DO UPDATE SET unlocked_up_to = excluded.unlocked_up_to
+        """;
+
+    /** Highest unlocked level (inclusive) for the user. */
+    public int unlockedUpTo(int userId) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(READ_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("read user_progress failed", e);
+        }
+
+        // Not materialized yet (new user, or the catalog changed): compute and store it.
+        try (Connection c = Database.getConnection()) {
+            return refresh(c, userId);
+        } catch (SQLException e) {
+            throw new RuntimeException("refresh user_progress failed", e);
+        }
+    }
+
+    /** Recompute the user's unlock level on the given (writer) connection and store it. */
+    static int refresh(Connection c, int userId) throws SQLException {
+        int unlocked = compute(c, userId);
+        try (PreparedStatement ps = c.prepareStatement(UPSERT_SQL)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, unlocked);
+            ps.executeUpdate();
+        }
+        return unlocked;
+    }
+
+    /** Unlock level straight from drills/sessions, without touching user_progress. */
+    static int compute(Connection c, int userId) throws SQLException {
+        int[] levels = new int[16];
+        boolean[] complete = new boolean[16];
+        int n = 0;
+
+        try (PreparedStatement ps = c.prepareStatement(LEVELS_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (n == levels.length) {
+                        levels = java.util.Arrays.copyOf(levels, n * 2);
+                        complete = java.util.Arrays.copyOf(complete, n * 2);
+                    }
+                    levels[n] = rs.getInt("level");
+                    complete[n] = rs.getInt("completed") >= rs.getInt("total");
+                    n++;
+                }
+            }
+        }
+        if (n == 0) return 1;
+
+        int maxLevel = levels[n - 1];
+        int unlocked = 1;
+        for (int i = 0; i < n; i++) {
+            if (!complete[i]) break;            // stop at the first incomplete level
+            unlocked = Math.min(maxLevel, levels[i] + 1);
+        }
+        return unlocked;
+    }
+
+    /**
+     * Recompute user_progress for every user with a best_scores row in one pass (bulk loads; refresh() per
+     * user would re-run LEVELS_SQL each time). best_scores has exactly one row per played (user, drill), so
+     * per-level completed counts come from it directly; users without sessions stay lazily computed.
+     * Returns the number of rows written.
+     */
+    static int rebuildAll(Connection c) throws SQLException {
+        int[] levels = new int[16];
+        int[] totals = new int[16];
+        int n = 0;
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT level, COUNT(*) FROM drills WHERE level >= 1 GROUP BY level ORDER BY level")) {
+            while (rs.next()) {
+                if (n == levels.length) {
+                    levels = java.util.Arrays.copyOf(levels, n * 2);
+                    totals = java.util.Arrays.copyOf(totals, n * 2);
+                }
+                levels[n] = rs.getInt(1);
+                totals[n] = rs.getInt(2);
+                n++;
+            }
+        }
+        if (n == 0) return 0;
+
+        int written = 0;
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("""
+                 SELECT b.user_id, d.level, COUNT(*)
+                   FROM best_scores b JOIN drills d ON d.id = b.drill_id
+                  WHERE d.level >= 1
+                  GROUP BY b.user_id, d.level
+                  ORDER BY b.user_id, d.level
+                 """);
+             PreparedStatement ps = c.prepareStatement(UPSERT_SQL)) {
+            int user = -1, next = 0, unlocked = 1;
+            boolean open = true;                // still inside the user's leading run of complete levels
+            while (rs.next()) {
+                int u = rs.getInt(1);
+                if (u != user) {
+                    if (user != -1) written += upsert(ps, user, unlocked);
+                    user = u;
+                    next = 0;
+                    unlocked = 1;
+                    open = true;
+                }
+                if (!open) continue;
+                int level = rs.getInt(2);
+                if (levels[next] != level || rs.getInt(3) < totals[next]) {
+                    open = false;               // a level was skipped or is incomplete
+                    continue;
+                }
+                unlocked = Math.min(levels[n - 1], level + 1);
+                next++;
+                if (next == n) open = false;
+            }
+            if (user != -1) written += upsert(ps, user, unlocked);
+            ps.executeBatch();
+        }
+        return written;
+    }
+
+    private static int upsert(PreparedStatement ps, int userId, int unlocked) throws SQLException {
+        ps.setInt(1, userId);
+        ps.setInt(2, unlocked);
+        ps.addBatch();
+        return 1;
+    }
+
+    /** Drop every materialized row; call after drills are added, removed or re-levelled. */
+    static void invalidateAll(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM user_progress");
+        }
+    }
+}
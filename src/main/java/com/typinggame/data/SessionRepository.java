@@ -1,5 +1,7 @@
 package com.typinggame.data;
 
+import com.typinggame.model.KeystrokeLog;
+import com.typinggame.model.KeystrokeReplay;
 import com.typinggame.model.Session;
 
 import java.sql.*;
@@ -15,42 +17,184 @@ import java.util.Set;
  */
 public class SessionRepository {
 
-    /** Insert a session and return it with the generated id (if any). */
+    static final String INSERT_SQL = """
+        INSERT INTO sessions(user_id, drill_id, wpm, accuracy, score, typed_chars, duration_seconds, started_at)
+        VALUES(?,?,?,?,?,?,?,?)
+        """;
+
+    static final String INSERT_KEYSTROKES_SQL =
+        "INSERT INTO session_keystrokes(session_id, format, event_count, data) VALUES(?,?,?,?)";
+
+    static final String KEYSTROKES_SQL = "SELECT data FROM session_keystrokes WHERE session_id = ?";
+
+    static final String HAS_PLAYED_SQL = "SELECT 1 FROM sessions WHERE user_id = ? AND drill_id = ? LIMIT 1";
+
+    static final String BEST_SCORE_SQL = "SELECT MAX(score) AS best FROM sessions WHERE user_id = ?";
+
+    static final String COUNT_IN_LEVEL_SQL = """
+        SELECT COUNT(*) AS cnt
+        FROM sessions s
+        JOIN drills d ON d.id = s.drill_id
+        WHERE s.user_id = ? AND d.level = ?
+        """;
+
+    static final String COMPLETED_DRILLS_SQL = """
+        SELECT DISTINCT s.drill_id
+        FROM sessions s
+        WHERE s.user_id = ?
+        """;
+
+    static final String TOP_BY_BEST_SQL = """
+        SELECT COALESCE(us.display_name, u.username) AS name, b.wpm, b.accuracy, b.score
+        FROM (
+          SELECT user_id, wpm, accuracy, score,
+                 ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY score DESC, wpm DESC, accuracy DESC) AS rn
+          FROM best_scores
+        ) b
+        JOIN users u          ON u.id = b.user_id
+        LEFT JOIN user_settings us ON us.user_id = u.id
+        WHERE b.rn = 1
+        ORDER BY b.score DESC
+        LIMIT ?
+        """;
+
+    /**
+     * Insert a session and return it with the generated id (if any).
+     * In the same transaction it folds the result into best_scores and, if this is the user's first
+     * session on the drill, refreshes their user_progress row, so neither has to be recomputed on read.
+     * A recorded keystroke log is stored alongside and folded into the user's key_stats aggregates.
+     */
     public Session insert(Session s) {
-        String sql = """
-            INSERT INTO sessions(user_id, drill_id, wpm, accuracy, score, typed_chars, duration_seconds, started_at)
-            VALUES(?,?,?,?,?,?,?,?)
-            """;
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setInt(1, s.userId);
-            ps.setInt(2, s.drillId);
-            ps.setDouble(3, s.wpm);
-            ps.setDouble(4, s.accuracy);
-            ps.setDouble(5, s.score);
-            ps.setInt(6, s.typedChars);
-            ps.setDouble(7, s.durationSeconds);
-            ps.setString(8, s.startedAt.toString()); // store ISO-8601 string
+        return insertBatch(List.of(s)).get(0);
+    }
 
+    /**
+     * Insert several sessions in one transaction (one commit for the whole batch).
+     * Keystroke logs are checked before the transaction opens: an unreadable one is dropped (and logged) and
+     * its session saved without it, so a bad log never costs the session or the rest of the batch.
+     * @return the inserted sessions, in order, each with its generated id
+     */
+    public List<Session> insertBatch(List<Session> batch) {
+        batch = withReadableKeystrokes(batch);
+        try (Connection c = Database.getConnection()) {
+            boolean ownTx = c.getAutoCommit();   // join the caller's transaction if there is one
+            if (ownTx) c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                List<Session> out = new ArrayList<>(batch.size());
+                for (Session s : batch) out.add(insertOne(c, ps, s));
+                if (ownTx) c.commit();
+                return out;
+            } catch (SQLException e) {
+                if (ownTx) c.rollback();
+                throw e;
+            } finally {
+                if (ownTx) c.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("insert session failed", e);
+        }
+    }
+
+    private static Session insertOne(Connection c, PreparedStatement ps, Session s) throws SQLException {
+        boolean firstCompletion = !hasPlayed(c, s.userId, s.drillId);
+
+        ps.setInt(1, s.userId);
+        ps.setInt(2, s.drillId);
+        ps.setDouble(3, s.wpm);
+        ps.setDouble(4, s.accuracy);
+        ps.setDouble(5, s.score);
+        ps.setInt(6, s.typedChars);
+        ps.setDouble(7, s.durationSeconds);
+        ps.setString(8, s.startedAt.toString()); // store ISO-8601 string
+        ps.executeUpdate();
+
+        Integer id = null;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (keys.next()) id = keys.getInt(1);
+        }
+
+        if (id != null) LeaderboardRepository.recordSession(c, s, id);
+        if (id != null && s.keystrokes != null) {
+            insertKeystrokes(c, id, s.keystrokes);
+            KeyStatsRepository.recordSession(c, s.userId, s.keystrokes);
+        }
+        if (firstCompletion) ProgressRepository.refresh(c, s.userId);
+
+        // return a copy that includes the new id
+        return new Session(id, s.userId, s.drillId, s.wpm, s.accuracy, s.typedChars, s.durationSeconds,
+                s.startedAt, s.keystrokes);
+    }
+
+    /** The batch with unreadable keystroke logs replaced by null (the same list if all are readable). */
+    static List<Session> withReadableKeystrokes(List<Session> batch) {
+        List<Session> out = null;
+        for (int i = 0; i < batch.size(); i++) {
+            Session s = batch.get(i);
+            String problem = s.keystrokes == null ? null : keystrokeProblem(s.keystrokes);
+            if (problem != null) {
+                System.err.println("[SessionRepository] dropping unreadable keystroke log (user " + s.userId
+                        + ", drill " + s.drillId + "): " + problem);
+                if (out == null) out = new ArrayList<>(batch.subList(0, i));
+                out.add(new Session(s.id, s.userId, s.drillId, s.wpm, s.accuracy, s.typedChars, s.durationSeconds,
+                        s.startedAt, null));
+            } else if (out != null) {
+                out.add(s);
+            }
+        }
+        return out == null ? batch : out;
+    }
+
+    /** Why the blob can't be replayed to the end (corrupt, or an edit outside the input), or null if it can. */
+    private static String keystrokeProblem(byte[] blob) {
+        try {
+            KeystrokeReplay r = new KeystrokeReplay(blob);
+            while (r.next()) { /* decode every event */ }
+            return null;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return e.getMessage() == null ? "truncated keystroke log" : e.getMessage();
+        }
+    }
+
+    /** Store a log already checked by {@link #withReadableKeystrokes}. */
+    private static void insertKeystrokes(Connection c, int sessionId, byte[] blob) throws SQLException {
+        int events = new KeystrokeReplay(blob).eventCount();
+        try (PreparedStatement ps = c.prepareStatement(INSERT_KEYSTROKES_SQL)) {
+            ps.setInt(1, sessionId);
+            ps.setInt(2, KeystrokeLog.VERSION);
+            ps.setInt(3, events);
+            ps.setBytes(4, blob);
             ps.executeUpdate();
+        }
+    }
 
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                Integer id = null;
-                if (keys.next()) id = keys.getInt(1);
-                // return a copy that includes the new id
-                return new Session(id, s.userId, s.drillId, s.wpm, s.accuracy, s.typedChars, s.durationSeconds, s.startedAt);
+    /** The keystroke log saved with a session (read it with KeystrokeReplay), or null if none was recorded. */
+    public byte[] loadKeystrokes(int sessionId) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(KEYSTROKES_SQL)) {
+            ps.setInt(1, sessionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getBytes(1) : null;
             }
         } catch (SQLException e) {
-            throw new RuntimeException("insert session failed", e);
+            throw new RuntimeException("loadKeystrokes failed", e);
+        }
+    }
+
+    /** True if the user already has at least one session on the drill. */
+    private static boolean hasPlayed(Connection c, int userId, int drillId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(HAS_PLAYED_SQL)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, drillId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
         }
     }
 
     /** Best (max) score for a user, or null if no sessions. */
     public Double bestScoreForUser(int userId) {
-        String sql = "SELECT MAX(score) AS best FROM sessions WHERE user_id = ?";
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(BEST_SCORE_SQL)) {
 
             ps.setInt(1, userId);
 
@@ -72,14 +216,8 @@ public class SessionRepository {
 
     /** Count sessions by a user for drills in a specific level. */
     public int countSessionsInLevel(int userId, int level) {
-        String sql = """
-            SELECT COUNT(*) AS cnt
-            FROM sessions s
-            JOIN drills d ON d.id = s.drill_id
-            WHERE s.user_id = ? AND d.level = ?
-            """;
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(COUNT_IN_LEVEL_SQL)) {
 
             ps.setInt(1, userId);
             ps.setInt(2, level);
@@ -98,13 +236,8 @@ public class SessionRepository {
      * as completion; tweak WHERE if you need a threshold (e.g., accuracy >= 90).
      */
     public Set<Integer> findCompletedDrillIds(int userId) {
-        String sql = """
-            SELECT DISTINCT s.drill_id
-            FROM sessions s
-            WHERE s.user_id = ?
-            """;
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(COMPLETED_DRILLS_SQL)) {
             ps.setInt(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 Set<Integer> out = new HashSet<>();
@@ -133,26 +266,12 @@ public class SessionRepository {
 
     /**
      * Best single session per user (global), sorted by score.
-     * Uses a CTE to pick each user's max score.
+     * Picks each user's top best_scores row (one per drill) with a window function, so ties can't duplicate a user.
      * Name comes from user_settings.display_name if present, else users.username.
      */
     public List<LeaderboardRow> topByBestScore(int limit) {
-        String sql = """
-            WITH best AS (
-              SELECT user_id, MAX(score) AS best_score
-              FROM sessions
-              GROUP BY user_id
-            )
-            SELECT COALESCE(us.display_name, u.username) AS name, s.wpm, s.accuracy, s.score
-            FROM best b
-            JOIN sessions s       ON s.user_id = b.user_id AND s.score = b.best_score
-            JOIN users u          ON u.id = b.user_id
-            LEFT JOIN user_settings us ON us.user_id = u.id
-            ORDER BY s.score DESC
-            LIMIT ?
-            """;
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(TOP_BY_BEST_SQL)) {
 
             ps.setInt(1, limit);
 
@@ -6,6 +6,10 @@ import java.util.List;
 
 public class SqliteUserRepository implements UserRepository {
 
+    static final String LOAD_USER_SQL = "SELECT id, username, password_hash FROM users WHERE username = ? COLLATE NOCASE";
+    static final String USER_EXISTS_SQL = "SELECT 1 FROM users WHERE username = ? COLLATE NOCASE";
+    static final String ALL_USERS_SQL = "SELECT id, username, password_hash FROM users ORDER BY username";
+
     public SqliteUserRepository() {
         Database.init();
     }
@@ -39,13 +43,12 @@ public class SqliteUserRepository implements UserRepository {
 
     @Override
     public User loadUser(String username) {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "SELECT username, password_hash FROM users WHERE username = ? COLLATE NOCASE")) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(LOAD_USER_SQL)) {
             ps.setString(1, username);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) return null;
-                return new User(rs.getString("username"), rs.getString("password_hash"));
+                return new User(rs.getInt("id"), rs.getString("username"), rs.getString("password_hash"));
             }
         } catch (SQLException e) {
             System.err.println("loadUser failed: " + e.getMessage());
@@ -55,9 +58,8 @@ public class SqliteUserRepository implements UserRepository {
 
     @Override
     public boolean userExists(String username) {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "SELECT 1 FROM users WHERE username = ? COLLATE NOCASE")) {
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(USER_EXISTS_SQL)) {
             ps.setString(1, username);
             try (ResultSet rs = ps.executeQuery()) { return rs.next(); }
         } catch (SQLException e) {
@@ -69,11 +71,10 @@ public class SqliteUserRepository implements UserRepository {
     @Override
     public List<User> getAllUsers() {
         List<User> out = new ArrayList<>();
-        try (Connection c = Database.getConnection();
+        try (Connection c = Database.getReadConnection();
              Statement st = c.createStatement();
-             ResultSet rs = st.executeQuery(
-                     "SELECT username, password_hash FROM users ORDER BY username")) {
-            while (rs.next()) out.add(new User(rs.getString(1), rs.getString(2)));
+             ResultSet rs = st.executeQuery(ALL_USERS_SQL)) {
+            while (rs.next()) out.add(new User(rs.getInt(1), rs.getString(2), rs.getString(3)));
         } catch (SQLException e) {
             System.err.println("getAllUsers failed: " + e.getMessage());
         }
@@ -5,14 +5,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
  * Represents a user profile with gameplay statistics and login credentials.
  * Serializable for file-based persistence via FileUserRepository.
+ * <p>
+ * The database id is resolved once and kept. Settings and stats are read together in one query
+ * into a {@link Profile} snapshot the first time any getter needs them; call {@link #invalidate()}
+ * after recording a session so the next read picks up the new stats.
  *
  * [Ben M – Sept 10 2025]
  */
@@ -21,6 +22,27 @@ public class User implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Settings + stats for one user, loaded in a single round trip. */
+    static final String PROFILE_SQL = """
+        SELECT us.display_name, us.font_family, us.font_size, us.theme,
+               COALESCE(us.sound_enabled, 1) AS sound_enabled,
+               st.best_wpm, st.best_accuracy, st.total_sessions
+        FROM (SELECT MAX(wpm)      AS best_wpm,
+                     MAX(accuracy) AS best_accuracy,
+                     COUNT(*)      AS total_sessions
+              FROM sessions WHERE user_id = ?) st
+        LEFT JOIN user_settings us ON us.user_id = ?
+        """;
+
+    static final String USER_ID_SQL = "SELECT id FROM users WHERE username = ?";
+
+    private static final Map<String, String> THEME_PATHS = Map.of(
+            "KRILL", "/images/BG-unlocks/default-rank-bg.png",
+            "CLOWNFISH", "/images/BG-unlocks/clownfish-rank-bg.png",
+            "TUNA", "/images/BG-unlocks/tuna-rank-bg.png",
+            "SWORDFISH", "/images/BG-unlocks/swordfish-rank-bg.png",
+            "WHALE", "/images/BG-unlocks/whale-rank-bg.png");
+
     private String username;
     private String passwordHash;
     //private int highScore;              // Highest WPM or streak
@@ -30,6 +52,10 @@ public class User implements Serializable {
     //private List<Double> sessionAccuracies;
     //private List<Integer> sessionWPMs;
 
+    // Cached DB state (not serialized; re-resolved on demand)
+    private transient volatile int id;              // 0 = not resolved yet
+    private transient volatile Profile profile;     // null = not loaded / invalidated
+
     /**
      * Constructs a new user class with the specified username and hasehd password
      * @param username username of the user
@@ -45,6 +71,59 @@ public class User implements Serializable {
         this.passwordHash = passwordHash;
     }
 
+    /**
+     * Constructs a user whose database id is already known (e.g. loaded by SqliteUserRepository),
+     * so getUserID() never has to look it up.
+     * @param id users.id of this user
+     * @param username username of the user
+     * @param passwordHash hashed password of the user
+     */
+    public User(int id, String username, String passwordHash) {
+        this(username, passwordHash);
+        this.id = Math.max(0, id);
+    }
+
+    /**
+     * Immutable view of the user's settings and stats at the time it was loaded.
+     */
+    public static class Profile {
+        public final String displayName;
+        public final String font;
+        public final int fontSize;
+        public final String theme;
+        public final double bestWpm;
+        public final double bestAccuracy;
+        public final int totalSessions;
+        public final boolean soundEnabled;
+
+        public Profile(String displayName, String font, int fontSize, String theme,
+                       double bestWpm, double bestAccuracy, int totalSessions) {
+            this(displayName, font, fontSize, theme, bestWpm, bestAccuracy, totalSessions, true);
+        }
+
+        public Profile(String displayName, String font, int fontSize, String theme,
+                       double bestWpm, double bestAccuracy, int totalSessions, boolean soundEnabled) {
+            this.displayName = displayName;
+            this.font = font;
+            this.fontSize = fontSize;
+            this.theme = theme;
+            this.bestWpm = bestWpm;
+            this.bestAccuracy = bestAccuracy;
+            this.totalSessions = totalSessions;
+            this.soundEnabled = soundEnabled;
+        }
+
+        Profile withSettings(String displayName, String font, int fontSize, String theme) {
+            return new Profile(displayName, font, fontSize, theme, bestWpm, bestAccuracy, totalSessions, soundEnabled);
+        }
+
+        Profile withSound(boolean soundEnabled) {
+            return new Profile(displayName, font, fontSize, theme, bestWpm, bestAccuracy, totalSessions, soundEnabled);
+        }
+
+        static final Profile EMPTY = new Profile(null, null, 0, null, 0, 0, 0);
+    }
+
     // Getters
     public String getUsername() {
         return username;
@@ -55,51 +134,32 @@ public class User implements Serializable {
     }
 
     public double getBestAccuracy() {
-        try (Connection c = Database.getConnection();
-            PreparedStatement ps = c.prepareStatement(
-                    "SELECT MAX(accuracy) FROM sessions WHERE user_id = ?")) {
-            ps.setInt(1, getUserID());
-            ResultSet rs = ps.executeQuery();
-            return rs.getDouble(1);
-        } catch (SQLException e) {
-            System.err.println("Retrieve accuracy failed");
-            return 0;
-        }
+        return profile().bestAccuracy;
     }
 
     public double getBestWPM() {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "SELECT MAX(wpm) FROM sessions WHERE user_id = ?")) {
-            ps.setInt(1, getUserID());
-            ResultSet rs = ps.executeQuery();
-            return rs.getDouble(1);
-        } catch (SQLException e) {
-            System.err.println("Retrieve WPM failed");
-            return 0;
-        }
+        return profile().bestWpm;
     }
 
     public int getTotalSessions() {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "SELECT COUNT(*) FROM sessions WHERE user_id = ?")) {
-            ps.setInt(1, getUserID());
-            ResultSet rs = ps.executeQuery();
-            return rs.getInt(1);
-        } catch (SQLException e) {
-            System.err.println("Retrieve accuracy failed");
-            return 0;
-        }
+        return profile().totalSessions;
     }
 
+    /**
+     * The users.id for this user. Looked up by username the first time and cached after that;
+     * returns 0 (and retries next time) if the user isn't in the database yet.
+     */
     public int getUserID() {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "SELECT id FROM users WHERE username = ?")) {
+        int cached = id;
+        if (cached > 0) return cached;
+
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(USER_ID_SQL)) {
             ps.setString(1, getUsername());
-            ResultSet rs = ps.executeQuery();
-            return rs.getInt("id");
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) id = rs.getInt("id");
+            }
+            return id;
         } catch (SQLException e) {
             System.err.println("Retreive ID failed: " + e.getMessage());
             return 0;
@@ -107,16 +167,7 @@ public class User implements Serializable {
     }
 
     public String getDisplayName() {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "Select display_name FROM user_settings WHERE user_id = ?")) {
-            ps.setInt(1, getUserID());
-            ResultSet rs = ps.executeQuery();
-            return rs.getString("display_name");
-        } catch (SQLException e) {
-            System.err.println("Retreive ID failed: " + e.getMessage());
-            return null;
-        }
+        return profile().displayName;
     }
 
     /**
@@ -130,6 +181,8 @@ public class User implements Serializable {
             ps.setString(1, newName);
             ps.setInt(2, getUserID());
             ps.executeUpdate();
+            Profile p = profile;
+            if (p != null) profile = p.withSettings(newName, p.font, p.fontSize, p.theme);
         } catch (SQLException e) {
             System.err.println("updating display name failed");
         }
@@ -137,54 +190,43 @@ public class User implements Serializable {
     }
 
     public String getFont() {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "Select font_family FROM user_settings WHERE user_id = ?")) {
-            ps.setInt(1, getUserID());
-            ResultSet rs = ps.executeQuery();
-            return rs.getString(1);
-        } catch (SQLException e) {
-            System.err.println("Retreive ID failed: " + e.getMessage());
-            return null;
-        }
+        return profile().font;
     }
 
     public int getFontSize() {
-        try (Connection c = Database.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "Select font_size FROM user_settings WHERE user_id = ?")) {
-            ps.setInt(1, getUserID());
-            ResultSet rs = ps.executeQuery();
-            return rs.getInt(1);
-        } catch (SQLException e) {
-            System.err.println("Retreive ID failed: " + e.getMessage());
-            return 0;
-        }
+        return profile().fontSize;
     }
 
     public String getTheme() {
+        return profile().theme;
+    }
+
+    /** Whether key feedback sounds play for this user (on unless they turned it off). */
+    public boolean isSoundEnabled() {
+        return profile().soundEnabled;
+    }
+
+    /**
+     * Turns key feedback sounds on or off for this user
+     * @param enabled true to play sounds
+     */
+    public void updateSoundEnabled(boolean enabled) {
         try (Connection c = Database.getConnection();
              PreparedStatement ps = c.prepareStatement(
-                     "Select theme FROM user_settings WHERE user_id = ?")) {
-            ps.setInt(1, getUserID());
-            ResultSet rs = ps.executeQuery();
-            return rs.getString(1);
+                     "UPDATE user_settings SET sound_enabled = ? WHERE user_id = ?")) {
+            ps.setInt(1, enabled ? 1 : 0);
+            ps.setInt(2, getUserID());
+            ps.executeUpdate();
+            Profile p = profile;
+            if (p != null) profile = p.withSound(enabled);
         } catch (SQLException e) {
-            System.err.println("Retreive ID failed: " + e.getMessage());
-            return null;
+            System.err.println("updating sound setting failed: " + e.getMessage());
         }
     }
 
     public String themePath() {
-        Map<String, String> map = new HashMap<String, String>();
-        map.put("KRILL", "/images/BG-unlocks/default-rank-bg.png");
-        map.put("CLOWNFISH", "/images/BG-unlocks/clownfish-rank-bg.png");
-        map.put("TUNA", "/images/BG-unlocks/tuna-rank-bg.png");
-        map.put("SWORDFISH", "/images/BG-unlocks/swordfish-rank-bg.png");
-        map.put("WHALE", "/images/BG-unlocks/whale-rank-bg.png");
         String theme = getTheme();
-        return map.get(theme);
-
+        return theme == null ? null : THEME_PATHS.get(theme);
     }
 
     /**
@@ -206,21 +248,67 @@ public class User implements Serializable {
             ps.setString(4, theme);
             ps.setInt(5, getUserID());
             ps.executeUpdate();
+            Profile p = profile;
+            if (p != null) profile = p.withSettings(displayName, font, fontSize, theme);
         } catch (SQLException e) {
             System.err.println("Retreive ID failed: " + e.getMessage());
         }
     }
 
+    /**
+     * The cached settings/stats snapshot, loading it (one query) if needed.
+     * @return the current snapshot; never null
+     */
+    public Profile profile() {
+        Profile p = profile;
+        if (p != null) return p;
+
+        int userId = getUserID();
+        if (userId <= 0) return Profile.EMPTY;
+
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement ps = c.prepareStatement(PROFILE_SQL)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Profile.EMPTY;
+                p = new Profile(
+                        rs.getString("display_name"),
+                        rs.getString("font_family"),
+                        rs.getInt("font_size"),
+                        rs.getString("theme"),
+                        rs.getDouble("best_wpm"),
+                        rs.getDouble("best_accuracy"),
+                        rs.getInt("total_sessions"),
+                        rs.getInt("sound_enabled") != 0);
+            }
+            profile = p;
+            return p;
+        } catch (SQLException e) {
+            System.err.println("Retrieve profile failed: " + e.getMessage());
+            return Profile.EMPTY;
+        }
+    }
+
+    /**
+     * Drops the cached settings/stats so the next getter reloads them (e.g. after a session is saved).
+     * The resolved id is kept.
+     */
+    public void invalidate() {
+        profile = null;
+    }
+
     /**
      * yeah this turns the given user into a string it's kinda not used anymore
      * @return string concatenation of all the user details
      */
     @Override
     public String toString() {
+        Profile p = profile();
         return "User{" +
                 "username='" + username + '\'' +
-                ", bestAccuracy=" + getBestAccuracy() +
-                ", totalSessions=" + getTotalSessions() +
+                ", bestAccuracy=" + p.bestAccuracy +
+                ", totalSessions=" + p.totalSessions +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,414 @@
+package com.typinggame.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running per-key and per-bigram typing aggregates for one user, folded in one session at a time from
+ * {@link KeystrokeReplay} logs, so the profile never has to rescan history.
+ * - Per key (indexed by char, ASCII 1-127; other chars and inserts past the end of the target, where nothing
+ *   was expected, aren't tracked): presses, errors, total latency and
+ *   a log-scale latency histogram, all in primitive arrays. p50/p95 come from the histogram (about 7%
+ *   resolution), so they can be updated without keeping raw samples.
+ * - Per bigram (previous expected char, expected char): the same counters in a small open-addressing
+ *   table, so only pairs that actually occur take space.
+ * Key = the char the target expected at that position; latency = time since the previous edit; error =
+ * the typed char was wrong. Gaps over {@link #MAX_LATENCY_MICROS} count for errors but not latency (pauses).
+ * Serialised with {@link #toBytes()} / {@link #fromBytes(byte[])} as varints, non-zero slots only.
+ *
+ * @since 2025-10-18
+ */
+public class KeyStats {
+
+    public static final byte VERSION = 1;
+
+    /** Latencies above this (pauses, looking away) are left out of the timing figures. */
+    public static final long MAX_LATENCY_MICROS = 3_000_000;
+
+    static final int KEYS = 128;
+    // histogram: bucket 0 = under 10 ms, then buckets 15% wider than the previous one up to MAX_LATENCY
+    static final double FIRST_BUCKET_MICROS = 10_000;
+    static final double GROWTH = 1.15;
+    static final int BUCKETS = 2 + (int) Math.ceil(Math.log(MAX_LATENCY_MICROS / FIRST_BUCKET_MICROS) / Math.log(GROWTH));
+
+    private int sessions = 0;
+
+    // ---- per key ----
+    private final int[] presses = new int[KEYS];
+    private final int[] errors = new int[KEYS];
+    private final int[] timed = new int[KEYS];          // presses that have a latency
+    private final long[] latencySum = new long[KEYS];   // micros
+    private final int[] latencyHist = new int[KEYS * BUCKETS];
+
+    // ---- per bigram (open addressing; key = prev << 8 | cur, -1 = empty) ----
+    private int[] bigramSlot = newTable(256);
+    private int bigramCount = 0;
+    private int[] bigramKey = new int[64];
+    private int[] bigramPresses = new int[64];
+    private int[] bigramErrors = new int[64];
+    private int[] bigramTimed = new int[64];
+    private long[] bigramLatencySum = new long[64];
+    private int[] bigramHist = new int[64 * BUCKETS];
+
+    /** Aggregated figures for one key or bigram. Latencies in milliseconds. */
+    public static class Stat {
+        public final String key;
+        public final int presses;
+        public final int errors;
+        public final double meanMillis;
+        public final double p50Millis;
+        public final double p95Millis;
+
+        public Stat(String key, int presses, int errors, double meanMillis, double p50Millis, double p95Millis) {
+            this.key = key;
+            this.presses = presses;
+            this.errors = errors;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+        }
+
+        /** Fraction of presses that were wrong (0..1). */
+        public double errorRate() {
+            return presses == 0 ? 0.0 : errors / (double) presses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{n=%d err=%.1f%% mean=%.0fms p50=%.0fms p95=%.0fms}",
+                    key, presses, errorRate() * 100, meanMillis, p50Millis, p95Millis);
+        }
+    }
+
+    // -----------------------------
+    // Updating
+    // -----------------------------
+
+    /** Fold one session's keystroke log into the aggregates. */
+    public void addSession(byte[] keystrokeLog) {
+        KeystrokeReplay r = new KeystrokeReplay(keystrokeLog);
+        int prevKey = -1;        // expected char of the previous insert, if it was directly before this one
+        int prevPos = -2;
+        boolean first = true;
+        while (r.next()) {
+            if (r.isDelete()) {
+                prevKey = -1;
+                first = false;
+                continue;
+            }
+            char expected = r.expected();
+            if (expected == 0 || expected >= KEYS) {   // past the end of the target, or not ASCII
+                prevKey = -1;
+                first = false;
+                continue;
+            }
+            int key = expected;
+            boolean wrong = !r.isCorrect();
+            long latency = first || r.deltaMicros() > MAX_LATENCY_MICROS ? -1 : r.deltaMicros();
+            record(key, wrong, latency);
+            if (prevKey >= 0 && r.position() == prevPos + 1) recordBigram(prevKey << 8 | key, wrong, latency);
+
+            prevKey = key;
+            prevPos = r.position();
+            first = false;
+        }
+        sessions++;
+    }
+
+    private void record(int key, boolean wrong, long latency) {
+        presses[key]++;
+        if (wrong) errors[key]++;
+        if (latency >= 0) {
+            timed[key]++;
+            latencySum[key] += latency;
+            latencyHist[key * BUCKETS + bucket(latency)]++;
+        }
+    }
+
+    private void recordBigram(int pair, boolean wrong, long latency) {
+        int i = bigramIndex(pair, true);
+        bigramPresses[i]++;
+        if (wrong) bigramErrors[i]++;
+        if (latency >= 0) {
+            bigramTimed[i]++;
+            bigramLatencySum[i] += latency;
+            bigramHist[i * BUCKETS + bucket(latency)]++;
+        }
+    }
+
+    // -----------------------------
+    // Queries
+    // -----------------------------
+
+    /** Sessions folded in so far. */
+    public int sessions() {
+        return sessions;
+    }
+
+    /** Figures for one char, or null if it was never expected. */
+    public Stat key(char c) {
+        int k = slot(c);
+        return presses[k] == 0 ? null : keyStat(String.valueOf(c), new int[] {k});
+    }
+
+    /**
+     * Figures for a keyboard key, combining both cases of a letter (the on-screen keyboard has one 'A' key).
+     * @return null if neither was ever expected
+     */
+    public Stat keyIgnoreCase(char c) {
+        int lo = slot(Character.toLowerCase(c)), up = slot(Character.toUpperCase(c));
+        if (presses[lo] + (lo == up ? 0 : presses[up]) == 0) return null;
+        return keyStat(String.valueOf(Character.toUpperCase(c)), lo == up ? new int[] {lo} : new int[] {lo, up});
+    }
+
+    /** Every key with at least {@code minPresses} presses, in char order. */
+    public List<Stat> keys(int minPresses) {
+        List<Stat> out = new ArrayList<>();
+        for (int k = 1; k < KEYS; k++) {   // slot 0 only holds untracked chars from older aggregates
+            if (presses[k] > 0 && presses[k] >= minPresses) out.add(keyStat(String.valueOf((char) k), new int[] {k}));
+        }
+        return out;
+    }
+
+    /** Figures for a pair typed back to back, or null if never seen. */
+    public Stat bigram(char prev, char cur) {
+        int i = bigramIndex(slot(prev) << 8 | slot(cur), false);
+        return i < 0 ? null : bigramStat(i);
+    }
+
+    /** Every bigram with at least {@code minPresses} occurrences, in no particular order. */
+    public List<Stat> bigrams(int minPresses) {
+        List<Stat> out = new ArrayList<>();
+        for (int i = 0; i < bigramCount; i++) {
+            int pair = bigramKey[i];
+            if ((pair >>> 8) == 0 || (pair & 0xFF) == 0) continue;   // untracked half (older aggregates)
+            if (bigramPresses[i] >= minPresses) out.add(bigramStat(i));
+        }
+        return out;
+    }
+
+    private Stat keyStat(String label, int[] slots) {
+        int n = 0, err = 0, t = 0;
+        long sum = 0;
+        int[] hist = new int[BUCKETS];
+        for (int k : slots) {
+            n += presses[k];
+            err += errors[k];
+            t += timed[k];
+            sum += latencySum[k];
+            for (int b = 0; b < BUCKETS; b++) hist[b] += latencyHist[k * BUCKETS + b];
+        }
+        return stat(label, n, err, t, sum, hist, 0);
+    }
+
+    private Stat bigramStat(int i) {
+        int pair = bigramKey[i];
+        String label = "" + (char) (pair >>> 8) + (char) (pair & 0xFF);
+        return stat(label, bigramPresses[i], bigramErrors[i], bigramTimed[i], bigramLatencySum[i], bigramHist, i * BUCKETS);
+    }
+
+    private static Stat stat(String label, int n, int err, int t, long sum, int[] hist, int off) {
+        double mean = t == 0 ? 0 : sum / 1000.0 / t;
+        return new Stat(label, n, err, mean, percentile(hist, off, t, 0.50), percentile(hist, off, t, 0.95));
+    }
+
+    // -----------------------------
+    // Histogram
+    // -----------------------------
+
+    static int bucket(long micros) {
+        if (micros < FIRST_BUCKET_MICROS) return 0;
+        int b = 1 + (int) (Math.log(micros / FIRST_BUCKET_MICROS) / Math.log(GROWTH));
+        return Math.min(b, BUCKETS - 1);
+    }
+
+    /** Lower edge of a bucket, micros. */
+    static double bucketStart(int b) {
+        return b == 0 ? 0 : FIRST_BUCKET_MICROS * Math.pow(GROWTH, b - 1);
+    }
+
+    /** Percentile in ms, interpolated linearly inside the bucket that holds it. */
+    private static double percentile(int[] hist, int off, int total, double p) {
+        if (total == 0) return 0;
+        double rank = p * total;
+        int seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            int c = hist[off + b];
+            if (c > 0 && seen + c >= rank) {
+                double lo = bucketStart(b), hi = bucketStart(b + 1);
+                return (lo + (hi - lo) * ((rank - seen) / c)) / 1000.0;
+            }
+            seen += c;
+        }
+        return bucketStart(BUCKETS) / 1000.0;
+    }
+
+    // -----------------------------
+    // Bigram table
+    // -----------------------------
+
+    private int bigramIndex(int pair, boolean create) {
+        int mask = bigramSlot.length - 1;
+        int s = (pair * 0x9E3779B1) >>> 16 & mask;
+        while (bigramSlot[s] >= 0) {
+            if (bigramKey[bigramSlot[s]] == pair) return bigramSlot[s];
+            s = (s + 1) & mask;
+        }
+        if (!create) return -1;
+
+        if (bigramCount == bigramKey.length) growBigrams();
+        int i = bigramCount++;
+        bigramKey[i] = pair;
+        if (bigramCount * 2 > bigramSlot.length) {
+            rehash(bigramSlot.length * 2);
+        } else {
+            bigramSlot[s] = i;
+        }
+        return i;
+    }
+
+    private void growBigrams() {
+        int n = bigramKey.length * 2;
+        bigramKey = Arrays.copyOf(bigramKey, n);
+        bigramPresses = Arrays.copyOf(bigramPresses, n);
+        bigramErrors = Arrays.copyOf(bigramErrors, n);
+        bigramTimed = Arrays.copyOf(bigramTimed, n);
+        bigramLatencySum = Arrays.copyOf(bigramLatencySum, n);
+        bigramHist = Arrays.copyOf(bigramHist, n * BUCKETS);
+    }
+
+    private void rehash(int size) {
+        bigramSlot = newTable(size);
+        int mask = size - 1;
+        for (int i = 0; i < bigramCount; i++) {
+            int s = (bigramKey[i] * 0x9E3779B1) >>> 16 & mask;
+            while (bigramSlot[s] >= 0) s = (s + 1) & mask;
+            bigramSlot[s] = i;
+        }
+    }
+
+    private static int[] newTable(int size) {
+        int[] t = new int[size];
+        Arrays.fill(t, -1);
+        return t;
+    }
+
+    private static int slot(char c) {
+        return c < KEYS ? c : 0;
+    }
+
+    // -----------------------------
+    // Serialisation
+    // -----------------------------
+
+    /** Compact form for storage: header, then only the keys and bigrams that have data. */
+    public byte[] toBytes() {
+        Out o = new Out();
+        o.b('K'); o.b('H'); o.b(VERSION);
+        o.v(sessions);
+        int keys = 0;
+        for (int k = 0; k < KEYS; k++) if (presses[k] > 0) keys++;
+        o.v(keys);
+        for (int k = 0; k < KEYS; k++) {
+            if (presses[k] == 0) continue;
+            o.v(k);
+            writeCounters(o, presses[k], errors[k], timed[k], latencySum[k], latencyHist, k * BUCKETS);
+        }
+        o.v(bigramCount);
+        for (int i = 0; i < bigramCount; i++) {
+            o.v(bigramKey[i]);
+            writeCounters(o, bigramPresses[i], bigramErrors[i], bigramTimed[i], bigramLatencySum[i], bigramHist, i * BUCKETS);
+        }
+        return Arrays.copyOf(o.buf, o.len);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes aren't a KeyStats blob this version can read
+     */
+    public static KeyStats fromBytes(byte[] data) {
+        if (data == null || data.length < 3 || data[0] != 'K' || data[1] != 'H') {
+            throw new IllegalArgumentException("not a key stats blob");
+        }
+        if (data[2] != VERSION) throw new IllegalArgumentException("unsupported key stats version " + data[2]);
+        In in = new In(data, 3);
+        KeyStats s = new KeyStats();
+        s.sessions = (int) in.v();
+        int keys = (int) in.v();
+        for (int n = 0; n < keys; n++) {
+            int k = (int) in.v();
+            if (k < 0 || k >= KEYS) throw new IllegalArgumentException("bad key " + k);
+            s.presses[k] = (int) in.v();
+            s.errors[k] = (int) in.v();
+            s.timed[k] = (int) in.v();
+            s.latencySum[k] = in.v();
+            readHist(in, s.latencyHist, k * BUCKETS);
+        }
+        int bigrams = (int) in.v();
+        for (int n = 0; n < bigrams; n++) {
+            int i = s.bigramIndex((int) in.v(), true);
+            s.bigramPresses[i] = (int) in.v();
+            s.bigramErrors[i] = (int) in.v();
+            s.bigramTimed[i] = (int) in.v();
+            s.bigramLatencySum[i] = in.v();
+            readHist(in, s.bigramHist, i * BUCKETS);
+        }
+        return s;
+    }
+
+    private static void writeCounters(Out o, int n, int err, int t, long sum, int[] hist, int off) {
+        o.v(n); o.v(err); o.v(t); o.v(sum);
+        int nonZero = 0;
+        for (int b = 0; b < BUCKETS; b++) if (hist[off + b] != 0) nonZero++;
+        o.v(nonZero);
+        for (int b = 0; b < BUCKETS; b++) {
+            if (hist[off + b] != 0) { o.v(b); o.v(hist[off + b]); }
+        }
+    }
+
+    private static void readHist(In in, int[] hist, int off) {
+        int nonZero = (int) in.v();
+        for (int n = 0; n < nonZero; n++) {
+            int b = (int) in.v();
+            if (b < 0 || b >= BUCKETS) throw new IllegalArgumentException("bad bucket " + b);
+            hist[off + b] = (int) in.v();
+        }
+    }
+
+    private static final class Out {
+        byte[] buf = new byte[1024];
+        int len = 0;
+
+        void b(int x) {
+            if (len == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[len++] = (byte) x;
+        }
+
+        void v(long x) {
+            if (len + 10 > buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            len = KeystrokeLog.putVarint(buf, len, x);
+        }
+    }
+
+    private static final class In {
+        final byte[] data;
+        int at;
+
+        In(byte[] data, int at) {
+            this.data = data;
+            this.at = at;
+        }
+
+        long v() {
+            long x = 0;
+            int shift = 0;
+            while (true) {
+                if (at >= data.length) throw new IllegalArgumentException("truncated key stats blob");
+                byte b = data[at++];
+                x |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return x;
+                shift += 7;
+            }
+        }
+    }
+}
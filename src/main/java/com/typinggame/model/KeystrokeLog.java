@@ -0,0 +1,179 @@
+package com.typinggame.model;
+
+import java.util.Arrays;
+
+/**
+ * Records every edit made while typing a drill and encodes it into a compact binary blob that is stored
+ * with the session (see {@link KeystrokeReplay} for reading it back).
+ * - Events go into a preallocated ring of primitive arrays (time, position, typed/expected char, flags,
+ *   keycode), so recording a keystroke doesn't allocate.
+ * - When the ring fills up, its contents are encoded and appended to the output buffer, so a long drill
+ *   never loses events and never holds more than one ring's worth of raw entries.
+ * - {@link #finish()} encodes what's left and returns the blob.
+ *
+ * Blob format (version 1), all integers unsigned LEB128 varints unless noted:
+ * <pre>
+ *   'K' 'S' version(byte) eventCount
+ *   per event:
+ *     flags(byte)   bit0 delete, bit1 correct, bit2 position follows, bit3 keycode follows
+ *     micros        time since the previous event (first event: since the log was created)
+ *     [position]    zigzag(pos - predicted), only if bit2; predicted = cursor after the previous event
+ *                   (insert: cursor, delete: cursor - 1)
+ *     typed         inserts only: the typed char
+ *     [expected]    inserts that are wrong only: the target char (0 past the end); correct means expected == typed
+ *     [keycode]     only if bit3 (it changed since the previous event)
+ * </pre>
+ * A typical keystroke at the end of the input takes about 5 bytes (flags, 3-byte gap for 16 ms-2 s, char).
+ *
+ * @since 2025-10-18
+ */
+public class KeystrokeLog {
+
+    public static final byte VERSION = 1;
+    static final byte MAGIC_0 = 'K';
+    static final byte MAGIC_1 = 'S';
+
+    static final int F_DELETE = 1;
+    static final int F_CORRECT = 1 << 1;
+    static final int F_POSITION = 1 << 2;
+    static final int F_KEYCODE = 1 << 3;
+
+    /** Ring size used by the game screen. */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final String target;
+    private final long startNanos;
+
+    // ---- ring of raw events ----
+    private final long[] atNanos;
+    private final int[] position;
+    private final char[] typedChar;
+    private final char[] expectedChar;
+    private final byte[] flags;
+    private final int[] keyCode;
+    private int head = 0;       // oldest pending event
+    private int pending = 0;    // events recorded but not yet encoded
+
+    // ---- encoder state ----
+    private byte[] out = new byte[256];
+    private int outLength = 0;
+    private int eventCount = 0;
+    private long lastMicros = 0;
+    private int cursor = 0;
+    private int lastKeyCode = 0;
+
+    public KeystrokeLog(String target) {
+        this(target, DEFAULT_CAPACITY, System.nanoTime());
+    }
+
+    /**
+     * @param target     the drill text (for the expected char of each insert)
+     * @param capacity   events held raw before they are encoded
+     * @param startNanos System.nanoTime() at the start of the drill; event times are relative to it
+     */
+    public KeystrokeLog(String target, int capacity, long startNanos) {
+        this.target = target == null ? "" : target;
+        this.startNanos = startNanos;
+        atNanos = new long[capacity];
+        position = new int[capacity];
+        typedChar = new char[capacity];
+        expectedChar = new char[capacity];
+        flags = new byte[capacity];
+        keyCode = new int[capacity];
+    }
+
+    /** A character was typed at {@code pos}. */
+    public void insert(long nanoTime, int pos, char typed, int keyCode) {
+        char expected = pos < target.length() ? target.charAt(pos) : 0;
+        push(nanoTime, pos, typed, expected, typed == expected ? F_CORRECT : 0, keyCode);
+    }
+
+    /** The character at {@code pos} was deleted. */
+    public void delete(long nanoTime, int pos, int keyCode) {
+        push(nanoTime, pos, (char) 0, (char) 0, F_DELETE, keyCode);
+    }
+
+    /** Events recorded so far. */
+    public int size() {
+        return eventCount + pending;
+    }
+
+    /** Encode everything recorded and return the blob (the log can keep recording afterwards). */
+    public byte[] finish() {
+        drain();
+        byte[] header = new byte[3 + 5];
+        header[0] = MAGIC_0;
+        header[1] = MAGIC_1;
+        header[2] = VERSION;
+        int h = putVarint(header, 3, eventCount);
+        byte[] blob = Arrays.copyOf(header, h + outLength);
+        System.arraycopy(out, 0, blob, h, outLength);
+        return blob;
+    }
+
+    private void push(long nanoTime, int pos, char typed, char expected, int flag, int code) {
+        if (pending == atNanos.length) drain();
+        int i = (head + pending) % atNanos.length;
+        atNanos[i] = nanoTime;
+        position[i] = pos;
+        typedChar[i] = typed;
+        expectedChar[i] = expected;
+        flags[i] = (byte) flag;
+        keyCode[i] = code;
+        pending++;
+    }
+
+    /** Encode all pending ring entries into the output buffer. */
+    private void drain() {
+        for (; pending > 0; pending--, head = (head + 1) % atNanos.length) {
+            ensureOut(32);
+            int f = flags[head];
+            boolean delete = (f & F_DELETE) != 0;
+            int predicted = delete ? cursor - 1 : cursor;
+            int pos = position[head];
+            if (pos != predicted) f |= F_POSITION;
+            if (keyCode[head] != lastKeyCode) f |= F_KEYCODE;
+
+            long micros = Math.max(lastMicros, (atNanos[head] - startNanos) / 1_000);
+            out[outLength++] = (byte) f;
+            outLength = putVarint(out, outLength, micros - lastMicros);
+            if ((f & F_POSITION) != 0) outLength = putVarint(out, outLength, zigzag(pos - predicted));
+            if (!delete) {
+                outLength = putVarint(out, outLength, typedChar[head]);
+                if ((f & F_CORRECT) == 0) outLength = putVarint(out, outLength, expectedChar[head]);
+            }
+            if ((f & F_KEYCODE) != 0) outLength = putVarint(out, outLength, keyCode[head]);
+
+            lastMicros = micros;
+            lastKeyCode = keyCode[head];
+            cursor = delete ? pos : pos + 1;
+            eventCount++;
+        }
+        head = 0;
+    }
+
+    private void ensureOut(int extra) {
+        if (outLength + extra > out.length) out = Arrays.copyOf(out, Math.max(out.length * 2, outLength + extra));
+    }
+
+    // -----------------------------
+    // Varint helpers (shared with KeystrokeReplay)
+    // -----------------------------
+
+    static int putVarint(byte[] buf, int at, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[at++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[at++] = (byte) v;
+        return at;
+    }
+
+    static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
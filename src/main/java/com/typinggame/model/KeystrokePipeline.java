@@ -0,0 +1,108 @@
+package com.typinggame.model;
+
+/**
+ * The model side of the game screen's key handling, in the order the controller runs it:
+ * {@link #edit} for each change to the input field (stats, keystroke log and streak), then {@link #keyTyped}
+ * for the key event (display spans, live stats, chart samples and sound feedback).
+ * The controller only adds the JavaFX parts on top (patching Text nodes, the frame scheduler, the sound
+ * engine); benchmarks drive this class directly, without a toolkit, to time the same path.
+ */
+public class KeystrokePipeline {
+
+    /** Where chart samples go: LiveChartFeed in the app, a ring buffer or nothing in benchmarks. */
+    public interface ChartSink {
+        void add(int line, double x, double y);
+    }
+
+    public static final int WPM_LINE = 0, ACCURACY_LINE = 1, STREAK_LINE = 2;
+
+    /** Which sound a key should make. */
+    public enum Feedback { NONE, CORRECT, WRONG }
+
+    private final LiveStats live;
+    private final ChartSink chart;
+    private String target = "";
+    private TypingStatsEngine stats;
+    private KeystrokeLog log;
+    private TypingDisplayModel display;
+    private Feedback pending = Feedback.NONE;   // from the last edit, reported by keyTyped
+
+    public KeystrokePipeline(LiveStats live, ChartSink chart) {
+        this.live = live;
+        this.chart = chart;
+        start("");
+    }
+
+    /** New round on {@code target}: fresh stats, keystroke log and display model. */
+    public void start(String target) {
+        this.target = target;
+        stats = new TypingStatsEngine(target);
+        log = new KeystrokeLog(target);
+        display = new TypingDisplayModel(target);
+        pending = Feedback.NONE;
+    }
+
+    /** Start the display over (e.g. the view's nodes were replaced) without touching stats or the log. */
+    public TypingDisplayModel resetDisplay() {
+        display = new TypingDisplayModel(target);
+        return display;
+    }
+
+    /**
+     * An edit of the input field: characters [start, end) of the old text replaced by {@code text}.
+     * Applied as single deletes/inserts so the keystroke log replays to the same stats. An edit that inserts
+     * exactly one char is a typed key and is scored for the streak ({@link TypingStatsEngine#scoreKey});
+     * pastes aren't, and {@link KeystrokeReplay#replay} applies the same rule. If the stats are out of sync
+     * with the field (its old length differs, e.g. text was set before a reset), they are re-read from
+     * {@code newText} instead.
+     */
+    public void edit(long nanoTime, int oldLength, int start, int end, String text, String newText, int keyCode) {
+        if (oldLength != stats.getTypedChars()) {
+            stats.setInput(newText);
+            return;
+        }
+        for (int pos = end - 1; pos >= start; pos--) {
+            stats.delete(pos);
+            log.delete(nanoTime, pos, keyCode);
+        }
+        for (int k = 0; k < text.length(); k++) {
+            stats.insert(start + k, text.charAt(k));
+            log.insert(nanoTime, start + k, text.charAt(k), keyCode);
+        }
+        if (text.length() == 1 && stats.scoreKey(start, text.charAt(0))) {
+            pending = text.charAt(0) == target.charAt(start) ? Feedback.CORRECT : Feedback.WRONG;
+        }
+    }
+
+    /**
+     * A key event after its edit: updates the display spans (the caller patches its nodes from
+     * {@link #display()}), the live stats and the chart.
+     *
+     * @param input         the field's text now
+     * @param elapsedMillis time since the round started
+     * @return the sound to play for this key: how its edit was scored, NONE if it wasn't
+     */
+    public Feedback keyTyped(String input, long elapsedMillis) {
+        display.update(input);
+
+        double accuracy = stats.getAccuracy();
+        int liveWpm = stats.calculateWPM(elapsedMillis / 60000.0);
+        int streak = stats.getCurrentStreak();
+        live.update(liveWpm, accuracy, streak);
+
+        double seconds = elapsedMillis / 1000.0;
+        chart.add(WPM_LINE, seconds, live.getWpm());
+        chart.add(ACCURACY_LINE, seconds, accuracy);
+        chart.add(STREAK_LINE, seconds, streak);
+
+        Feedback feedback = pending;
+        pending = Feedback.NONE;
+        return feedback;
+    }
+
+    public String target() { return target; }
+    public TypingStatsEngine stats() { return stats; }
+    public KeystrokeLog log() { return log; }
+    public TypingDisplayModel display() { return display; }
+    public LiveStats live() { return live; }
+}
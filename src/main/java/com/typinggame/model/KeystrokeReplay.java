@@ -0,0 +1,196 @@
+package com.typinggame.model;
+
+/**
+ * Reads a {@link KeystrokeLog} blob back one event at a time, and can replay it into a
+ * {@link TypingStatsEngine} to re-derive the session's stats.
+ * Iterating doesn't allocate: {@link #next()} decodes into this object's fields.
+ * <pre>
+ *   KeystrokeReplay r = new KeystrokeReplay(blob);
+ *   while (r.next()) { ... r.micros(), r.isDelete(), r.position(), r.typed(), r.isCorrect() ... }
+ * </pre>
+ *
+ * @since 2025-10-18
+ */
+public class KeystrokeReplay {
+
+    private final byte[] data;
+    private final int eventCount;
+    private int at;
+    private int read = 0;
+
+    // current event
+    private boolean delete;
+    private boolean correct;
+    private int position;
+    private char typed;
+    private char expected;
+    private int keyCode;
+    private long deltaMicros;
+    private long micros;
+
+    // decoder state
+    private int cursor = 0;
+    private int length = 0;     // of the input being edited
+
+    /**
+     * @throws IllegalArgumentException if the blob isn't a keystroke log this version can read
+     */
+    public KeystrokeReplay(byte[] blob) {
+        if (blob == null || blob.length < 4 || blob[0] != KeystrokeLog.MAGIC_0 || blob[1] != KeystrokeLog.MAGIC_1) {
+            throw new IllegalArgumentException("not a keystroke log");
+        }
+        if (blob[2] != KeystrokeLog.VERSION) {
+            throw new IllegalArgumentException("unsupported keystroke log version " + blob[2]);
+        }
+        this.data = blob;
+        this.at = 3;
+        this.eventCount = (int) varint();
+    }
+
+    /** Number of events in the log. */
+    public int eventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Decode the next event.
+     * @return false once every event has been read
+     * @throws IllegalArgumentException if the event is corrupt, including a position outside the input
+     */
+    public boolean next() {
+        if (read == eventCount) return false;
+        int f = data[at++] & 0xFF;
+        delete = (f & KeystrokeLog.F_DELETE) != 0;
+        correct = (f & KeystrokeLog.F_CORRECT) != 0;
+        deltaMicros = varint();
+        micros += deltaMicros;
+        int predicted = delete ? cursor - 1 : cursor;
+        position = (f & KeystrokeLog.F_POSITION) != 0
+                ? predicted + (int) KeystrokeLog.unzigzag(varint())
+                : predicted;
+        if (delete) {
+            typed = 0;
+            expected = 0;
+        } else {
+            typed = (char) varint();
+            expected = correct ? typed : (char) varint();
+        }
+        if ((f & KeystrokeLog.F_KEYCODE) != 0) keyCode = (int) varint();
+        if (position < 0 || position > (delete ? length - 1 : length)) {
+            throw new IllegalArgumentException("keystroke position " + position + " outside input of length " + length);
+        }
+        length += delete ? -1 : 1;
+        cursor = delete ? position : position + 1;
+        read++;
+        return true;
+    }
+
+    public boolean isDelete() { return delete; }
+
+    /** Inserts only: typed char matched the target. */
+    public boolean isCorrect() { return correct; }
+
+    /** Input position of the insert, or of the deleted char. */
+    public int position() { return position; }
+
+    /** Inserts only. */
+    public char typed() { return typed; }
+
+    /** Inserts only: target char at the position (0 past the end of the target). */
+    public char expected() { return expected; }
+
+    /** JavaFX KeyCode code of the key behind the event (0 if unknown). */
+    public int keyCode() { return keyCode; }
+
+    /** Microseconds since the previous event. */
+    public long deltaMicros() { return deltaMicros; }
+
+    /** Microseconds since the start of the drill. */
+    public long micros() { return micros; }
+
+    private long varint() {
+        long v = 0;
+        int shift = 0;
+        while (true) {
+            if (at >= data.length) throw new IllegalArgumentException("truncated keystroke log");
+            byte b = data[at++];
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+            shift += 7;
+        }
+    }
+
+    // -----------------------------
+    // Re-deriving stats
+    // -----------------------------
+
+    /** Stats re-derived from a log; same meaning as the live TypingStats/TypingStatsEngine values. */
+    public static class Result {
+        public final double accuracy;
+        public final int correctChars;
+        public final int errors;
+        public final int typedChars;
+        public final int bestStreak;
+        public final boolean complete;
+        public final int keystrokes;
+        public final int deletes;
+        public final double durationSeconds;   // up to the last keystroke
+        public final int wpm;                  // over durationSeconds
+
+        public Result(double accuracy, int correctChars, int errors, int typedChars, int bestStreak,
+                      boolean complete, int keystrokes, int deletes, double durationSeconds, int wpm) {
+            this.accuracy = accuracy;
+            this.correctChars = correctChars;
+            this.errors = errors;
+            this.typedChars = typedChars;
+            this.bestStreak = bestStreak;
+            this.complete = complete;
+            this.keystrokes = keystrokes;
+            this.deletes = deletes;
+            this.durationSeconds = durationSeconds;
+            this.wpm = wpm;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("replay{acc=%.2f%% correct=%d errors=%d typed=%d bestStreak=%d complete=%b " +
+                            "keys=%d deletes=%d %.1fs wpm=%d}", accuracy, correctChars, errors, typedChars,
+                    bestStreak, complete, keystrokes, deletes, durationSeconds, wpm);
+        }
+    }
+
+    /**
+     * Feed every event of the blob into a fresh TypingStatsEngine for {@code target}.
+     * Streaks follow the game screen's rule ({@link TypingStatsEngine#scoreKey}), applied to each edit that
+     * inserted exactly one char. An edit is the run of events logged with the same timestamp (a paste or a
+     * replaced selection is logged as several events at once), so a zero gap continues the current edit.
+     */
+    public static Result replay(byte[] blob, String target) {
+        KeystrokeReplay r = new KeystrokeReplay(blob);
+        TypingStatsEngine engine = new TypingStatsEngine(target);
+        int deletes = 0;
+        int editInserts = 0;
+        int insertPos = 0;
+        char insertChar = 0;
+        while (r.next()) {
+            if (r.deltaMicros() != 0 || r.read == 1) {   // a new edit: score the previous one
+                if (editInserts == 1) engine.scoreKey(insertPos, insertChar);
+                editInserts = 0;
+            }
+            if (r.isDelete()) {
+                engine.delete(r.position());
+                deletes++;
+            } else {
+                engine.insert(r.position(), r.typed());
+                editInserts++;
+                insertPos = r.position();
+                insertChar = r.typed();
+            }
+        }
+        if (editInserts == 1) engine.scoreKey(insertPos, insertChar);
+        double seconds = r.micros() / 1e6;
+        return new Result(engine.getAccuracy(), engine.getCorrectChars(), engine.getErrors(),
+                engine.getTypedChars(), engine.getBestStreak(), engine.isComplete(), r.eventCount(), deletes,
+                seconds, engine.calculateWPM(seconds / 60.0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.typinggame.model;
+
+import com.typinggame.util.Rank;
+
+/**
+ * What the game screen shows while typing: smoothed WPM, accuracy, current streak and the rank the WPM
+ * maps to. Keystrokes only update these numbers; the view asks {@link #takeChanges()} once per frame and
+ * re-renders just the parts whose shown value changed (accuracy is compared at the two decimals shown, and
+ * the rank only counts as changed on an actual transition).
+ * No JavaFX types here, so the model can be tested headless.
+ */
+public class LiveStats {
+
+    /** Bits returned by {@link #takeChanges()}. */
+    public static final int WPM = 1, ACCURACY = 2, STREAK = 4, RANK = 8;
+
+    /** Number of live WPM readings averaged for the shown value. */
+    public static final int SMOOTHING = 5;
+
+    private final int[] window = new int[SMOOTHING];
+    private int windowCount;
+    private int windowNext;
+    private int windowSum;
+
+    private int wpm;
+    private double accuracy;
+    private long accuracyHundredths;
+    private int streak;
+    private Rank rank;          // null until the first keystroke of a round
+    private int changes;
+
+    /** Record one keystroke's readings. */
+    public void update(int liveWpm, double accuracy, int streak) {
+        windowSum += liveWpm - (windowCount == SMOOTHING ? window[windowNext] : 0);
+        window[windowNext] = liveWpm;
+        windowNext = (windowNext + 1) % SMOOTHING;
+        if (windowCount < SMOOTHING) windowCount++;
+        show(windowSum / windowCount, accuracy, streak);
+        Rank r = Rank.forTypingSpeed(wpm);
+        if (r != rank) {
+            rank = r;
+            changes |= RANK;
+        }
+    }
+
+    /** Show the final results of a round (the rank border stays as it was). */
+    public void finish(int wpm, double accuracy, int bestStreak) {
+        show(wpm, accuracy, bestStreak);
+    }
+
+    /**
+     * Start a new round: clears the numbers and the smoothing window; the rank goes back to none.
+     * The zeroed numbers always count as changed, so the next frame redraws them without the view having to.
+     */
+    public void reset() {
+        windowCount = windowNext = windowSum = 0;
+        wpm = streak = 0;
+        accuracy = 0;
+        accuracyHundredths = 0;
+        changes = WPM | ACCURACY | STREAK;
+        if (rank != null) {
+            rank = null;
+            changes |= RANK;
+        }
+    }
+
+    /** Which shown values changed since the last call (bit set of WPM, ACCURACY, STREAK, RANK). */
+    public int takeChanges() {
+        int c = changes;
+        changes = 0;
+        return c;
+    }
+
+    public boolean hasChanges() {
+        return changes != 0;
+    }
+
+    public int getWpm() { return wpm; }
+    public double getAccuracy() { return accuracy; }
+    public int getStreak() { return streak; }
+    public Rank getRank() { return rank; }
+
+    private void show(int wpm, double accuracy, int streak) {
+        if (wpm != this.wpm) changes |= WPM;
+        long hundredths = Math.round(accuracy * 100);
+        if (hundredths != accuracyHundredths) changes |= ACCURACY;
+        if (streak != this.streak) changes |= STREAK;
+        this.wpm = wpm;
+        this.accuracy = accuracy;
+        this.accuracyHundredths = hundredths;
+        this.streak = streak;
+    }
+}
@@ -17,9 +17,15 @@ public class Session implements Serializable {
     public final int typedChars;         // number of characters typed
     public final double durationSeconds; // session duration in seconds
     public final Instant startedAt;      // timestamp when started
+    public final byte[] keystrokes;      // KeystrokeLog blob, or null if not recorded
 
     public Session(Integer id, int userId, int drillId, double wpm, double accuracy,
                    int typedChars, double durationSeconds, Instant startedAt){
+        this(id, userId, drillId, wpm, accuracy, typedChars, durationSeconds, startedAt, null);
+    }
+
+    public Session(Integer id, int userId, int drillId, double wpm, double accuracy,
+                   int typedChars, double durationSeconds, Instant startedAt, byte[] keystrokes){
         this.id = id;
         this.userId = userId;
         this.drillId = drillId;
@@ -29,5 +35,6 @@ public class Session implements Serializable {
         this.typedChars = typedChars;
         this.durationSeconds = durationSeconds;
         this.startedAt = startedAt;
+        this.keystrokes = keystrokes;
     }
 }
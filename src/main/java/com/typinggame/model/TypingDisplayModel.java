@@ -0,0 +1,191 @@
+package com.typinggame.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Colour state of the drill text, kept as runs of same-state characters ("spans") instead of one
+ * entry per character. The view keeps one Text node per span.
+ * - update() works out which characters could have changed since the previous input (from the first
+ *   position where old and new input differ, up to the end of the longer one). Typing or deleting a
+ *   character is therefore a one-character change.
+ * - Only the spans around that range are rebuilt, merging with their neighbours when the states match.
+ *   {@link #changedFrom()}, {@link #removedCount()} and {@link #addedCount()} tell the view which span
+ *   indexes to patch.
+ * No JavaFX types here, so the model can be tested and benchmarked headless.
+ *
+ * @since 2025-10-18
+ */
+public class TypingDisplayModel {
+
+    /** How a target character is shown. */
+    public enum State { PENDING, CORRECT, WRONG }
+
+    /** Characters [start, end) of the target, all in the same state. */
+    public static final class Span {
+        public final int start;
+        public final int end;
+        public final State state;
+
+        public Span(int start, int end, State state) {
+            this.start = start;
+            this.end = end;
+            this.state = state;
+        }
+
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public String toString() {
+            return state + "[" + start + "," + end + ")";
+        }
+    }
+
+    private final String target;
+    private final List<Span> spans = new ArrayList<>();
+    private String input = "";
+
+    // what the last update() changed
+    private int changedFrom = 0;
+    private int removedCount = 0;
+    private int addedCount = 0;
+    private int restyledChars = 0;
+
+    /**
+     * @param target the drill text; every character starts out PENDING
+     */
+    public TypingDisplayModel(String target) {
+        this.target = target == null ? "" : target;
+        if (!this.target.isEmpty()) spans.add(new Span(0, this.target.length(), State.PENDING));
+        addedCount = spans.size();
+    }
+
+    /**
+     * Apply the current contents of the input field.
+     *
+     * @param newInput the full text typed so far
+     * @return number of target characters whose state was recomputed (0 if nothing visible changed)
+     */
+    public int update(String newInput) {
+        if (newInput == null) newInput = "";
+        String old = input;
+        input = newInput;
+
+        int n = target.length();
+        int lo = commonPrefix(old, newInput);
+        int hi = Math.min(n, Math.max(old.length(), newInput.length()));
+        if (lo >= hi) {
+            changedFrom = spans.size();
+            removedCount = addedCount = restyledChars = 0;
+            return 0;
+        }
+
+        int a = spanAt(lo);
+        int b = spanAt(hi - 1);
+        Span first = spans.get(a);
+        Span last = spans.get(b);
+
+        // rebuilt spans for [first.start, last.end): untouched head, recomputed [lo, hi), untouched tail
+        List<Span> rebuilt = new ArrayList<>();
+        if (first.start < lo) rebuilt.add(new Span(first.start, lo, first.state));
+        for (int i = lo; i < hi; i++) append(rebuilt, i, i + 1, stateAt(i));
+        if (hi < last.end) append(rebuilt, hi, last.end, last.state);
+
+        // merge into neighbouring spans that now have the same state
+        if (a > 0 && spans.get(a - 1).state == rebuilt.get(0).state) {
+            Span left = spans.get(--a);
+            Span head = rebuilt.get(0);
+            rebuilt.set(0, new Span(left.start, head.end, head.state));
+        }
+        if (b + 1 < spans.size() && spans.get(b + 1).state == rebuilt.get(rebuilt.size() - 1).state) {
+            Span right = spans.get(++b);
+            Span tail = rebuilt.get(rebuilt.size() - 1);
+            rebuilt.set(rebuilt.size() - 1, new Span(tail.start, right.end, tail.state));
+        }
+
+        List<Span> replaced = spans.subList(a, b + 1);
+        removedCount = replaced.size();
+        replaced.clear();
+        spans.addAll(a, rebuilt);
+        changedFrom = a;
+        addedCount = rebuilt.size();
+        restyledChars = hi - lo;
+        return restyledChars;
+    }
+
+    /** State of one target character under the current input. */
+    public State stateAt(int i) {
+        if (i >= input.length()) return State.PENDING;
+        return input.charAt(i) == target.charAt(i) ? State.CORRECT : State.WRONG;
+    }
+
+    /** Current spans, in order; read-only view. */
+    public List<Span> spans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    /** Text of one span. */
+    public String text(Span s) {
+        return target.substring(s.start, s.end);
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /** Index of the first span replaced by the last update(). */
+    public int changedFrom() {
+        return changedFrom;
+    }
+
+    /** How many old spans the last update() replaced (starting at {@link #changedFrom()}). */
+    public int removedCount() {
+        return removedCount;
+    }
+
+    /** How many new spans took their place. */
+    public int addedCount() {
+        return addedCount;
+    }
+
+    /** Characters recomputed by the last update(). */
+    public int restyledChars() {
+        return restyledChars;
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+
+    /** Index of the span containing character {@code pos} (spans are contiguous and sorted). */
+    private int spanAt(int pos) {
+        int lo = 0, hi = spans.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (spans.get(mid).start <= pos) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private static void append(List<Span> out, int start, int end, State state) {
+        if (!out.isEmpty()) {
+            Span prev = out.get(out.size() - 1);
+            if (prev.state == state && prev.end == start) {
+                out.set(out.size() - 1, new Span(prev.start, end, state));
+                return;
+            }
+        }
+        out.add(new Span(start, end, state));
+    }
+
+    private static int commonPrefix(String x, String y) {
+        int n = Math.min(x.length(), y.length());
+        int i = 0;
+        while (i < n && x.charAt(i) == y.charAt(i)) i++;
+        return i;
+    }
+}
@@ -0,0 +1,221 @@
+package com.typinggame.model;
+
+/**
+ * Streaming version of {@link TypingStats}: instead of rescanning the whole input on every keystroke it
+ * is told what changed (insert/delete/replace at a position, e.g. from a TextFormatter) and adjusts its
+ * counters for just that range.
+ * - Typed text lives in a growable char[]; correct/error/word counts are plain ints.
+ * - Typing or deleting at the end of the input is O(1). An edit in the middle shifts the characters after
+ *   it, so those positions are re-checked (they now line up with different target characters).
+ * - WPM uses the target's word count, computed once in the constructor rather than per call.
+ * Gives the same accuracy, error, streak, WPM and completion results as a TypingStats that is fed the
+ * resulting input string after every change.
+ *
+ * @since 2025-10-18
+ */
+public class TypingStatsEngine {
+
+    private final String target;
+    private final int targetWords;           // target.split("\\s+").length, computed once
+
+    private char[] typed = new char[64];     // current input, [0, length)
+    private int length = 0;
+
+    private int correctChars = 0;            // positions < min(length, target) that match the target
+    private int cumulativeErrors = 0;        // mistakes made, counted when a position turns wrong
+    private int typedWords = 0;              // word starts in the input (non-space after space/start)
+
+    private int currentStreak = 0;
+    private int bestStreak = 0;
+
+    private final OneChar one = new OneChar();   // reused by insert() so typing doesn't allocate
+
+    /**
+     * @param target The sentence the user is expected to type
+     */
+    public TypingStatsEngine(String target) {
+        this.target = target == null ? "" : target;
+        this.targetWords = this.target.split("\\s+").length;
+    }
+
+    // -----------------------------
+    // Events
+    // -----------------------------
+
+    /** A character was typed at {@code pos}. */
+    public void insert(int pos, char c) {
+        one.c = c;
+        replace(pos, pos, one);
+    }
+
+    /** The character at {@code pos} was deleted (backspace at pos + 1). */
+    public void delete(int pos) {
+        replace(pos, pos + 1, "");
+    }
+
+    /**
+     * Characters [start, end) of the input were replaced by {@code text} (insert: start == end;
+     * delete: empty text). Same shape as a TextFormatter change.
+     */
+    public void replace(int start, int end, CharSequence text) {
+        if (start < 0 || end < start || end > length) {
+            throw new IndexOutOfBoundsException("replace [" + start + "," + end + ") of " + length);
+        }
+        int inserted = text.length();
+        int newLength = length - (end - start) + inserted;
+
+        typedWords -= wordStarts(start, Math.min(end + 1, length));
+
+        // Re-check positions whose character may differ: the replaced range and, if the length changed,
+        // everything after it. Each new character is compared with the old one at the same position.
+        int checkEnd = Math.min(target.length(), inserted == end - start ? start + inserted : Math.max(length, newLength));
+        for (int i = start; i < checkEnd; i++) {
+            boolean hadOld = i < length;
+            boolean hasNew = i < newLength;
+            char expected = target.charAt(i);
+            boolean oldCorrect = hadOld && typed[i] == expected;
+            char now = hasNew ? newCharAt(i, start, end, text) : 0;
+            boolean newCorrect = hasNew && now == expected;
+
+            if (oldCorrect) correctChars--;
+            if (newCorrect) correctChars++;
+            // a new mistake: position is wrong now and was empty or correct before
+            if (hasNew && !newCorrect && (!hadOld || oldCorrect)) cumulativeErrors++;
+        }
+
+        // apply the edit to the buffer
+        ensureCapacity(newLength);
+        System.arraycopy(typed, end, typed, start + inserted, length - end);
+        for (int k = 0; k < inserted; k++) typed[start + k] = text.charAt(k);
+        length = newLength;
+
+        typedWords += wordStarts(start, Math.min(start + inserted + 1, length));
+    }
+
+    /** Convenience: make the input equal to {@code input} (one replace of the whole text). */
+    public void setInput(String input) {
+        replace(0, length, input == null ? "" : input);
+    }
+
+    // -----------------------------
+    // Results (same meaning as TypingStats)
+    // -----------------------------
+
+    /** @return true if the input matches the target sentence exactly */
+    public boolean isComplete() {
+        return length == target.length() && correctChars == length;
+    }
+
+    /**
+     * Calculates the user's typing speed in words per minute (WPM), from the target's word count.
+     *
+     * @param elapsedMinutes Time elapsed since the start of the session, in minutes
+     * @return Estimated words per minute
+     */
+    public int calculateWPM(double elapsedMinutes) {
+        if (elapsedMinutes <= 0) return 0;
+        return (int) (targetWords / elapsedMinutes);
+    }
+
+    /** @return Accuracy percentage (0–100); 100 before anything is typed */
+    public double getAccuracy() {
+        int totalAttempts = correctChars + cumulativeErrors;
+        if (totalAttempts == 0) return 100.0;
+        return (correctChars * 100.0) / totalAttempts;
+    }
+
+    /**
+     * Updates the streak count based on the latest character typed.
+     *
+     * @param inputChar  Character typed by the user
+     * @param targetChar Expected character from the target sentence
+     */
+    /**
+     * The streak rule for one typed key, shared by the game screen ({@link KeystrokePipeline}) and
+     * {@link KeystrokeReplay}: a single typed char (not part of a paste) that isn't a space and lands within
+     * the target extends the streak if it matches the target char at its position, and resets it otherwise.
+     * @return whether the key counted, i.e. the streak was updated
+     */
+    public boolean scoreKey(int pos, char typed) {
+        if (typed == ' ' || pos < 0 || pos >= target.length()) return false;
+        updateStreak(typed, target.charAt(pos));
+        return true;
+    }
+
+    public void updateStreak(char inputChar, char targetChar) {
+        if (inputChar == targetChar) {
+            currentStreak++;
+            if (currentStreak > bestStreak) bestStreak = currentStreak;
+        } else {
+            currentStreak = 0;
+        }
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    public int getCorrectChars() {
+        return correctChars;
+    }
+
+    public int getErrors() {
+        return cumulativeErrors;
+    }
+
+    /** Characters currently in the input. */
+    public int getTypedChars() {
+        return length;
+    }
+
+    /** Words started in the input so far. */
+    public int getTypedWords() {
+        return typedWords;
+    }
+
+    /** Current input (allocates; not for the per-keystroke path). */
+    public String getInput() {
+        return new String(typed, 0, length);
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+
+    /** Character at position i of the input after replacing [start, end) with text (buffer not yet edited). */
+    private char newCharAt(int i, int start, int end, CharSequence text) {
+        if (i < start) return typed[i];
+        if (i < start + text.length()) return text.charAt(i - start);
+        return typed[i - text.length() + (end - start)];
+    }
+
+    /** Word starts at positions [from, to) of the current buffer. */
+    private int wordStarts(int from, int to) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(typed[i]) && (i == 0 || Character.isWhitespace(typed[i - 1]))) n++;
+        }
+        return n;
+    }
+
+    /** Mutable single-character CharSequence. */
+    private static final class OneChar implements CharSequence {
+        char c;
+
+        @Override public int length() { return 1; }
+        @Override public char charAt(int index) { return c; }
+        @Override public CharSequence subSequence(int start, int end) { return String.valueOf(c).subSequence(start, end); }
+        @Override public String toString() { return String.valueOf(c); }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= typed.length) return;
+        char[] bigger = new char[Math.max(needed, typed.length * 2)];
+        System.arraycopy(typed, 0, bigger, 0, length);
+        typed = bigger;
+    }
+}
@@ -0,0 +1,95 @@
+package com.typinggame.service;
+
+import com.typinggame.model.KeyStats;
+import com.typinggame.util.DrillGenerator;
+import com.typinggame.util.SentenceProvider;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Practice drills aimed at a user's weak spots.
+ *
+ * Each key and bigram with enough presses gets a score of p95 latency scaled up by its error rate; the
+ * worst few are handed to {@link DrillGenerator} as focus weights. Users without key stats yet (or any
+ * failure) get the plain {@link SentenceProvider} sentence instead.
+ */
+public class AdaptiveDrillService {
+
+    /** Words per generated drill. */
+    public static final int WORDS = 24;
+
+    /** Weak keys and weak bigrams each passed to the generator. */
+    static final int FOCUS_KEYS = 8;
+
+    /** How much a 100% error rate multiplies a key's latency score. */
+    private static final double ERROR_WEIGHT = 4.0;
+
+    private final KeyStatsService keyStats;
+    private final Random rnd;
+
+    public AdaptiveDrillService() {
+        this(new KeyStatsService(), new Random());
+    }
+
+    public AdaptiveDrillService(KeyStatsService keyStats, Random rnd) {
+        this.keyStats = keyStats;
+        this.rnd = rnd;
+    }
+
+    /** Practice text for the user: generated from their weak keys, or the default sentence. */
+    public String sentenceFor(int userId) {
+        return sentenceFor(userId, 0);
+    }
+
+    /**
+     * Practice text for the user at a game level: generated from their weak keys, or else a corpus sentence
+     * of the level's difficulty (any difficulty when level is 0).
+     */
+    public String sentenceFor(int userId, int level) {
+        try {
+            Map<String, Double> focus = focusFor(userId);
+            if (focus.isEmpty()) return fallback(level);
+            return DrillGenerator.shared().generate(focus, WORDS, rnd);
+        } catch (Exception e) {
+            System.err.println("[AdaptiveDrillService] generate error: " + e.getMessage());
+            return fallback(level);
+        }
+    }
+
+    private static String fallback(int level) {
+        return level > 0
+                ? SentenceProvider.getSentence(SentenceProvider.difficultyForLevel(level))
+                : SentenceProvider.getSentence();
+    }
+
+    /** The user's weakest keys and bigrams with their weights (empty if there isn't enough data). */
+    public Map<String, Double> focusFor(int userId) {
+        KeyStats stats = keyStats.forUser(userId);
+        Map<String, Double> focus = new LinkedHashMap<>();
+        if (stats.sessions() == 0) return focus;
+        addWorst(focus, stats.keys(KeyStatsService.MIN_PRESSES));
+        addWorst(focus, stats.bigrams(KeyStatsService.MIN_PRESSES));
+        return focus;
+    }
+
+    private static void addWorst(Map<String, Double> focus, List<KeyStats.Stat> all) {
+        List<KeyStats.Stat> sorted = new ArrayList<>();
+        for (KeyStats.Stat s : all) {
+            if (!s.key.isBlank()) sorted.add(s);
+        }
+        sorted.sort(Comparator.comparingDouble(s -> -score(s)));
+        for (int i = 0; i < Math.min(FOCUS_KEYS, sorted.size()); i++) {
+            double score = score(sorted.get(i));
+            if (score > 0) focus.put(sorted.get(i).key, score);
+        }
+    }
+
+    static double score(KeyStats.Stat s) {
+        return s.p95Millis * (1 + ERROR_WEIGHT * s.errorRate());
+    }
+}
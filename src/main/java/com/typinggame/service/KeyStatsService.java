@@ -0,0 +1,91 @@
+package com.typinggame.service;
+
+import com.typinggame.data.KeyStatsRepository;
+import com.typinggame.model.KeyStats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-key and per-bigram typing analytics for the profile and keyboard views.
+ *
+ * The figures come from the user's key_stats aggregates, which SessionRepository.insert updates as each
+ * session (with its keystroke log) is saved, so every query here is one primary-key read, no history scan.
+ * Latencies are inter-key times in ms (mean, p50, p95); error rate is wrong presses / presses for the
+ * key the drill expected.
+ */
+public class KeyStatsService {
+
+    /** Keys/bigrams with fewer presses than this are too noisy to rank. */
+    public static final int MIN_PRESSES = 5;
+
+    /** Keys on the on-screen keyboard, as their upper-case char. */
+    private static final String KEYBOARD = "`1234567890-=QWERTYUIOP[]\\ASDFGHJKL;'ZXCVBNM,./ ";
+
+    private final KeyStatsRepository repo;
+
+    public KeyStatsService() {
+        this(new KeyStatsRepository());
+    }
+
+    public KeyStatsService(KeyStatsRepository repo) {
+        this.repo = repo;
+    }
+
+    /** The user's raw aggregates (empty if nothing recorded or on error). */
+    public KeyStats forUser(int userId) {
+        try {
+            return repo.load(userId);
+        } catch (Exception e) {
+            System.err.println("[KeyStatsService] load error: " + e.getMessage());
+            return new KeyStats();
+        }
+    }
+
+    /** Slowest keys by p95 latency, at most {@code limit}. */
+    public List<KeyStats.Stat> slowestKeys(int userId, int limit) {
+        return top(forUser(userId).keys(MIN_PRESSES), Comparator.comparingDouble(s -> -s.p95Millis), limit);
+    }
+
+    /** Keys with the highest error rate, at most {@code limit}. */
+    public List<KeyStats.Stat> mostMissedKeys(int userId, int limit) {
+        return top(forUser(userId).keys(MIN_PRESSES), Comparator.comparingDouble(s -> -s.errorRate()), limit);
+    }
+
+    /** Slowest letter pairs by p95 latency, at most {@code limit}. */
+    public List<KeyStats.Stat> slowestBigrams(int userId, int limit) {
+        return top(forUser(userId).bigrams(MIN_PRESSES), Comparator.comparingDouble(s -> -s.p95Millis), limit);
+    }
+
+    /**
+     * Heat per on-screen keyboard key (upper-case char, ' ' for space), 0 = the user's fastest key,
+     * 1 = their slowest, by p95 latency. Keys without enough presses are left out.
+     */
+    public Map<Character, Double> keyboardHeat(int userId) {
+        KeyStats stats = forUser(userId);
+        Map<Character, Double> p95 = new LinkedHashMap<>();
+        double min = Double.MAX_VALUE, max = 0;
+        for (char key : KEYBOARD.toCharArray()) {
+            KeyStats.Stat s = stats.keyIgnoreCase(key);
+            if (s == null || s.presses < MIN_PRESSES || s.p95Millis <= 0) continue;
+            p95.put(key, s.p95Millis);
+            min = Math.min(min, s.p95Millis);
+            max = Math.max(max, s.p95Millis);
+        }
+        double range = max - min;
+        Map<Character, Double> heat = new LinkedHashMap<>();
+        for (Map.Entry<Character, Double> e : p95.entrySet()) {
+            heat.put(e.getKey(), range <= 0 ? 0.0 : (e.getValue() - min) / range);
+        }
+        return heat;
+    }
+
+    private static List<KeyStats.Stat> top(List<KeyStats.Stat> all, Comparator<KeyStats.Stat> order, int limit) {
+        List<KeyStats.Stat> sorted = new ArrayList<>(all);
+        sorted.sort(order);
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+}
@@ -0,0 +1,333 @@
+package com.typinggame.service;
+
+import com.typinggame.data.SessionRepository;
+import com.typinggame.model.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Saves sessions in the background so the caller (the FX thread at drill completion) never waits on disk.
+ * - submit() puts the session on the queue and returns immediately; it never blocks and never writes on the
+ *   caller's thread. Past the nominal capacity sessions are still queued (a finished drill is never dropped)
+ *   and counted as overflowed, so a stuck writer shows up in the stats instead of as a UI stall.
+ * - One writer thread drains whatever is queued and inserts it with SessionRepository.insertBatch
+ *   (one transaction per batch).
+ * - After the commit, each session's callback runs on the executor it was submitted with
+ *   (e.g. Platform::runLater), receiving the saved copy with its id.
+ * - If a batch fails (e.g. SQLITE_BUSY, one bad row), each of its sessions is retried on its own, a few times
+ *   with a short backoff; a session that still can't be saved is handed to its failure callback.
+ * - flush()/shutdown() wait for everything queued so far; the shared instance is flushed by
+ *   MainApp.stop() and, as a fallback, by a JVM shutdown hook. Only sessions submitted after shutdown() are
+ *   written on the caller's thread.
+ */
+public class SessionWriteBehind {
+
+    /** Nominal queue capacity of the shared instance. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** Most sessions written in one transaction. */
+    private static final int MAX_BATCH = 64;
+
+    /** Attempts per session once its batch has failed, waiting attempt x RETRY_BACKOFF_MILLIS in between. */
+    private static final int RETRY_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
+
+    private static SessionWriteBehind shared;
+
+    private final SessionRepository repo;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();   // unbounded: submit never waits
+    private final int capacity;
+    private final Thread writer;
+    private volatile boolean accepting = true;
+
+    private final Object idleLock = new Object();
+    private long outstanding = 0;                      // queued + being written; guarded by idleLock
+
+    // ---- metrics ----
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong inlineWrites = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong maxDepth = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /** @param capacity queue depth past which submitted sessions are counted as overflowed (still queued) */
+    public SessionWriteBehind(SessionRepository repo, int capacity) {
+        this.repo = repo;
+        this.capacity = capacity;
+        this.writer = new Thread(this::run, "session-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** The app-wide instance (created on first use, flushed on JVM exit). */
+    public static synchronized SessionWriteBehind shared() {
+        if (shared == null) {
+            SessionWriteBehind w = new SessionWriteBehind(new SessionRepository(), DEFAULT_CAPACITY);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> w.shutdown(5_000), "session-writer-flush"));
+            shared = w;
+        }
+        return shared;
+    }
+
+    /** Flush and stop the shared instance, if one was created. */
+    public static synchronized void shutdownShared(long timeoutMillis) {
+        if (shared != null) {
+            shared.shutdown(timeoutMillis);
+            shared = null;
+        }
+    }
+
+    /**
+     * Queue a session for saving.
+     * @param s the finished session (id null)
+     * @param onSaved called with the saved copy once it is committed; may be null
+     * @param callbackExecutor where onSaved runs (e.g. Platform::runLater)
+     */
+    public void submit(Session s, Consumer<Session> onSaved, Executor callbackExecutor) {
+        submit(s, onSaved, null, callbackExecutor);
+    }
+
+    /**
+     * Queue a session for saving.
+     * @param onFailed called with the last error if the session couldn't be saved even after retrying; may be
+     *                 null (the failure is then only logged)
+     * @param callbackExecutor where onSaved / onFailed run
+     */
+    public void submit(Session s, Consumer<Session> onSaved, Consumer<RuntimeException> onFailed,
+                       Executor callbackExecutor) {
+        Pending p = new Pending(s, onSaved, onFailed, callbackExecutor);
+        submitted.incrementAndGet();
+        synchronized (idleLock) { outstanding++; }
+
+        if (accepting) {
+            queue.add(p);
+            int depth = queue.size();
+            maxDepth.accumulateAndGet(depth, Math::max);
+            if (depth > capacity && overflowed.getAndIncrement() == 0) {
+                System.err.println("[SessionWriteBehind] queue past " + capacity + " sessions, writer is falling behind");
+            }
+        } else {
+            // Shut down: the writer thread is gone, so don't drop the result, write it on the caller's thread.
+            inlineWrites.incrementAndGet();
+            write(List.of(p));
+        }
+    }
+
+    /**
+     * Wait until everything submitted so far is committed.
+     * @return true if the queue drained within the timeout
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (idleLock) {
+            while (outstanding > 0) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) return false;
+                try {
+                    idleLock.wait(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** Stop accepting new work (later submits write inline), flush what's queued, then stop the writer thread. */
+    public void shutdown(long timeoutMillis) {
+        accepting = false;
+        boolean drained = flush(timeoutMillis);
+        writer.interrupt();
+        System.out.println("[SessionWriteBehind] shutdown" + (drained ? "" : " (TIMED OUT, sessions may be lost)")
+                + " " + stats());
+    }
+
+    /** Sessions waiting in the queue right now. */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                if (!accepting && queue.isEmpty()) return;   // shutdown, nothing left to write
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Insert one batch, record metrics, then hand each saved session to its callback.
+     * If the batch transaction fails, every session in it is retried alone so one bad row or a transient
+     * lock doesn't lose the others.
+     */
+    private void write(List<Pending> batch) {
+        long start = System.nanoTime();
+        List<Session> saved = null;
+        try {
+            List<Session> sessions = new ArrayList<>(batch.size());
+            for (Pending p : batch) sessions.add(p.session);
+            saved = repo.insertBatch(sessions);
+        } catch (RuntimeException e) {
+            System.err.println("[SessionWriteBehind] batch of " + batch.size() + " failed (" + e.getMessage()
+                    + "), retrying each session alone");
+        }
+
+        long flushNanos = System.nanoTime() - start;
+        batches.incrementAndGet();
+        totalFlushNanos.addAndGet(flushNanos);
+        maxFlushNanos.accumulateAndGet(flushNanos, Math::max);
+
+        for (int i = 0; i < batch.size(); i++) {
+            Pending p = batch.get(i);
+            if (saved != null) {
+                saved(p, saved.get(i));
+                continue;
+            }
+            try {
+                saved(p, insertAlone(p.session));
+            } catch (RuntimeException e) {
+                failed(p, e);
+            }
+        }
+
+        synchronized (idleLock) {
+            outstanding -= batch.size();
+            if (outstanding == 0) idleLock.notifyAll();
+        }
+    }
+
+    /** One session in its own transaction, retried with a short backoff. */
+    private Session insertAlone(Session s) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return repo.insert(s);
+            } catch (RuntimeException e) {
+                if (attempt == RETRY_ATTEMPTS) throw e;
+                retries.incrementAndGet();
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void saved(Pending p, Session copy) {
+        written.incrementAndGet();
+        long latency = System.nanoTime() - p.enqueuedAt;
+        totalLatencyNanos.addAndGet(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        if (p.onSaved != null) dispatch(p, () -> p.onSaved.accept(copy));
+    }
+
+    private void failed(Pending p, RuntimeException e) {
+        failed.incrementAndGet();
+        System.err.println("[SessionWriteBehind] could not save session (user " + p.session.userId + ", drill "
+                + p.session.drillId + ") after " + RETRY_ATTEMPTS + " attempts: " + e.getMessage());
+        if (p.onFailed != null) dispatch(p, () -> p.onFailed.accept(e));
+    }
+
+    private static void dispatch(Pending p, Runnable callback) {
+        try {
+            p.executor.execute(callback);
+        } catch (RuntimeException e) {
+            System.err.println("[SessionWriteBehind] callback dispatch failed: " + e.getMessage());
+        }
+    }
+
+    /** Point-in-time metrics. */
+    public Stats stats() {
+        return new Stats(queue.size(), maxDepth.get(), submitted.get(), written.get(), failed.get(),
+                retries.get(), batches.get(), inlineWrites.get(), overflowed.get(), totalFlushNanos.get(),
+                maxFlushNanos.get(), totalLatencyNanos.get(), maxLatencyNanos.get());
+    }
+
+    private static final class Pending {
+        final Session session;
+        final Consumer<Session> onSaved;
+        final Consumer<RuntimeException> onFailed;
+        final Executor executor;
+        final long enqueuedAt = System.nanoTime();
+
+        Pending(Session session, Consumer<Session> onSaved, Consumer<RuntimeException> onFailed, Executor executor) {
+            this.session = session;
+            this.onSaved = onSaved;
+            this.onFailed = onFailed;
+            this.executor = executor;
+        }
+    }
+
+    /** Snapshot of queue/flush counters. Flush = one insertBatch transaction; latency = submit to commit. */
+    public static class Stats {
+        public final int queueDepth;
+        public final long maxQueueDepth;
+        public final long submitted;
+        public final long written;
+        public final long failed;
+        public final long retries;
+        public final long batches;
+        public final long inlineWrites;
+        public final long overflowed;
+        public final long totalFlushNanos;
+        public final long maxFlushNanos;
+        public final long totalLatencyNanos;
+        public final long maxLatencyNanos;
+
+        public Stats(int queueDepth, long maxQueueDepth, long submitted, long written, long failed,
+                     long retries, long batches, long inlineWrites, long overflowed, long totalFlushNanos,
+                     long maxFlushNanos, long totalLatencyNanos, long maxLatencyNanos) {
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.submitted = submitted;
+            this.written = written;
+            this.failed = failed;
+            this.retries = retries;
+            this.batches = batches;
+            this.inlineWrites = inlineWrites;
+            this.overflowed = overflowed;
+            this.totalFlushNanos = totalFlushNanos;
+            this.maxFlushNanos = maxFlushNanos;
+            this.totalLatencyNanos = totalLatencyNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        public double meanFlushMillis() {
+            return batches == 0 ? 0.0 : totalFlushNanos / 1e6 / batches;
+        }
+
+        public double meanLatencyMillis() {
+            return written == 0 ? 0.0 : totalLatencyNanos / 1e6 / written;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sessionWriter{depth=%d maxDepth=%d submitted=%d written=%d failed=%d retries=%d batches=%d " +
+                            "inline=%d overflowed=%d flush=%.2fms(max %.2f) latency=%.2fms(max %.2f)}",
+                    queueDepth, maxQueueDepth, submitted, written, failed, retries, batches, inlineWrites, overflowed,
+                    meanFlushMillis(), maxFlushNanos / 1e6, meanLatencyMillis(), maxLatencyNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.typinggame.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Least-recently-used map bounded by total weight rather than entry count (e.g. bytes of decoded pixels),
+ * with hit/miss/eviction counters. All methods are synchronized; loaders passed to {@link #getOrLoad}
+ * run under the lock, so they should be cheap (ImageCache's only start a background decode).
+ */
+final class BoundedCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Long> weights = new LinkedHashMap<>();
+    private long weight;
+    private long hits, misses, evictions;
+
+    BoundedCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("maxWeight must be positive");
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /** The cached value, loading (and counting a miss) if absent. A null from the loader is not cached. */
+    synchronized V getOrLoad(K key, Function<K, V> loader) {
+        V v = map.get(key);
+        if (v != null) {
+            hits++;
+            return v;
+        }
+        misses++;
+        v = loader.apply(key);
+        if (v != null) put(key, v);
+        return v;
+    }
+
+    /** The cached value or null, without loading or touching the counters. */
+    synchronized V peek(K key) {
+        return map.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        remove(key);
+        long w = Math.max(0, weigher.applyAsLong(value));
+        map.put(key, value);
+        weights.put(key, w);
+        weight += w;
+        evict(key);
+    }
+
+    /** Re-measure an entry whose weight changed (e.g. an image finished decoding). */
+    synchronized void reweigh(K key) {
+        V v = map.get(key);
+        if (v == null) return;
+        long w = Math.max(0, weigher.applyAsLong(v));
+        weight += w - weights.put(key, w);
+        evict(key);
+    }
+
+    synchronized V remove(K key) {
+        V v = map.remove(key);
+        if (v != null) weight -= weights.remove(key);
+        return v;
+    }
+
+    synchronized void clear() {
+        map.clear();
+        weights.clear();
+        weight = 0;
+    }
+
+    synchronized int size() { return map.size(); }
+    synchronized long weight() { return weight; }
+    long maxWeight() { return maxWeight; }
+    synchronized long hits() { return hits; }
+    synchronized long misses() { return misses; }
+    synchronized long evictions() { return evictions; }
+
+    /** Drop least recently used entries until under the bound; {@code keep} (the newest) always stays. */
+    private void evict(K keep) {
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            K k = it.next().getKey();
+            if (k.equals(keep)) continue;
+            it.remove();
+            weight -= weights.remove(k);
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.typinggame.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Builds practice text from a word corpus, biased toward the keys and letter pairs a user struggles with.
+ *
+ * The corpus is indexed once up front: for every char and every bigram, the ids of the words that
+ * contain it. Generating a drill is then just weighted picks over those posting lists (no scanning
+ * or string matching), so a 30-word drill takes a few microseconds.
+ *
+ * Focus keys are the strings {@link com.typinggame.model.KeyStats.Stat#key} uses: one char for a key,
+ * two for a bigram. Keys the corpus can't cover (digits, most punctuation) are typed as extra tokens
+ * or attached to a word instead.
+ */
+public class DrillGenerator {
+
+    /** Word list on the classpath: one word per line, '#' starts a comment. */
+    public static final String CORPUS_RESOURCE = "/corpus/words.txt";
+
+    /** Share of words picked for a focus key; the rest are random, so the text still reads like text. */
+    static final double FOCUS_SHARE = 0.7;
+
+    private static volatile DrillGenerator shared;
+
+    private final String[] words;
+    private final int[][] byChar = new int[128][];
+    private final Map<Integer, int[]> byBigram = new HashMap<>();
+
+    /** @param corpus words to draw from; blanks and duplicates are dropped, words are lower-cased */
+    public DrillGenerator(Collection<String> corpus) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String w : corpus) {
+            if (w == null) continue;
+            String t = w.trim().toLowerCase();
+            if (!t.isEmpty() && !t.startsWith("#") && t.indexOf(' ') < 0) unique.add(t);
+        }
+        if (unique.isEmpty()) throw new IllegalArgumentException("empty corpus");
+        words = unique.toArray(new String[0]);
+        buildIndex();
+    }
+
+    /** The generator over the bundled corpus (loaded on first use). */
+    public static DrillGenerator shared() {
+        DrillGenerator g = shared;
+        if (g == null) {
+            synchronized (DrillGenerator.class) {
+                g = shared;
+                if (g == null) shared = g = new DrillGenerator(loadCorpus());
+            }
+        }
+        return g;
+    }
+
+    public int corpusSize() {
+        return words.length;
+    }
+
+    /**
+     * A sentence of {@code wordCount} words, capitalised and ending in '.'.
+     *
+     * @param focus keys/bigrams to practise and their relative weights (may be empty: plain random words)
+     * @param rnd   source of randomness (pass a seeded one for repeatable drills)
+     */
+    public String generate(Map<String, Double> focus, int wordCount, Random rnd) {
+        int n = Math.max(1, wordCount);
+        String[] keys = new String[focus == null ? 0 : focus.size()];
+        double[] cumulative = new double[keys.length];
+        double total = 0;
+        if (focus != null) {
+            int i = 0;
+            for (Map.Entry<String, Double> e : focus.entrySet()) {
+                double w = e.getValue() == null ? 0 : e.getValue();
+                if (e.getKey() == null || e.getKey().isEmpty() || !(w > 0)) continue;
+                keys[i] = e.getKey();
+                total += w;
+                cumulative[i++] = total;
+            }
+            keys = Arrays.copyOf(keys, i);
+        }
+
+        StringBuilder sb = new StringBuilder(n * 7);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(' ');
+            if (keys.length > 0 && rnd.nextDouble() < FOCUS_SHARE) {
+                int k = Arrays.binarySearch(cumulative, 0, keys.length, rnd.nextDouble() * total);
+                appendFor(sb, keys[k < 0 ? -k - 1 : k], rnd);
+            } else {
+                sb.append(words[rnd.nextInt(words.length)]);
+            }
+        }
+        sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        char last = sb.charAt(sb.length() - 1);
+        if (Character.isLetterOrDigit(last)) sb.append('.');
+        return sb.toString();
+    }
+
+    /** Append one word (or token) that exercises {@code key}. */
+    private void appendFor(StringBuilder sb, String key, Random rnd) {
+        if (key.length() >= 2) {
+            char a = key.charAt(0), b = key.charAt(1);
+            int[] ids = byBigram.get(bigram(a, b));
+            if (ids != null) {
+                sb.append(words[ids[rnd.nextInt(ids.length)]]);
+                return;
+            }
+            // pairs across a word boundary (or with punctuation) come down to their non-space key
+            key = String.valueOf(a == ' ' ? b : a);
+        }
+        char c = key.charAt(0);
+        char lower = Character.toLowerCase(c);
+        int[] ids = lower < 128 ? byChar[lower] : null;
+        if (ids != null) {
+            String w = words[ids[rnd.nextInt(ids.length)]];
+            if (c != lower) sb.append(Character.toUpperCase(w.charAt(0))).append(w, 1, w.length());
+            else sb.append(w);
+        } else if (c >= '0' && c <= '9') {
+            int len = 2 + rnd.nextInt(3);
+            for (int d = 0; d < len; d++) sb.append(rnd.nextBoolean() ? c : (char) ('0' + rnd.nextInt(10)));
+        } else if (c == ' ' || Character.isISOControl(c)) {
+            sb.append(words[rnd.nextInt(words.length)]);
+        } else {
+            sb.append(words[rnd.nextInt(words.length)]).append(c);
+        }
+    }
+
+    private void buildIndex() {
+        List<List<Integer>> chars = new ArrayList<>(128);
+        for (int i = 0; i < 128; i++) chars.add(null);
+        Map<Integer, List<Integer>> pairs = new HashMap<>();
+        for (int id = 0; id < words.length; id++) {
+            String w = words[id];
+            for (int j = 0; j < w.length(); j++) {
+                char c = w.charAt(j);
+                if (c < 128) addPosting(chars, c, id);
+                if (j > 0) {
+                    List<Integer> l = pairs.computeIfAbsent(bigram(w.charAt(j - 1), c), k -> new ArrayList<>());
+                    if (l.isEmpty() || l.get(l.size() - 1) != id) l.add(id);
+                }
+            }
+        }
+        for (int c = 0; c < 128; c++) {
+            if (chars.get(c) != null) byChar[c] = toArray(chars.get(c));
+        }
+        for (Map.Entry<Integer, List<Integer>> e : pairs.entrySet()) byBigram.put(e.getKey(), toArray(e.getValue()));
+    }
+
+    private static void addPosting(List<List<Integer>> chars, char c, int id) {
+        List<Integer> l = chars.get(c);
+        if (l == null) chars.set(c, l = new ArrayList<>());
+        if (l.isEmpty() || l.get(l.size() - 1) != id) l.add(id);
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        int[] a = new int[ids.size()];
+        for (int i = 0; i < a.length; i++) a[i] = ids.get(i);
+        return a;
+    }
+
+    private static int bigram(char a, char b) {
+        return Character.toLowerCase(a) << 16 | Character.toLowerCase(b);
+    }
+
+    private static List<String> loadCorpus() {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = DrillGenerator.class.getResourceAsStream(CORPUS_RESOURCE)) {
+            if (in == null) throw new IllegalStateException("missing " + CORPUS_RESOURCE);
+            BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            for (String line; (line = r.readLine()) != null; ) lines.add(line);
+        } catch (IOException e) {
+            throw new IllegalStateException("could not read " + CORPUS_RESOURCE, e);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,65 @@
+package com.typinggame.util;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Coalesces UI updates to at most one per frame: any number of {@link #request()} calls between two
+ * animation pulses run the update once, on the next pulse. Used by the game screen so a burst of keystrokes
+ * re-renders its labels once instead of once per key.
+ * The AnimationTimer only runs while an update is pending: request() starts it and the pulse that runs the
+ * update stops it again, so an idle screen doesn't keep JavaFX pulsing.
+ *
+ * FX thread only.
+ */
+public final class FrameScheduler {
+
+    private final Runnable update;
+    private final AnimationTimer timer;
+    private boolean requested;
+    private boolean running;
+    private long requests;
+    private long frames;
+
+    public FrameScheduler(Runnable update) {
+        this.update = update;
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                FrameScheduler.this.stop();   // before the update, which may request the next frame
+                if (!requested) return;
+                requested = false;
+                frames++;
+                try {
+                    update.run();
+                } catch (RuntimeException e) {
+                    System.err.println("[FrameScheduler] update error: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    /** Run the update on the next frame. */
+    public void request() {
+        requested = true;
+        requests++;
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    /** Run a pending update now (e.g. before reading what's on screen). */
+    public void flush() {
+        if (requested) timer.handle(0);
+    }
+
+    /** Stop pulsing (e.g. the view was hidden); a pending update waits for the next request(). */
+    public void stop() {
+        running = false;
+        timer.stop();
+    }
+
+    /** Requests made / frames that actually ran the update. */
+    public long requests() { return requests; }
+    public long frames() { return frames; }
+}
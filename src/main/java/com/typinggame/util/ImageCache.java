@@ -0,0 +1,127 @@
+package com.typinggame.util;
+
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.Objects;
+
+/**
+ * App-wide cache of decoded images, keyed by classpath resource and the size they're displayed at.
+ *
+ * - Images are decoded on JavaFX's background loader thread ({@code backgroundLoading = true}); an
+ *   ImageView shows the image as soon as it's ready, so the FX thread never waits on PNG decoding.
+ * - They are decoded straight to the requested size (aspect ratio kept), so a 185 px badge holds 185 px of
+ *   texture, not the full-resolution source.
+ * - Total decoded size (width x height x 4 bytes) is bounded; the least recently used images go first.
+ * - {@link #stats()} reports entries, bytes, hits, decodes, evictions and failures.
+ */
+public final class ImageCache {
+
+    /** Default bound on decoded pixels: a few full-screen backgrounds plus every badge size in use. */
+    public static final long DEFAULT_MAX_BYTES = 96L * 1024 * 1024;
+
+    /** Weight charged for a natural-size image until it has decoded and its real size is known. */
+    private static final long UNKNOWN_SIZE_BYTES = 4L * 1024 * 1024;
+
+    private static final ImageCache SHARED = new ImageCache(DEFAULT_MAX_BYTES);
+
+    public static ImageCache shared() {
+        return SHARED;
+    }
+
+    /** Snapshot of the cache counters. */
+    public static final class Stats {
+        public final int entries;
+        public final long bytes;
+        public final long maxBytes;
+        public final long hits;
+        public final long decodes;
+        public final long evictions;
+        public final long failures;
+
+        Stats(int entries, long bytes, long maxBytes, long hits, long decodes, long evictions, long failures) {
+            this.entries = entries;
+            this.bytes = bytes;
+            this.maxBytes = maxBytes;
+            this.hits = hits;
+            this.decodes = decodes;
+            this.evictions = evictions;
+            this.failures = failures;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("entries=%d bytes=%.1fMB/%.0fMB hits=%d decodes=%d evictions=%d failures=%d",
+                    entries, bytes / 1048576.0, maxBytes / 1048576.0, hits, decodes, evictions, failures);
+        }
+    }
+
+    private record Key(String resource, int width, int height) {}
+
+    private final BoundedCache<Key, Image> cache;
+    private volatile long failures;
+
+    public ImageCache(long maxBytes) {
+        cache = new BoundedCache<>(maxBytes, ImageCache::bytesOf);
+    }
+
+    /**
+     * The image at {@code resource} (a classpath path with leading "/"), scaled to fit width x height.
+     * Pass 0 for either to keep the source size on that axis. May still be decoding when returned.
+     *
+     * @throws IllegalStateException if the resource doesn't exist
+     */
+    public Image get(String resource, int width, int height) {
+        Objects.requireNonNull(resource, "resource");
+        Key key = new Key(resource, Math.max(0, width), Math.max(0, height));
+        return cache.getOrLoad(key, this::decode);
+    }
+
+    /** The image at its source size. */
+    public Image get(String resource) {
+        return get(resource, 0, 0);
+    }
+
+    /** Start decoding ahead of time (e.g. the next screen's background). */
+    public void preload(String resource, int width, int height) {
+        get(resource, width, height);
+    }
+
+    public Stats stats() {
+        return new Stats(cache.size(), cache.weight(), cache.maxWeight(), cache.hits(), cache.misses(),
+                cache.evictions(), failures);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private Image decode(Key key) {
+        URL url = ImageCache.class.getResource(key.resource());
+        if (url == null) throw new IllegalStateException("Missing resource: " + key.resource());
+        Image image = new Image(url.toExternalForm(), key.width(), key.height(), true, true, true);
+        // Once decoded, charge the real size (or drop the entry if decoding failed)
+        image.progressProperty().addListener((obs, ov, nv) -> {
+            if (nv.doubleValue() >= 1.0 && !image.isError()) cache.reweigh(key);
+        });
+        image.errorProperty().addListener((obs, ov, failed) -> {
+            if (failed) {
+                failures++;
+                cache.remove(key);
+                System.err.println("[ImageCache] decode failed for " + key.resource() + ": " + image.getException());
+            }
+        });
+        return image;
+    }
+
+    /** Decoded size in bytes (32-bit pixels); requested size until decoding has finished. */
+    private static long bytesOf(Image image) {
+        if (image.getProgress() >= 1.0 && image.getWidth() > 0) {
+            return (long) image.getWidth() * (long) image.getHeight() * 4;
+        }
+        double w = image.getRequestedWidth(), h = image.getRequestedHeight();
+        if (w > 0 && h > 0) return (long) (w * h * 4);
+        if (w > 0 || h > 0) return (long) (Math.max(w, h) * Math.max(w, h) * 4);
+        return UNKNOWN_SIZE_BYTES;
+    }
+}
@@ -0,0 +1,112 @@
+package com.typinggame.util;
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds a live line chart without touching it on every keystroke.
+ *
+ * - {@link #add} only writes the sample into a primitive ring buffer ({@link SampleRing}) and marks the
+ *   feed dirty.
+ * - An AnimationTimer pushes the buffers to the chart at most {@link #FRAMES_PER_SECOND} times a second,
+ *   updating the series' existing points in place, i.e. one chart layout per frame however many keys were
+ *   typed in between and no new point objects once the series is full.
+ * - The timer only runs while there is something to push: add() starts it, and it stops after the push.
+ *   {@link #stop()} also stops it when the chart leaves the screen.
+ * - Each series shows at most {@link #MAX_POINTS} points. Long sessions are decimated (bucket means) rather
+ *   than cut off, so the chart shows the whole run (up to {@link #CAPACITY} samples) at a fixed cost.
+ *
+ * FX thread only.
+ */
+public final class LiveChartFeed {
+
+    /** Points drawn per series (the old sliding window was 50 keystrokes). */
+    public static final int MAX_POINTS = 50;
+
+    /** Samples kept per series; older ones drop off. */
+    public static final int CAPACITY = 4096;
+
+    public static final int FRAMES_PER_SECOND = 30;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+
+    private final List<XYChart.Series<Number, Number>> series;
+    private final SampleRing[] rings;
+    private final double[] bufX = new double[MAX_POINTS];
+    private final double[] bufY = new double[MAX_POINTS];
+    private final AnimationTimer timer;
+    private boolean dirty;
+    private boolean running;
+    private long lastPush;
+    private long frames;
+
+    public LiveChartFeed(List<XYChart.Series<Number, Number>> series) {
+        this.series = List.copyOf(series);
+        rings = new SampleRing[this.series.size()];
+        for (int i = 0; i < rings.length; i++) rings[i] = new SampleRing(CAPACITY);
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (!dirty) {
+                    LiveChartFeed.this.stop();
+                } else if (now - lastPush >= FRAME_NANOS) {
+                    lastPush = now;
+                    flush();
+                    LiveChartFeed.this.stop();
+                }
+            }
+        };
+    }
+
+    /** Record a sample for series {@code index} (in constructor order); drawn on the next frame. */
+    public void add(int index, double x, double y) {
+        rings[index].add(x, y);
+        dirty = true;
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    /** Stop pulsing (e.g. the chart was hidden); buffered samples are pushed after the next add(). */
+    public void stop() {
+        running = false;
+        timer.stop();
+    }
+
+    /** Drop all samples and empty the series straight away (new round). */
+    public void clear() {
+        for (SampleRing ring : rings) ring.clear();
+        for (XYChart.Series<Number, Number> s : series) s.getData().clear();
+        dirty = false;
+    }
+
+    /** Push the buffered samples to the chart now. */
+    public void flush() {
+        dirty = false;
+        frames++;
+        for (int i = 0; i < rings.length; i++) {
+            int n = rings[i].decimate(MAX_POINTS, bufX, bufY);
+            ObservableList<XYChart.Data<Number, Number>> points = series.get(i).getData();
+            if (points.size() > n) points.remove(n, points.size());
+            for (int p = 0; p < points.size(); p++) {
+                XYChart.Data<Number, Number> d = points.get(p);
+                d.setXValue(bufX[p]);
+                d.setYValue(bufY[p]);
+            }
+            if (n > points.size()) {   // still filling up: add the new tail in one change
+                List<XYChart.Data<Number, Number>> tail = new ArrayList<>(n - points.size());
+                for (int p = points.size(); p < n; p++) tail.add(new XYChart.Data<>(bufX[p], bufY[p]));
+                points.addAll(tail);
+            }
+        }
+    }
+
+    /** Frames actually pushed to the chart so far. */
+    public long frames() {
+        return frames;
+    }
+}
@@ -1,17 +1,22 @@
 package com.typinggame.util;
 
 import javafx.scene.image.Image;
-import java.net.URL;
 
 public class RankLoader {
     private RankLoader() {}
 
+    /** Size badges are decoded at when the caller doesn't say (the largest one shown, on the profile). */
+    public static final int DEFAULT_BADGE_SIZE = 250;
+
     public static Image loadIcon(Rank rankBadge) {
-        String resourcePath = rankBadge.resourcePath;
-        URL url = Rank.class.getResource(resourcePath); // leading "/" required
-        if (url == null) {
-            throw new IllegalStateException("Missing resource: " + resourcePath);
-        }
-        return new Image(url.toExternalForm());
+        return loadIcon(rankBadge, DEFAULT_BADGE_SIZE);
+    }
+
+    /**
+     * The badge for a rank, decoded to fit {@code size} x {@code size}. Shared through {@link ImageCache},
+     * so repeated calls (e.g. one per leaderboard row) don't decode the PNG again.
+     */
+    public static Image loadIcon(Rank rankBadge, int size) {
+        return ImageCache.shared().get(rankBadge.resourcePath, size, size); // leading "/" required
     }
-}
\ No newline at end of file
+}
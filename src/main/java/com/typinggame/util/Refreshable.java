@@ -0,0 +1,12 @@
+package com.typinggame.util;
+
+/**
+ * Implemented by controllers whose view {@link SceneCache} keeps and reuses.
+ * FXML runs {@code initialize()} only once per loaded view, so anything that depends on who is logged in
+ * or what they picked on the previous screen has to be re-read here.
+ */
+public interface Refreshable {
+
+    /** Called on the FX thread each time the cached view is about to be shown again. */
+    void refresh();
+}
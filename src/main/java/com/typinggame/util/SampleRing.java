@@ -0,0 +1,85 @@
+package com.typinggame.util;
+
+/**
+ * Fixed-size ring of (x, y) samples in primitive arrays: adding never allocates, and once full the oldest
+ * sample is overwritten. {@link #decimate} averages the retained samples into at most N points for drawing.
+ * Not thread-safe (LiveChartFeed uses it from the FX thread only; the input benchmark from its own thread).
+ */
+public final class SampleRing {
+
+    private final double[] xs;
+    private final double[] ys;
+    private long total; // samples ever added; the next one goes to total % capacity
+
+    public SampleRing(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        xs = new double[capacity];
+        ys = new double[capacity];
+    }
+
+    public void add(double x, double y) {
+        int i = (int) (total % xs.length);
+        xs[i] = x;
+        ys[i] = y;
+        total++;
+    }
+
+    /** Samples currently held (at most the capacity). */
+    public int size() {
+        return (int) Math.min(total, xs.length);
+    }
+
+    /** Samples added since the last clear, including overwritten ones. */
+    public long total() {
+        return total;
+    }
+
+    public int capacity() {
+        return xs.length;
+    }
+
+    public void clear() {
+        total = 0;
+    }
+
+    /**
+     * Average the held samples into buckets of {@code stride} consecutive samples and write the bucket means
+     * to outX/outY (oldest first). The stride is the smallest power of two that gives at most
+     * {@code maxPoints} buckets. Buckets line up with absolute sample numbers, so earlier points don't shift
+     * as new samples arrive; only the newest bucket changes until it fills.
+     *
+     * @return the number of points written
+     */
+    public int decimate(int maxPoints, double[] outX, double[] outY) {
+        if (maxPoints <= 0) throw new IllegalArgumentException("maxPoints must be positive");
+        int n = size();
+        if (n == 0) return 0;
+        long first = total - n;
+        long last = total - 1;
+
+        long stride = 1;
+        while (last / stride - first / stride + 1 > maxPoints) stride <<= 1;
+
+        int points = 0;
+        long bucket = first / stride;
+        double sumX = 0, sumY = 0;
+        int inBucket = 0;
+        for (long s = first; s <= last; s++) {
+            if (s / stride != bucket) {
+                outX[points] = sumX / inBucket;
+                outY[points] = sumY / inBucket;
+                points++;
+                bucket = s / stride;
+                sumX = sumY = 0;
+                inBucket = 0;
+            }
+            int i = (int) (s % xs.length);
+            sumX += xs[i];
+            sumY += ys[i];
+            inBucket++;
+        }
+        outX[points] = sumX / inBucket;
+        outY[points] = sumY / inBucket;
+        return points + 1;
+    }
+}
@@ -0,0 +1,193 @@
+package com.typinggame.util;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps loaded FXML views (root node + controller) so menu navigation doesn't re-parse the FXML,
+ * re-create the controller and re-decode its images every time.
+ *
+ * - Only the views in the cacheable set are kept; anything else is loaded fresh on each visit, as before.
+ * - {@link #prewarm()} loads the common views on a background thread (called once the user has logged in),
+ *   so the first visit is a cache hit too. JavaFX allows building a scene graph off the FX thread as long
+ *   as it isn't attached to a showing window yet.
+ * - A reused view's controller gets {@link Refreshable#refresh()} before it's shown again.
+ * - Load and show times are kept per view ({@link #stats()}) and logged as "[SceneCache] ...".
+ */
+public final class SceneCache {
+
+    /** Views visited on every play-through: main menu → play → level → game, and the leaderboard. */
+    public static final List<String> COMMON_VIEWS = List.of(
+            "/MainMenuView.fxml",
+            "/PlayMenuView.fxml",
+            "/DifficultySelectView.fxml",
+            "/GameView.fxml",
+            "/LeaderboardView.fxml");
+
+    private static final SceneCache SHARED = new SceneCache(COMMON_VIEWS);
+
+    /** The cache used by Controller.displayScene and SceneManager. */
+    public static SceneCache shared() {
+        return SHARED;
+    }
+
+    /** A loaded view. */
+    public static final class View {
+        public final Parent root;
+        public final Object controller;
+
+        View(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
+    /** Timings for one view. */
+    public static final class Stat {
+        public final String fxml;
+        public final int loads;             // FXML parses (background or on demand)
+        public final int hits;              // visits served from the cache
+        public final double lastLoadMillis; // parse + controller construction
+        public final double avgHitMillis;   // cache lookup + refresh()
+
+        Stat(String fxml, int loads, int hits, double lastLoadMillis, double avgHitMillis) {
+            this.fxml = fxml;
+            this.loads = loads;
+            this.hits = hits;
+            this.lastLoadMillis = lastLoadMillis;
+            this.avgHitMillis = avgHitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s loads=%d last=%.1fms hits=%d avgHit=%.2fms",
+                    fxml, loads, lastLoadMillis, hits, avgHitMillis);
+        }
+    }
+
+    private final Set<String> cacheable;
+    private final Map<String, CompletableFuture<View>> views = new ConcurrentHashMap<>();
+    private final Map<String, long[]> timings = Collections.synchronizedMap(new LinkedHashMap<>()); // {loads, lastLoadNanos, hits, hitNanos}
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "scene-prewarm");
+        t.setDaemon(true);
+        return t;
+    });
+
+    SceneCache(Collection<String> cacheable) {
+        this.cacheable = Set.copyOf(cacheable);
+    }
+
+    /** Load all {@link #COMMON_VIEWS} in the background (already cached ones are skipped). */
+    public void prewarm() {
+        prewarm(cacheable);
+    }
+
+    /** Load the given cacheable views in the background; returns once they are queued. */
+    public void prewarm(Collection<String> fxmlFiles) {
+        for (String fxml : fxmlFiles) {
+            if (!cacheable.contains(fxml)) continue;
+            views.computeIfAbsent(fxml, f -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return load(f, "background");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, loader));
+        }
+    }
+
+    /**
+     * The root node for {@code fxml}, ready to attach (FX thread only). Cached views are refreshed first;
+     * a view being prewarmed is waited for rather than loaded twice.
+     */
+    public Parent acquire(String fxml) throws IOException {
+        if (!cacheable.contains(fxml)) return load(fxml, "uncached").root;
+
+        CompletableFuture<View> pending = views.get(fxml);
+        if (pending == null) {
+            View v = load(fxml, "on demand");
+            views.put(fxml, CompletableFuture.completedFuture(v));
+            return v.root; // just initialised: nothing to refresh
+        }
+
+        long start = System.nanoTime();
+        View v;
+        try {
+            v = pending.join();
+        } catch (CompletionException e) {
+            System.err.println("[SceneCache] background load of " + fxml + " failed, loading now: " + e.getCause());
+            views.remove(fxml);
+            return acquire(fxml);
+        }
+        if (v.controller instanceof Refreshable r) r.refresh();
+        long[] t = timings(fxml);
+        synchronized (t) {
+            t[2]++;
+            t[3] += System.nanoTime() - start;
+        }
+        return v.root;
+    }
+
+    /** Drop a cached view (e.g. after its FXML or stylesheet changed); the next visit reloads it. */
+    public void invalidate(String fxml) {
+        views.remove(fxml);
+    }
+
+    /** Drop every cached view. */
+    public void clear() {
+        views.clear();
+    }
+
+    /** Per-view timings, in first-load order. */
+    public List<Stat> stats() {
+        List<Stat> out = new ArrayList<>();
+        Map<String, long[]> copy;
+        synchronized (timings) {
+            copy = new LinkedHashMap<>(timings);
+        }
+        for (Map.Entry<String, long[]> e : copy.entrySet()) {
+            long[] t = e.getValue();
+            synchronized (t) {
+                out.add(new Stat(e.getKey(), (int) t[0], (int) t[2], t[1] / 1e6, t[2] == 0 ? 0 : t[3] / 1e6 / t[2]));
+            }
+        }
+        return out;
+    }
+
+    private View load(String fxml, String how) throws IOException {
+        URL location = SceneCache.class.getResource(fxml);
+        if (location == null) throw new IOException("FXML file not found: " + fxml);
+        long start = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(location);
+        Parent root = loader.load();
+        long nanos = System.nanoTime() - start;
+        long[] t = timings(fxml);
+        synchronized (t) {
+            t[0]++;
+            t[1] = nanos;
+        }
+        System.out.printf("[SceneCache] %s loaded in %.1f ms (%s)%n", fxml, nanos / 1e6, how);
+        return new View(root, loader.getController());
+    }
+
+    private long[] timings(String fxml) {
+        return timings.computeIfAbsent(fxml, f -> new long[4]);
+    }
+}
@@ -1,8 +1,9 @@
 package com.typinggame.util;
 
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Group;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -23,14 +24,17 @@ public class SceneManager {
      */
     public static boolean switchScene(Stage stage, String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(SceneManager.class.getResource(fxmlPath));
-            Parent root = loader.load();
+            Parent root = SceneCache.shared().acquire(fxmlPath);
 
             if (root == null) {
                 System.err.println("SceneManager error: FXML not found at " + fxmlPath);
                 return false;
             }
 
+            // A cached view may still be attached to the previous scene
+            if (root.getParent() instanceof Pane parent) parent.getChildren().remove(root);
+            if (root.getScene() != null && root.getScene().getRoot() == root) root.getScene().setRoot(new Group());
+
             stage.setScene(new Scene(root));
             stage.show();
             return true;
@@ -42,5 +46,5 @@ public class SceneManager {
         }
     }
 
-    // TODO: Add fade transitions or scene caching if needed
+    // TODO: Add fade transitions if needed
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.typinggame.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A large sentence file (UTF-8, one sentence per line) served without loading it onto the heap.
+ *
+ * - The corpus is memory-mapped read-only; the OS pages in only the sentences actually used.
+ * - Each sentence is scored once (length, symbol density, capital ratio) and its start offset filed under
+ *   a {@link Difficulty}. The offsets are written to a sidecar {@code <corpus>.idx} file, which later opens
+ *   just map, so startup doesn't scan the corpus again (the sidecar is rebuilt if the corpus changes).
+ * - {@link #sentence(Difficulty, Random)} is then one random offset lookup plus decoding that one line.
+ *
+ * Corpus and index must each fit in one mapping (2 GB). Instances are immutable and thread-safe.
+ */
+public class SentenceCorpus {
+
+    public enum Difficulty { EASY, MEDIUM, HARD }
+
+    /** Lines longer than this (bytes) aren't drill material and are left out of the index. */
+    public static final int MAX_SENTENCE_BYTES = 400;
+
+    static final int INDEX_MAGIC = 0x53434958;   // "SCIX"
+    static final int INDEX_VERSION = 1;
+    /** magic, version, corpus size, corpus mtime, one count per difficulty (all as longs). */
+    private static final int HEADER_LONGS = 4 + Difficulty.values().length;
+
+    private final Path file;
+    private final ByteBuffer corpus;
+    private final LongBuffer offsets;            // all buckets back to back
+    private final int[] bucketStart = new int[Difficulty.values().length + 1];
+    private final boolean fromIndexFile;
+
+    private SentenceCorpus(Path file, ByteBuffer corpus, LongBuffer offsets, long[] counts, boolean fromIndexFile) {
+        this.file = file;
+        this.corpus = corpus;
+        this.offsets = offsets;
+        this.fromIndexFile = fromIndexFile;
+        for (int d = 0; d < counts.length; d++) bucketStart[d + 1] = bucketStart[d] + (int) counts[d];
+    }
+
+    /**
+     * Map {@code file} and its index, building (and saving) the index if it's missing or stale.
+     * A sidecar that can't be written (read-only directory) just means the index stays in memory.
+     */
+    public static SentenceCorpus open(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size > Integer.MAX_VALUE) throw new IOException("corpus larger than 2 GB: " + file);
+        long mtime = Files.getLastModifiedTime(file).toMillis();
+        ByteBuffer corpus;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            corpus = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        Path idx = indexFile(file);
+        SentenceCorpus mapped = mapIndex(file, corpus, idx, size, mtime);
+        if (mapped != null) return mapped;
+
+        long[][] buckets = buildIndex(corpus);
+        long[] counts = new long[buckets.length];
+        long[] all = new long[0];
+        for (int d = 0; d < buckets.length; d++) {
+            counts[d] = buckets[d].length;
+            int from = all.length;
+            all = Arrays.copyOf(all, from + buckets[d].length);
+            System.arraycopy(buckets[d], 0, all, from, buckets[d].length);
+        }
+        try {
+            writeIndex(idx, size, mtime, counts, all);
+        } catch (IOException e) {
+            System.err.println("[SentenceCorpus] index not saved: " + e.getMessage());
+        }
+        return new SentenceCorpus(file, corpus, LongBuffer.wrap(all), counts, false);
+    }
+
+    /** Sidecar index path for a corpus file. */
+    public static Path indexFile(Path corpus) {
+        return corpus.resolveSibling(corpus.getFileName() + ".idx");
+    }
+
+    /** A random sentence of the given difficulty, or null if that bucket is empty. */
+    public String sentence(Difficulty difficulty, Random rnd) {
+        int from = bucketStart[difficulty.ordinal()];
+        int n = bucketStart[difficulty.ordinal() + 1] - from;
+        return n == 0 ? null : sentenceAt(offsets.get(from + rnd.nextInt(n)));
+    }
+
+    /** A random sentence of any difficulty, or null if the corpus has none. */
+    public String sentence(Random rnd) {
+        int n = size();
+        return n == 0 ? null : sentenceAt(offsets.get(rnd.nextInt(n)));
+    }
+
+    /** Indexed sentences in a bucket. */
+    public int count(Difficulty difficulty) {
+        return bucketStart[difficulty.ordinal() + 1] - bucketStart[difficulty.ordinal()];
+    }
+
+    /** Indexed sentences in total. */
+    public int size() {
+        return bucketStart[bucketStart.length - 1];
+    }
+
+    /** True if the index came from the sidecar file rather than a scan of the corpus. */
+    public boolean isFromIndexFile() {
+        return fromIndexFile;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Difficulty of one sentence. Long lines, punctuation/digits/non-ASCII and capitals all make a line
+     * harder to type; the score weights them 0.4 / 0.4 / 0.2.
+     */
+    public static Difficulty classify(int chars, int symbols, int letters, int capitals) {
+        double length = Math.min(1.0, chars / 120.0);
+        double symbolDensity = Math.min(1.0, 5.0 * symbols / Math.max(1, chars));
+        double capitalRatio = Math.min(1.0, 4.0 * capitals / Math.max(1, letters));
+        double score = 0.4 * length + 0.4 * symbolDensity + 0.2 * capitalRatio;
+        if (score < 0.3) return Difficulty.EASY;
+        if (score < 0.5) return Difficulty.MEDIUM;
+        return Difficulty.HARD;
+    }
+
+    private String sentenceAt(long offset) {
+        int start = (int) offset;
+        int end = start;
+        int limit = Math.min(corpus.limit(), start + MAX_SENTENCE_BYTES + 1);
+        while (end < limit && corpus.get(end) != '\n') end++;
+        if (end > start && corpus.get(end - 1) == '\r') end--;
+        byte[] bytes = new byte[end - start];
+        corpus.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** One pass over the corpus: score every line and collect its offset in its bucket. */
+    private static long[][] buildIndex(ByteBuffer corpus) {
+        Difficulty[] all = Difficulty.values();
+        long[][] buckets = new long[all.length][1024];
+        int[] counts = new int[all.length];
+        int limit = corpus.limit();
+        byte[] chunk = new byte[64 * 1024];        // bulk copies: far cheaper than get(i) per byte
+        int start = 0;
+        int chars = 0, symbols = 0, letters = 0, capitals = 0, nonBlank = 0;
+        byte prev = 0;
+        for (int base = 0; base <= limit; base += chunk.length) {
+            int n = Math.min(chunk.length, limit - base);
+            corpus.get(base, chunk, 0, n);
+            int end = (base + n == limit) ? n + 1 : n;   // one extra step past the end closes the last line
+            for (int j = 0; j < end; j++) {
+                byte b = j < n ? chunk[j] : (byte) '\n';
+                if (b == '\n') {
+                    int i = base + j;
+                    int len = i - start - (prev == '\r' && i > start ? 1 : 0);
+                    if (nonBlank > 0 && len <= MAX_SENTENCE_BYTES) {
+                        int d = classify(chars, symbols, letters, capitals).ordinal();
+                        if (counts[d] == buckets[d].length) buckets[d] = Arrays.copyOf(buckets[d], counts[d] * 2);
+                        buckets[d][counts[d]++] = start;
+                    }
+                    start = i + 1;
+                    chars = symbols = letters = capitals = nonBlank = 0;
+                } else if ((b & 0xC0) != 0x80) {       // skip UTF-8 continuation bytes: count chars, not bytes
+                    chars++;
+                    if (b >= 'a' && b <= 'z') letters++;
+                    else if (b >= 'A' && b <= 'Z') { letters++; capitals++; }
+                    else if (b != ' ' && b != '\r' && b != '\t') symbols++;
+                    if (b != ' ' && b != '\r' && b != '\t') nonBlank++;
+                }
+                prev = b;
+            }
+            if (base + n == limit) break;
+        }
+        for (int d = 0; d < all.length; d++) buckets[d] = Arrays.copyOf(buckets[d], counts[d]);
+        return buckets;
+    }
+
+    private static void writeIndex(Path idx, long size, long mtime, long[] counts, long[] offsets) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8 * (HEADER_LONGS + offsets.length)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putLong(INDEX_MAGIC).putLong(INDEX_VERSION).putLong(size).putLong(mtime);
+        for (long c : counts) buf.putLong(c);
+        buf.asLongBuffer().put(offsets);
+        buf.clear();
+        Path tmp = idx.resolveSibling(idx.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+        Files.move(tmp, idx, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** The sidecar index if it exists and matches this corpus; null means rebuild. */
+    private static SentenceCorpus mapIndex(Path file, ByteBuffer corpus, Path idx, long size, long mtime) {
+        if (!Files.isRegularFile(idx)) return null;
+        try (FileChannel ch = FileChannel.open(idx, StandardOpenOption.READ)) {
+            long bytes = ch.size();
+            if (bytes < 8L * HEADER_LONGS || bytes > Integer.MAX_VALUE || bytes % 8 != 0) return null;
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            LongBuffer longs = map.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            if (longs.get(0) != INDEX_MAGIC || longs.get(1) != INDEX_VERSION
+                    || longs.get(2) != size || longs.get(3) != mtime) return null;
+            long[] counts = new long[Difficulty.values().length];
+            long total = 0;
+            for (int d = 0; d < counts.length; d++) total += counts[d] = longs.get(4 + d);
+            if (total != longs.capacity() - HEADER_LONGS) return null;
+            LongBuffer offsets = longs.position(HEADER_LONGS).slice();
+            return new SentenceCorpus(file, corpus, offsets, counts, true);
+        } catch (IOException e) {
+            System.err.println("[SentenceCorpus] index unreadable, rebuilding: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,21 +1,105 @@
 package com.typinggame.util;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * SentenceProvider is a utility class that supplies target sentences
  * for the typing game. It currently returns a single hardcoded sentence,
  * but it's designed to be easily expandable to support multiple sentences,
  * difficulty levels, or even external data sources. [Ben M - Aug 16 2025]
+ *
+ * If a sentence file ({@link #DEFAULT_CORPUS} in the working directory, or one set with
+ * {@link #useCorpus(Path)}) is present, sentences come from it via {@link SentenceCorpus}
+ * (memory-mapped, bucketed by difficulty); otherwise the fixed pangram is used.
  */
 public class SentenceProvider {
 
+    /** Sentence file looked for in the working directory: UTF-8, one sentence per line. */
+    public static final String DEFAULT_CORPUS = "sentences.txt";
+
+    private static final String PANGRAM = "The quick brown fox jumps over the lazy dog.";
+
+    private static Path corpusPath = Paths.get(DEFAULT_CORPUS);   // guarded by the class lock
+    private static int generation;                                  // bumped by useCorpus; guarded
+    private static boolean loadStarted;                             // guarded
+    private static volatile SentenceCorpus corpus;                  // published once opened
+
     /**
      * Returns a sentence for the typing challenge.
-     * Currently, returns a fixed pangram (contains every letter of the alphabet).
+     * Currently, returns a fixed pangram (contains every letter of the alphabet),
+     * or a random corpus sentence if a corpus is available.
      *
      * @return A sentence for the user to type. [Ben M - Aug 16 2025]
      */
     public static String getSentence() {
-        return "The quick brown fox jumps over the lazy dog.";
+        SentenceCorpus c = corpus();
+        String s = (c != null) ? c.sentence(ThreadLocalRandom.current()) : null;
+        return (s != null) ? s : PANGRAM;
+    }
+
+    /**
+     * Returns a random corpus sentence of the given difficulty (the pangram if there is no corpus
+     * or no sentence of that difficulty).
+     */
+    public static String getSentence(SentenceCorpus.Difficulty difficulty) {
+        SentenceCorpus c = corpus();
+        String s = (c != null) ? c.sentence(difficulty, ThreadLocalRandom.current()) : null;
+        return (s != null) ? s : PANGRAM;
+    }
+
+    /** Sentence difficulty for a game level: 1-3 easy, 4-7 medium, 8 and up hard. */
+    public static SentenceCorpus.Difficulty difficultyForLevel(int level) {
+        if (level <= 3) return SentenceCorpus.Difficulty.EASY;
+        if (level <= 7) return SentenceCorpus.Difficulty.MEDIUM;
+        return SentenceCorpus.Difficulty.HARD;
+    }
+
+    /** Use another sentence file (null: back to the pangram only). Opened on next use. */
+    public static synchronized void useCorpus(Path file) {
+        corpusPath = file;
+        generation++;          // a load still running for the old file won't publish
+        loadStarted = false;
+        corpus = null;
+    }
+
+    /**
+     * Map the corpus now rather than on the first drill (e.g. from app startup).
+     * The first caller opens it on its own thread, outside any lock (a cold index build can take seconds);
+     * callers that arrive while that is running get null straight away, so getSentence() falls back to the
+     * pangram instead of waiting.
+     * @return the corpus, or null if there is none (or it is still being opened)
+     */
+    public static SentenceCorpus corpus() {
+        SentenceCorpus c = corpus;
+        if (c != null) return c;
+
+        Path path;
+        int gen;
+        synchronized (SentenceProvider.class) {
+            if (loadStarted) return corpus;   // opened (maybe none) or being opened by another thread
+            loadStarted = true;
+            path = corpusPath;
+            gen = generation;
+        }
+
+        SentenceCorpus opened = null;
+        if (path != null && Files.isRegularFile(path)) {
+            try {
+                long t0 = System.nanoTime();
+                opened = SentenceCorpus.open(path);
+                System.out.printf("[SentenceProvider] %d sentences from %s in %.1f ms%n",
+                        opened.size(), path, (System.nanoTime() - t0) / 1e6);
+            } catch (Exception e) {
+                System.err.println("[SentenceProvider] corpus load error: " + e.getMessage());
+            }
+        }
+        synchronized (SentenceProvider.class) {
+            if (gen == generation) corpus = opened;
+            return corpus;
+        }
     }
 
 
@@ -24,14 +108,6 @@ public class SentenceProvider {
     // API Integration:
     //    - Fetch sentences from an online source or REST API.
     //    - Could support difficulty levels, categories, or daily challenges.
-    //
-    // Difficulty Modes:
-    //    - Organize sentences by difficulty (easy, medium, hard).
-    //    - Add a method like getSentence(String difficulty) to support this.
-    //
-    // Load from External File:
-    //    - Read sentences from a text file (e.g. sentences.txt).
-    //    - Useful for large sentence pools or user-generated content.
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,237 @@
+package com.typinggame.util;
+
+import javafx.scene.media.AudioClip;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Key feedback sounds, played off the input path.
+ *
+ * - The clips in /sounds are decoded once (AudioClip keeps them in memory) and shared by every game screen.
+ * - The key handler only records the event ({@link #keyFeedback(boolean)}: a few field writes under an
+ *   uncontended lock) and wakes the mixer thread, which does the actual play() call.
+ * - Bursts are coalesced: at most one sound per {@link #MIN_INTERVAL_NANOS}; events that arrive in between
+ *   merge into the next sound, and a mistake wins over correct keys so errors are always heard.
+ * - At most {@link #MAX_VOICES} sounds overlap (a sound counts as a voice for {@link #VOICE_NANOS}); past
+ *   that, or if the event is already older than {@link #MAX_LATENCY_NANOS}, it is dropped rather than
+ *   played late.
+ * - Key-to-play latency is measured for every sound played ({@link #stats()}).
+ * - {@link #setMuted(boolean)} follows the user's sound setting.
+ */
+public final class SoundEngine {
+
+    /** Something that can be played; an AudioClip in the app, a counter in tests. */
+    interface Voice {
+        void play();
+    }
+
+    static final int MAX_VOICES = 4;
+    static final long VOICE_NANOS = 150_000_000L;
+    static final long MIN_INTERVAL_NANOS = 30_000_000L;
+    static final long MAX_LATENCY_NANOS = 100_000_000L;
+
+    private static final String[] CORRECT_SOUNDS = {"/sounds/correct1.mp3", "/sounds/correct2.mp3", "/sounds/correct3.mp3"};
+    private static final String INCORRECT_SOUND = "/sounds/incorrect.mp3";
+
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private static volatile SoundEngine shared;
+
+    /** The app-wide engine (clips decoded and mixer thread started on first use). */
+    public static SoundEngine shared() {
+        SoundEngine e = shared;
+        if (e == null) {
+            synchronized (SoundEngine.class) {
+                e = shared;
+                if (e == null) {
+                    Voice[] correct = new Voice[CORRECT_SOUNDS.length];
+                    for (int i = 0; i < correct.length; i++) correct[i] = clip(CORRECT_SOUNDS[i]);
+                    e = new SoundEngine(correct, clip(INCORRECT_SOUND));
+                    e.start();
+                    shared = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /** The shared engine if something has used it, else null (so logging at exit doesn't start audio). */
+    public static SoundEngine sharedIfStarted() {
+        return shared;
+    }
+
+    /** Snapshot of the counters; latencies are over the last {@value #LATENCY_SAMPLES} sounds played. */
+    public static final class Stats {
+        public final long events;
+        public final long played;
+        public final long coalesced;
+        public final long dropped;
+        public final double p50Millis;
+        public final double p99Millis;
+        public final double maxMillis;
+
+        Stats(long events, long played, long coalesced, long dropped, double p50Millis, double p99Millis, double maxMillis) {
+            this.events = events;
+            this.played = played;
+            this.coalesced = coalesced;
+            this.dropped = dropped;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("events=%d played=%d coalesced=%d dropped=%d latency p50=%.2fms p99=%.2fms max=%.2fms",
+                    events, played, coalesced, dropped, p50Millis, p99Millis, maxMillis);
+        }
+    }
+
+    private final Voice[] correct;
+    private final Voice incorrect;
+    private volatile boolean muted;
+    private volatile Thread mixer;
+
+    // pending burst (guarded by this)
+    private int pendingCorrect;
+    private int pendingErrors;
+    private long firstPendingNanos;
+
+    // mixer state (mixer thread / pump callers only)
+    private final long[] voiceStarts = new long[MAX_VOICES];
+    private long lastPlayNanos = Long.MIN_VALUE / 2;
+    private int nextCorrect;
+
+    // counters (guarded by this)
+    private long events, played, coalesced, dropped;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private long maxLatency;
+
+    SoundEngine(Voice[] correct, Voice incorrect) {
+        this.correct = correct;
+        this.incorrect = incorrect;
+        Arrays.fill(voiceStarts, Long.MIN_VALUE / 2);
+    }
+
+    /** Called from the key handler: queue feedback for one keystroke. Never blocks on audio. */
+    public void keyFeedback(boolean isCorrect) {
+        if (muted) return;
+        post(isCorrect, System.nanoTime());
+        Thread t = mixer;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    public void setMuted(boolean muted) {
+        this.muted = muted;
+        if (muted) {
+            synchronized (this) {
+                pendingCorrect = pendingErrors = 0;
+            }
+        }
+    }
+
+    public boolean isMuted() {
+        return muted;
+    }
+
+    public synchronized Stats stats() {
+        long[] sorted = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_SAMPLES));
+        Arrays.sort(sorted);
+        return new Stats(events, played, coalesced, dropped,
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, maxLatency / 1e6);
+    }
+
+    synchronized void post(boolean isCorrect, long now) {
+        if (pendingCorrect + pendingErrors == 0) firstPendingNanos = now;
+        if (isCorrect) pendingCorrect++;
+        else pendingErrors++;
+        events++;
+    }
+
+    /**
+     * Play the pending burst if allowed at {@code now}.
+     * @return nanos until it's worth calling again, or -1 if nothing is pending
+     */
+    long pump(long now) {
+        long entered = System.nanoTime();
+        int correctCount, errorCount;
+        long first;
+        synchronized (this) {
+            if (pendingCorrect + pendingErrors == 0) return -1;
+            long wait = lastPlayNanos + MIN_INTERVAL_NANOS - now;
+            if (wait > 0) return wait;                      // rate limit: let the burst keep coalescing
+            correctCount = pendingCorrect;
+            errorCount = pendingErrors;
+            first = firstPendingNanos;
+            pendingCorrect = pendingErrors = 0;
+        }
+
+        int burst = correctCount + errorCount;
+        int voice = freeVoice(now);
+        if (voice < 0 || now - first > MAX_LATENCY_NANOS) {
+            synchronized (this) {
+                dropped += burst;
+            }
+            return -1;
+        }
+
+        Voice v = errorCount > 0 ? incorrect : correct[nextCorrect++ % correct.length];
+        try {
+            v.play();
+        } catch (RuntimeException e) {
+            System.err.println("[SoundEngine] play error: " + e.getMessage());
+        }
+        voiceStarts[voice] = now;
+        lastPlayNanos = now;
+
+        long latency = Math.max(0, now + (System.nanoTime() - entered) - first);
+        synchronized (this) {
+            played++;
+            coalesced += burst - 1;
+            latencies[latencyCount++ % LATENCY_SAMPLES] = latency;
+            maxLatency = Math.max(maxLatency, latency);
+        }
+        return -1;
+    }
+
+    private int freeVoice(long now) {
+        for (int i = 0; i < voiceStarts.length; i++) {
+            if (now - voiceStarts[i] >= VOICE_NANOS) return i;
+        }
+        return -1;
+    }
+
+    private void start() {
+        Thread t = new Thread(() -> {
+            while (true) {
+                long wait = pump(System.nanoTime());
+                if (wait < 0) LockSupport.park(this);
+                else LockSupport.parkNanos(this, wait);
+            }
+        }, "sound-mixer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MAX_PRIORITY);
+        mixer = t;
+        t.start();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static Voice clip(String resource) {
+        try {
+            URL url = SoundEngine.class.getResource(resource);
+            if (url == null) throw new IllegalStateException("missing " + resource);
+            AudioClip clip = new AudioClip(url.toExternalForm());
+            return clip::play;
+        } catch (Exception e) {
+            System.err.println("[SoundEngine] could not load " + resource + ": " + e.getMessage());
+            return () -> {};
+        }
+    }
+}
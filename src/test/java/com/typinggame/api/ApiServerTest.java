@@ -0,0 +1,107 @@
+package com.typinggame.api;
+
+import com.typinggame.data.Database;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.*;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ApiServer on its own executor: requests are timed, and past the in-flight limit they are shed with 503.
+ */
+class ApiServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ApiServer server;
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) server.stop();
+    }
+
+    @Test
+    void listsDrills_andRecordsMetrics() throws Exception {
+        server = new ApiServer();
+        server.start(0, ApiServerConfig.defaults());
+
+        HttpResponse<String> resp = get("/api/drills");
+        assertEquals(200, resp.statusCode());
+        assertTrue(resp.body().startsWith("[{\"id\":"));
+
+        ApiServer.Stats stats = awaitRequests(1);   // timing is recorded just after the response is written
+        assertEquals(1, stats.requests);
+        assertEquals(0, stats.shed);
+        assertTrue(stats.p99Micros >= stats.p50Micros);
+        assertTrue(get("/api/metrics").body().contains("\"requests\":1"));
+    }
+
+    @Test
+    void overLimit_isShedWith503() throws Exception {
+        server = new ApiServer();
+        server.start(0, ApiServerConfig.defaults().setMaxInFlight(1));
+        server.inFlight.acquire();   // stand-in for a request that is still running
+
+        HttpResponse<String> resp = get("/api/drills");
+        assertEquals(503, resp.statusCode());
+        assertEquals("1", resp.headers().firstValue("Retry-After").orElse(null));
+        assertEquals(1, server.stats().shed);
+
+        server.inFlight.release();
+        assertEquals(200, get("/api/drills").statusCode());
+    }
+
+    @Test
+    void fixedPool_shedsOnceThreadsAndQueueAreFull() throws Exception {
+        server = new ApiServer();
+        server.start(0, ApiServerConfig.defaults().setExecutor(ApiServerConfig.Executor.FIXED)
+                .setThreads(1).setMaxInFlight(2));
+        CountDownLatch release = new CountDownLatch(1);
+        server.executor.execute(() -> {             // keeps the only thread busy
+            try { release.await(); } catch (InterruptedException ignore) {}
+        });
+        server.executor.execute(() -> {});          // fills the one queue slot
+
+        HttpResponse<String> resp = get("/api/drills");
+        assertEquals(503, resp.statusCode());
+        assertEquals(1, server.stats().shed);
+
+        release.countDown();
+        assertEquals(200, get("/api/drills").statusCode());
+    }
+
+    @Test
+    void histogramBuckets_boundTheirValues() {
+        for (long v : new long[]{0, 7, 8, 9, 15, 16, 17, 1_000, 123_456, 10_000_000_000L}) {
+            long upper = ApiMetrics.upperBound(ApiMetrics.bucket(v));
+            assertTrue(upper >= v && upper <= v + v / 8, v + " -> " + upper);
+        }
+    }
+
+    private ApiServer.Stats awaitRequests(long n) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        ApiServer.Stats stats = server.stats();
+        while (stats.requests < n && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            stats = server.stats();
+        }
+        return stats;
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path)).GET().build();
+        return client.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,177 @@
+package com.typinggame.bench;
+
+import com.typinggame.api.ApiServer;
+import com.typinggame.api.ApiServerConfig;
+import com.typinggame.data.Database;
+import com.typinggame.data.DatabaseConfig;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Closed-loop load test for ApiServer: N clients (virtual threads sharing one keep-alive HttpClient) each send
+ * a request, wait for the answer and send the next, for a fixed time. Mostly GET /api/drills; with --writes F
+ * that fraction of requests is a POST of a custom drill (which also invalidates the drill catalog cache).
+ *
+ * For each executor x concurrency it starts a fresh in-process server on a scratch database, warms up, then
+ * reports throughput, client-side latency percentiles (includes queueing and the network stack), the number
+ * of 503s from the in-flight limit, and the server's own handler p99 from ApiServer.stats().
+ * With --url it drives an already running server instead (executor / limit options are then ignored).
+ *
+ * Not a unit test (surefire skips it); run with:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.typinggame.bench.ApiLoadBenchmark
+ * Options (via -Dexec.args="..."): --executor dispatcher,fixed,virtual  --concurrency 1,16,64,256
+ *   --seconds 5  --warmup 3  --max-in-flight 256  --writes 0.0  --url http://127.0.0.1:18080
+ */
+public class ApiLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        ApiServerConfig.Executor[] executors = ApiServerConfig.Executor.values();
+        int[] concurrency = {1, 16, 64, 256};
+        int seconds = 5, warmup = 3, maxInFlight = 256;
+        double writes = 0;
+        String url = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--executor" -> executors = Arrays.stream(args[i + 1].split(","))
+                        .map(s -> ApiServerConfig.Executor.valueOf(s.toUpperCase(Locale.ROOT)))
+                        .toArray(ApiServerConfig.Executor[]::new);
+                case "--concurrency" -> concurrency = Arrays.stream(args[i + 1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--seconds" -> seconds = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(args[i + 1]);
+                case "--writes" -> writes = Double.parseDouble(args[i + 1]);
+                case "--url" -> url = args[i + 1];
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.printf("%-10s %5s | %9s %9s %7s %6s | %8s %8s %8s %8s | %12s%n",
+                "executor", "conc", "req/s", "ok", "503", "err", "p50 ms", "p90 ms", "p99 ms", "max ms", "server p99us");
+
+        if (url != null) {
+            for (int c : concurrency) {
+                Result r = run(client, url, c, warmup, seconds, writes);
+                print("external", c, r, null);
+            }
+            return;
+        }
+
+        Path db = Files.createTempFile("api-load-", ".db");
+        try {
+            Database.shutdown();
+            Database.init(DatabaseConfig.defaults().setPath(db.toString()));
+            for (ApiServerConfig.Executor executor : executors) {
+                for (int c : concurrency) {
+                    ApiServer server = new ApiServer();
+                    server.start(0, ApiServerConfig.defaults().setExecutor(executor).setMaxInFlight(maxInFlight));
+                    try {
+                        Result r = run(client, "http://127.0.0.1:" + server.port(), c, warmup, seconds, writes);
+                        print(executor.name().toLowerCase(Locale.ROOT), c, r, server.stats());
+                    } finally {
+                        server.stop();
+                    }
+                }
+            }
+        } finally {
+            Database.shutdown();
+            for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Path.of(db + suffix));
+        }
+    }
+
+    private static void print(String executor, int concurrency, Result r, ApiServer.Stats server) {
+        System.out.printf(Locale.ROOT, "%-10s %5d | %9.0f %9d %7d %6d | %8.2f %8.2f %8.2f %8.2f | %12s%n",
+                executor, concurrency, r.ok / r.seconds, r.ok, r.shed, r.errors,
+                r.percentileMillis(0.50), r.percentileMillis(0.90), r.percentileMillis(0.99), r.percentileMillis(1.0),
+                server == null ? "-" : Long.toString(server.p99Micros));
+    }
+
+    /** Warm up, then measure: every client runs its own request loop until the deadline. */
+    private static Result run(HttpClient client, String base, int concurrency, int warmupSeconds, int seconds,
+                              double writes) throws InterruptedException {
+        drive(client, base, concurrency, warmupSeconds, writes, null);
+        Result result = new Result(seconds);
+        drive(client, base, concurrency, seconds, writes, result);
+        return result;
+    }
+
+    private static void drive(HttpClient client, String base, int concurrency, int seconds, double writes,
+                              Result result) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        HttpRequest list = HttpRequest.newBuilder(URI.create(base + "/api/drills")).GET().build();
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int id = i;
+            clients.add(Thread.ofVirtual().name("load-", i).start(() -> {
+                Random rnd = new Random(id);
+                long[] latencies = new long[1024];
+                int n = 0;
+                long ok = 0, shed = 0, errors = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest req = rnd.nextDouble() < writes ? create(base, id, n) : list;
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    long nanos = System.nanoTime() - t0;
+                    if (status == 503) { shed++; continue; }
+                    if (status < 200 || status >= 300) { errors++; continue; }
+                    if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                    latencies[n++] = nanos;
+                    ok++;
+                }
+                if (result != null) result.add(Arrays.copyOf(latencies, n), ok, shed, errors);
+            }));
+        }
+        for (Thread t : clients) t.join();
+    }
+
+    private static HttpRequest create(String base, int client, int seq) {
+        String json = "{\"title\":\"load " + client + "-" + seq + "\",\"content\":\"the quick brown fox\",\"tier\":1}";
+        return HttpRequest.newBuilder(URI.create(base + "/api/drills"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /** Latencies of successful requests from all clients, plus counters. */
+    private static final class Result {
+        final double seconds;
+        private final List<long[]> parts = new ArrayList<>();
+        long ok, shed, errors;
+        private long[] sorted;
+
+        Result(double seconds) {
+            this.seconds = seconds;
+        }
+
+        synchronized void add(long[] latencies, long ok, long shed, long errors) {
+            parts.add(latencies);
+            this.ok += ok;
+            this.shed += shed;
+            this.errors += errors;
+        }
+
+        synchronized double percentileMillis(double p) {
+            if (sorted == null) {
+                sorted = parts.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            }
+            if (sorted.length == 0) return 0;
+            int i = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, i)] / 1e6;
+        }
+    }
+}
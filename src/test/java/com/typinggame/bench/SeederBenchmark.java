@@ -0,0 +1,44 @@
+package com.typinggame.bench;
+
+import com.typinggame.data.Database;
+import com.typinggame.data.DatabaseConfig;
+import com.typinggame.data.DrillSeeder;
+import com.typinggame.model.Drill;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times DrillSeeder.seed on a large synthetic catalog: first (cold) seed, an unchanged re-seed (hash hit),
+ * and a re-seed after one drill changed.
+ * Run with: mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.typinggame.bench.SeederBenchmark
+ */
+public class SeederBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        Path dir = Files.createTempDirectory("seed-bench");
+        Database.init(DatabaseConfig.defaults().setPath(dir.resolve("bench.db").toString()));
+
+        List<Drill> drills = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            drills.add(new Drill(100_000 + i, "Bench drill " + i, "the quick brown fox " + i, 1 + i % 10));
+        }
+
+        time("cold seed of " + n, () -> DrillSeeder.seed(drills));
+        time("unchanged re-seed", () -> DrillSeeder.seed(drills));
+        drills.set(n / 2, new Drill(100_000 + n / 2, "Edited", "edited body", 5));
+        time("re-seed after 1 edit", () -> DrillSeeder.seed(drills));
+
+        Database.shutdown();
+    }
+
+    private static void time(String label, java.util.function.BooleanSupplier run) {
+        long t0 = System.nanoTime();
+        boolean wrote = run.getAsBoolean();
+        System.out.printf("%-24s %8.1f ms  (wrote=%s)%n", label, (System.nanoTime() - t0) / 1e6, wrote);
+    }
+}
@@ -0,0 +1,83 @@
+package com.typinggame.bench;
+
+import com.typinggame.util.DrillGenerator;
+import com.typinggame.util.SentenceCorpus;
+import com.typinggame.util.SentenceCorpus.Difficulty;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Startup and lookup cost of SentenceCorpus on a generated corpus (default 300 MB, or the size in MB given
+ * as the first argument): the first open scans the file and writes the index, later opens only map it.
+ * Not a unit test (surefire skips it); run with:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.typinggame.bench.SentenceCorpusBenchmark
+ */
+public class SentenceCorpusBenchmark {
+
+    private static final int LOOKUPS = 1_000_000;
+
+    private static long sink;   // keeps the JIT from discarding results
+
+    public static void main(String[] args) throws Exception {
+        long targetBytes = (args.length > 0 ? Long.parseLong(args[0]) : 300) * 1024 * 1024;
+        Path dir = Files.createTempDirectory("corpus-bench");
+        Path file = dir.resolve("sentences.txt");
+        try {
+            writeCorpus(file, targetBytes);
+            System.out.printf("corpus: %d MB%n", Files.size(file) >> 20);
+
+            long t0 = System.nanoTime();
+            SentenceCorpus first = SentenceCorpus.open(file);
+            System.out.printf("first open (scan + write index): %8.1f ms, %d sentences%n", ms(t0), first.size());
+            for (Difficulty d : Difficulty.values()) System.out.printf("  %-6s %d%n", d, first.count(d));
+
+            for (int i = 0; i < 3; i++) {
+                t0 = System.nanoTime();
+                SentenceCorpus again = SentenceCorpus.open(file);
+                System.out.printf("reopen (map index):               %8.2f ms (index file: %s)%n", ms(t0), again.isFromIndexFile());
+            }
+
+            SentenceCorpus corpus = SentenceCorpus.open(file);
+            Random rnd = new Random(5);
+            for (int round = 0; round < 3; round++) {
+                t0 = System.nanoTime();
+                for (int i = 0; i < LOOKUPS; i++) sink += corpus.sentence(Difficulty.values()[i % 3], rnd).length();
+                System.out.printf("random lookup:                    %8.0f ns%n", (System.nanoTime() - t0) / (double) LOOKUPS);
+            }
+        } finally {
+            Files.deleteIfExists(SentenceCorpus.indexFile(file));
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    /** Sentences of 4-30 corpus words; some get capitals, digits and punctuation so all buckets fill. */
+    private static void writeCorpus(Path file, long targetBytes) throws Exception {
+        DrillGenerator gen = DrillGenerator.shared();
+        Random rnd = new Random(1);
+        long written = 0;
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            while (written < targetBytes) {
+                Map<String, Double> focus = switch (rnd.nextInt(3)) {
+                    case 0 -> Map.of();
+                    case 1 -> Map.of("T", 1.0, "M", 1.0, ",", 1.0);
+                    default -> Map.of("7", 1.0, ";", 1.0, "Q", 1.0, "(", 1.0);
+                };
+                String s = gen.generate(focus, 4 + rnd.nextInt(27), rnd);
+                w.write(s);
+                w.write('\n');
+                written += s.length() + 1;
+            }
+        }
+    }
+
+    private static double ms(long since) {
+        return (System.nanoTime() - since) / 1e6;
+    }
+}
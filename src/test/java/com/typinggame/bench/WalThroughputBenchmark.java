@@ -0,0 +1,102 @@
+package com.typinggame.bench;
+
+import com.typinggame.data.Database;
+import com.typinggame.data.DatabaseConfig;
+import com.typinggame.data.LeaderboardRepository;
+import com.typinggame.data.SessionRepository;
+import com.typinggame.model.Session;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert-while-reading throughput: one thread inserts sessions while reader threads hammer the
+ * per-drill leaderboard. Runs the same workload against the old rollback journal and against WAL.
+ * Not a unit test (surefire skips it); run with:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.typinggame.bench.WalThroughputBenchmark
+ * Optional args: seconds readers (defaults 5 3).
+ */
+public class WalThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Result rollback = run(DatabaseConfig.defaults().setJournalMode("DELETE").setSynchronous("FULL"), seconds, readers);
+        Result wal = run(DatabaseConfig.defaults(), seconds, readers);
+
+        System.out.println();
+        System.out.printf("%-28s %12s %12s %10s%n", "mode", "inserts/s", "reads/s", "errors");
+        System.out.printf("%-28s %12.0f %12.0f %10d%n", "DELETE + synchronous=FULL", rollback.insertsPerSec, rollback.readsPerSec, rollback.errors);
+        System.out.printf("%-28s %12.0f %12.0f %10d%n", "WAL + synchronous=NORMAL", wal.insertsPerSec, wal.readsPerSec, wal.errors);
+        System.out.printf("WAL speed-up: inserts x%.1f, reads x%.1f%n",
+                wal.insertsPerSec / Math.max(1, rollback.insertsPerSec),
+                wal.readsPerSec / Math.max(1, rollback.readsPerSec));
+    }
+
+    private record Result(double insertsPerSec, double readsPerSec, long errors) {}
+
+    private static Result run(DatabaseConfig cfg, int seconds, int readerThreads) throws Exception {
+        Path dir = Files.createTempDirectory("wal-bench");
+        Database.shutdown();
+        Database.init(cfg.setPath(dir.resolve("bench.db").toString()));
+
+        int userId, drillId;
+        try (Connection c = Database.getConnection();
+             PreparedStatement u = c.prepareStatement("SELECT id FROM users WHERE username='demo'");
+             PreparedStatement d = c.prepareStatement("SELECT MIN(id) FROM drills");
+             ResultSet ru = u.executeQuery(); ResultSet rd = d.executeQuery()) {
+            userId = ru.getInt(1);
+            drillId = rd.getInt(1);
+        }
+
+        SessionRepository sessions = new SessionRepository();
+        LeaderboardRepository leaderboard = new LeaderboardRepository();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong inserts = new AtomicLong(), reads = new AtomicLong(), errors = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                try {
+                    sessions.insert(new Session(null, userId, drillId, 40 + (i++ % 60), 90.0, 200, 30.0, Instant.now()));
+                    inserts.incrementAndGet();
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                }
+            }
+        }, "bench-writer"));
+        for (int r = 0; r < readerThreads; r++) {
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    try {
+                        leaderboard.topByBestScoreForDrill(drillId, 50);
+                        reads.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }, "bench-reader-" + r));
+        }
+
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread t : threads) t.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(cfg.getJournalMode() + ": " + Database.poolStats());
+        Database.shutdown();
+        return new Result(inserts.get() / elapsed, reads.get() / elapsed, errors.get());
+    }
+}
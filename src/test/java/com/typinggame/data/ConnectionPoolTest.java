@@ -0,0 +1,106 @@
+package com.typinggame.data;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the pooled writer/reader connections behind Database.
+ */
+class ConnectionPoolTest {
+
+    private Path file;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void open() throws Exception {
+        file = Files.createTempFile("pool-test", ".db");
+        pool = new ConnectionPool(DatabaseConfig.defaults()
+                .setPath(file.toString())
+                .setReaderConnections(2)
+                .setCheckoutTimeoutMillis(200));
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        pool.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void close_returnsConnectionInsteadOfClosingIt() throws Exception {
+        Connection first;
+        try (Connection c = pool.borrowReader()) {
+            first = c;
+            assertFalse(c.isClosed());
+        }
+        assertTrue(first.isClosed(), "lease reports closed once returned");
+        assertEquals(2, pool.stats().idleReaders);
+
+        try (Connection c = pool.borrowReader(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT 1")) {
+            assertTrue(rs.next());
+        }
+        assertEquals(2, pool.stats().readerCheckouts);
+    }
+
+    @Test
+    void writer_isReentrantOnSameThread() throws Exception {
+        try (Connection outer = pool.borrowWriter(); Statement st = outer.createStatement()) {
+            st.execute("CREATE TABLE t(x INTEGER)");
+            outer.setAutoCommit(false);
+            st.execute("INSERT INTO t VALUES(1)");
+
+            // a nested read on the same thread sees the uncommitted row
+            try (Connection inner = pool.borrowReader(); Statement st2 = inner.createStatement();
+                 ResultSet rs = st2.executeQuery("SELECT COUNT(*) FROM t")) {
+                assertEquals(1, rs.getInt(1));
+            }
+            assertTrue(pool.stats().writerBusy, "outer lease still holds the writer");
+            outer.commit();
+        }
+        assertFalse(pool.stats().writerBusy);
+        assertEquals(1, pool.stats().reentrantCheckouts);
+    }
+
+    @Test
+    void writer_isExclusiveAcrossThreads() throws Exception {
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try (Connection held = pool.borrowWriter()) {
+            Future<?> f = other.submit(() -> { pool.borrowWriter().close(); return null; });
+            ExecutionException ex = assertThrows(ExecutionException.class, f::get);
+            assertInstanceOf(SQLException.class, ex.getCause());
+        } finally {
+            other.shutdownNow();
+        }
+        assertEquals(1, pool.stats().timeouts);
+    }
+
+    @Test
+    void returnedWriter_isResetToAutocommit() throws Exception {
+        try (Connection c = pool.borrowWriter(); Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE t(x INTEGER)");
+            c.setAutoCommit(false);
+            st.execute("INSERT INTO t VALUES(1)"); // never committed
+        }
+        try (Connection c = pool.borrowWriter(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(c.getAutoCommit());
+            assertEquals(0, rs.getInt(1), "abandoned transaction is rolled back on release");
+        }
+    }
+
+    @Test
+    void readers_timeOutWhenExhausted() throws Exception {
+        try (Connection a = pool.borrowReader(); Connection b = pool.borrowReader()) {
+            assertEquals(0, pool.stats().idleReaders);
+            assertThrows(SQLException.class, pool::borrowReader);
+        }
+        assertEquals(2, pool.stats().idleReaders);
+    }
+}
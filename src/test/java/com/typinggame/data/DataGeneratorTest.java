@@ -0,0 +1,103 @@
+package com.typinggame.data;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.sql.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DataGenerator writes the requested volumes, is deterministic for a seed, and leaves best_scores /
+ * user_progress as the app would have built them.
+ */
+class DataGeneratorTest {
+
+    private static final DataGenerator.Spec SPEC = DataGenerator.Spec.defaults()
+            .setUsers(50).setDrills(30).setSessions(2_000).setLevels(3).setSeed(7)
+            .setBatchSize(64).setCommitEvery(500);
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+    }
+
+    @Test
+    void writesRequestedVolumes() throws Exception {
+        DataGenerator.Result r = new DataGenerator(SPEC).generate();
+
+        assertEquals(50, count("SELECT COUNT(*) FROM users WHERE id >= " + r.firstUserId));
+        assertEquals(50, count("SELECT COUNT(*) FROM user_settings WHERE user_id >= " + r.firstUserId));
+        assertEquals(30, count("SELECT COUNT(*) FROM drills WHERE id >= " + SPEC.getFirstDrillId()));
+        assertEquals(2_000, count("SELECT COUNT(*) FROM sessions WHERE user_id >= " + r.firstUserId));
+        // indexes dropped for the load are back
+        assertTrue(count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND tbl_name = 'sessions' AND sql IS NOT NULL") > 0);
+    }
+
+    @Test
+    void sameSeed_sameData() throws Exception {
+        new DataGenerator(SPEC).generate();
+        String first = fingerprint();
+
+        resetDb();
+        new DataGenerator(SPEC).generate();
+        assertEquals(first, fingerprint());
+    }
+
+    @Test
+    void projectionsMatchSessions() throws Exception {
+        DataGenerator.Result r = new DataGenerator(SPEC).generate();
+
+        assertEquals(count("SELECT COUNT(*) FROM (SELECT DISTINCT user_id, drill_id FROM sessions)"),
+                count("SELECT COUNT(*) FROM best_scores"));
+        assertEquals(0, count("""
+            SELECT COUNT(*) FROM best_scores b
+             WHERE b.score <> (SELECT MAX(s.score) FROM sessions s WHERE s.user_id = b.user_id AND s.drill_id = b.drill_id)
+            """));
+        try (Connection c = Database.getConnection()) {
+            for (int u = r.firstUserId; u < r.firstUserId + r.users; u++) {
+                assertEquals(ProgressRepository.compute(c, u),
+                        count("SELECT unlocked_up_to FROM user_progress WHERE user_id = " + u), "user " + u);
+            }
+        }
+    }
+
+    @Test
+    void failedSessionLoad_restoresIndexes() throws Exception {
+        long before = count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND tbl_name = 'sessions' AND sql IS NOT NULL");
+        try (Connection c = Database.getConnection(); Statement st = c.createStatement()) {
+            st.execute("CREATE TRIGGER fail_load BEFORE INSERT ON sessions BEGIN SELECT RAISE(ABORT, 'disk full'); END");
+        }
+
+        assertThrows(RuntimeException.class, () -> new DataGenerator(SPEC).generate());
+        assertEquals(before, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND tbl_name = 'sessions' AND sql IS NOT NULL"));
+    }
+
+    @Test
+    void refusesToGenerateTwiceWithSamePrefix() {
+        new DataGenerator(SPEC).generate();
+        assertThrows(RuntimeException.class, () -> new DataGenerator(SPEC).generate());
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (Connection c = Database.getReadConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    private static String fingerprint() throws SQLException {
+        try (Connection c = Database.getReadConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("""
+                 SELECT COUNT(*), SUM(user_id * 31 + drill_id), ROUND(SUM(score), 6), MIN(started_at), MAX(started_at)
+                   FROM sessions
+                 """)) {
+            rs.next();
+            return rs.getLong(1) + "/" + rs.getLong(2) + "/" + rs.getDouble(3) + "/" + rs.getString(4) + "/" + rs.getString(5);
+        }
+    }
+}
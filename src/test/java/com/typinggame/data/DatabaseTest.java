@@ -11,8 +11,8 @@ class DatabaseTest {
 
     @BeforeEach
     void resetDb() throws Exception {
-        Files.deleteIfExists(Paths.get("typinggame.db"));
         Database.forceReinitForTests();   // << reset the guard
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
         Database.init();                  // recreate schema + seed
     }
 
@@ -81,6 +81,89 @@ class DatabaseTest {
         }
     }
 
+    @Test
+    void registeredQueries_areIndexBacked() throws Exception {
+        try (Connection c = Database.getReadConnection()) {
+            assertEquals(java.util.List.of(), IndexAdvisor.check(c));
+            // sanity: the advisor does flag an unindexed filter
+            assertFalse(IndexAdvisor.fullScans(c, "SELECT * FROM sessions WHERE typed_chars = ?").isEmpty());
+        }
+    }
+
+    @Test
+    void warmStart_appliesNoMigrations_andWritesNothing() throws Exception {
+        try (Connection c = Database.getConnection()) {
+            assertEquals(Migrations.ALL.size(), count(c, "schema_version"));
+            assertEquals(Migrations.latestVersion(), Migrations.currentVersion(c));
+        }
+
+        Database.forceReinitForTests();   // fresh connections, same file
+        Database.init();
+        try (Connection c = Database.getConnection()) {
+            assertEquals(0, Migrations.migrate(c));
+            assertEquals(0, count(c, "(SELECT total_changes() AS n) WHERE n > 0"), "warm init must not write");
+        }
+    }
+
+    @Test
+    void initWithNewConfig_migratesTheNewDatabase() throws Exception {
+        Path other = Files.createTempFile("typinggame-other-", ".db");
+        DatabaseConfig defaults = Database.config();
+        try {
+            Database.init(DatabaseConfig.defaults().setPath(other.toString()));
+            try (Connection c = Database.getConnection()) {
+                assertEquals(Migrations.latestVersion(), Migrations.currentVersion(c));
+                assertTrue(count(c, "drills") > 0);
+            }
+        } finally {
+            Database.init(defaults);
+            for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get(other + suffix));
+        }
+    }
+
+    @Test
+    void legacyDatabase_isUpgradedInPlace() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get(DB + suffix));
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + DB);
+             Statement st = c.createStatement()) {
+            // shape of a database created before levels, custom drills and schema_version existed
+            st.execute("CREATE TABLE drills(id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT NOT NULL, " +
+                    "body TEXT NOT NULL, tier INTEGER NOT NULL DEFAULT 1)");
+            st.execute("INSERT INTO drills(id, title, body, tier) VALUES(500, 'Old', 'old drill', 4)");
+        }
+
+        Database.init();
+        try (Connection c = Database.getConnection()) {
+            assertTrue(Migrations.columnExists(c, "drills", "level"));
+            assertTrue(Migrations.columnExists(c, "drills", "is_custom"));
+            assertEquals(1, count(c, "drills WHERE id = 500 AND level = 4"));
+            assertEquals(Migrations.latestVersion(), Migrations.currentVersion(c));
+        }
+    }
+
+    @Test
+    void keystrokeLog_isStoredWithSession() throws Exception {
+        int demoId;
+        try (Connection c = Database.getConnection()) {
+            demoId = userId(c, "demo");
+        }
+        com.typinggame.model.KeystrokeLog log = new com.typinggame.model.KeystrokeLog("ab", 16, 0);
+        log.insert(1_000_000, 0, 'a', 65);
+        log.insert(2_000_000, 1, 'b', 66);
+        byte[] blob = log.finish();
+
+        SessionRepository repo = new SessionRepository();
+        com.typinggame.model.Session saved = repo.insert(new com.typinggame.model.Session(
+                null, demoId, 11, 60, 100, 2, 1, java.time.Instant.now(), blob));
+        assertArrayEquals(blob, repo.loadKeystrokes(saved.id));
+        assertTrue(com.typinggame.model.KeystrokeReplay.replay(repo.loadKeystrokes(saved.id), "ab").complete);
+
+        com.typinggame.model.Session plain = repo.insert(new com.typinggame.model.Session(
+                null, demoId, 11, 60, 100, 2, 1, java.time.Instant.now()));
+        assertNull(repo.loadKeystrokes(plain.id));
+    }
+
     // ---- helpers ----
     private static boolean tableExists(Connection c, String name) throws SQLException {
         try (ResultSet rs = c.getMetaData().getTables(null, null, name, null)) {
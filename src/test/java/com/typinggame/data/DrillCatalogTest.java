@@ -0,0 +1,92 @@
+package com.typinggame.data;
+
+import com.typinggame.model.Drill;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.sql.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DrillRepository reads come from the cached catalog and stay consistent across custom-drill writes.
+ */
+class DrillCatalogTest {
+
+    private final DrillRepository repo = new DrillRepository();
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+    }
+
+    @Test
+    void repeatedReads_areServedFromCache() {
+        repo.findAll();
+        DrillRepository.CatalogStats before = DrillRepository.catalogStats();
+
+        assertEquals(3, repo.findByLevel(4).size());
+        assertEquals(41, repo.findFirstDrillInLevel(4).orElseThrow().id);
+        assertEquals(10, repo.maxLevel());
+        assertTrue(repo.findById(52).isPresent());
+        assertTrue(repo.findById(999).isEmpty());
+
+        DrillRepository.CatalogStats after = DrillRepository.catalogStats();
+        assertEquals(before.misses, after.misses);
+        assertEquals(before.hits + 5, after.hits);
+    }
+
+    @Test
+    void reloadDuringWriteTransaction_doesNotCacheStaleCatalog() throws Exception {
+        repo.findAll();
+        try (Connection c = Database.getConnection()) {
+            c.setAutoCommit(false);
+            try (Statement st = c.createStatement()) {
+                st.executeUpdate("INSERT INTO drills(id, title, body, tier, level) VALUES(900, 't', 'b', 1, 1)");
+            }
+            DrillRepository.drillsChanged(c);
+
+            // another thread reloads while the insert is still uncommitted
+            Thread reader = new Thread(() -> assertTrue(repo.findById(900).isEmpty()));
+            reader.start();
+            reader.join();
+
+            c.commit();
+            c.setAutoCommit(true);
+        }
+        assertTrue(repo.findById(900).isPresent());
+    }
+
+    @Test
+    void upToLevel_isOrderedPrefix() {
+        List<Drill> upTo3 = repo.findUpToLevel(3);
+        assertEquals(9, upTo3.size());
+        assertEquals(List.of(11, 12, 13, 21, 22, 23, 31, 32, 33), upTo3.stream().map(d -> d.id).toList());
+        assertTrue(repo.findUpToLevel(0).isEmpty());
+        assertEquals(repo.findAll().size(), repo.findUpToLevel(99).size());
+    }
+
+    @Test
+    void customWrites_invalidateCatalog() {
+        int before = repo.findByLevel(2).size();
+        int id = repo.insertCustom(new Drill(0, "Mine", "my own words", 2));
+
+        assertEquals(before + 1, repo.findByLevel(2).size());
+        assertEquals(id, repo.findCustom().get(0).id);
+        assertEquals("Mine", repo.findById(id).orElseThrow().title);
+
+        assertTrue(repo.deleteCustom(id));
+        assertEquals(before, repo.findByLevel(2).size());
+        assertTrue(repo.findById(id).isEmpty());
+        assertTrue(repo.findCustom().isEmpty());
+    }
+
+    @Test
+    void returnedLists_areReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> repo.findAll().clear());
+        assertThrows(UnsupportedOperationException.class, () -> repo.findByLevel(1).remove(0));
+    }
+}
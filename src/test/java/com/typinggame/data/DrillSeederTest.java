@@ -0,0 +1,68 @@
+package com.typinggame.data;
+
+import com.typinggame.model.Drill;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeding is skipped while the stored hash matches and re-runs when the set (or the table) changes.
+ */
+class DrillSeederTest {
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+    }
+
+    @Test
+    void baseline_isSkippedOnceSeeded() {
+        assertFalse(DrillSeeder.seed(DrillSeeder.BASELINE));
+        assertEquals(DrillSeeder.BASELINE.size(), new DrillRepository().findAll().size());
+    }
+
+    @Test
+    void freshMigration_storesBaselineHash() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        try (java.sql.Connection c = Database.getConnection()) {
+            Migrations.migrate(c);
+            // so Database.init's ensureBaselineDrills() is a no-op instead of a second seed
+            assertEquals(DrillSeeder.hash(DrillSeeder.BASELINE), AppMeta.get(c, DrillSeeder.HASH_KEY));
+        }
+    }
+
+    @Test
+    void changedSet_isReseeded() {
+        List<Drill> changed = new ArrayList<>(DrillSeeder.BASELINE);
+        changed.set(0, new Drill(11, "Level 1 – Home Row A", "fjfj fjfj", 1));
+
+        assertTrue(DrillSeeder.seed(changed));
+        assertEquals("fjfj fjfj", new DrillRepository().findById(11).orElseThrow().body);
+        assertFalse(DrillSeeder.seed(changed));
+    }
+
+    @Test
+    void clearAll_makesNextStartReseed() {
+        DrillRepository repo = new DrillRepository();
+        repo.clearAll();
+        assertTrue(repo.findAll().isEmpty());
+
+        Database.forceReinitForTests();
+        Database.init();
+        assertEquals(DrillSeeder.BASELINE.size(), repo.findAll().size());
+    }
+
+    @Test
+    void hash_dependsOnContent() {
+        List<Drill> a = List.of(new Drill(1, "t", "body", 1));
+        assertEquals(DrillSeeder.hash(a), DrillSeeder.hash(List.of(new Drill(1, "t", "body", 1))));
+        assertNotEquals(DrillSeeder.hash(a), DrillSeeder.hash(List.of(new Drill(1, "t", "body", 2))));
+    }
+}
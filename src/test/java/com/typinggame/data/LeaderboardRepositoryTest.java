@@ -0,0 +1,92 @@
+package com.typinggame.data;
+
+import com.typinggame.model.Session;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.sql.*;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * best_scores is kept current by SessionRepository.insert and matches a rebuild from sessions.
+ */
+class LeaderboardRepositoryTest {
+
+    private final SessionRepository sessions = new SessionRepository();
+    private final LeaderboardRepository leaderboard = new LeaderboardRepository();
+    private int demo;
+    private int bob;
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+        SqliteUserRepository users = new SqliteUserRepository();
+        users.saveUser(new User("bob", "hash"));
+        demo = users.loadUser("demo").getUserID();
+        bob = users.loadUser("bob").getUserID();
+    }
+
+    @Test
+    void perDrill_keepsOnlyEachUsersBest() {
+        sessions.insert(session(demo, 11, 40, 90));
+        sessions.insert(session(demo, 11, 60, 95));   // new best
+        sessions.insert(session(demo, 11, 50, 99));   // lower score, ignored
+        sessions.insert(session(bob, 11, 45, 100));
+
+        List<LeaderboardRepository.LeaderboardRow> rows = leaderboard.topByBestScoreForDrill(11, 10);
+        assertEquals(2, rows.size());
+        assertEquals("demo", rows.get(0).name);
+        assertEquals(60 * 95, rows.get(0).score, 1e-9);
+        assertEquals("bob", rows.get(1).name);
+    }
+
+    @Test
+    void global_tiesDoNotDuplicateUsers() {
+        sessions.insert(session(demo, 11, 50, 90));
+        sessions.insert(session(demo, 12, 50, 90));   // same score on another drill
+        sessions.insert(session(demo, 12, 50, 90));   // and an exact repeat
+        sessions.insert(session(bob, 13, 30, 80));
+
+        List<LeaderboardRepository.LeaderboardRow> rows = leaderboard.topByBestScore(10);
+        assertEquals(2, rows.size());
+        assertEquals("demo", rows.get(0).name);
+        assertEquals("bob", rows.get(1).name);
+    }
+
+    @Test
+    void backfill_matchesIncrementalUpserts() throws Exception {
+        int[][] plays = {{11, 40, 90}, {11, 40, 95}, {12, 70, 80}, {11, 30, 99}, {12, 70, 85}, {13, 20, 100}};
+        for (int[] p : plays) {
+            sessions.insert(session(demo, p[0], p[1], p[2]));
+            sessions.insert(session(bob, p[0], p[2] - p[1], p[2]));
+        }
+        String incremental = dump();
+
+        try (Connection c = Database.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM best_scores");
+            assertEquals(6, LeaderboardRepository.backfill(c));
+        }
+        assertEquals(incremental, dump());
+    }
+
+    private static Session session(int userId, int drillId, double wpm, double accuracy) {
+        return new Session(null, userId, drillId, wpm, accuracy, 100, 30, Instant.now());
+    }
+
+    private static String dump() throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        try (Connection c = Database.getReadConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT user_id, drill_id, score, wpm, accuracy, session_id FROM best_scores ORDER BY user_id, drill_id")) {
+            while (rs.next()) {
+                for (int i = 1; i <= 6; i++) sb.append(rs.getString(i)).append(i < 6 ? "," : "\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.typinggame.data;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.sql.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the cached id + profile snapshot on data.User against a fresh database.
+ */
+class UserProfileTest {
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+    }
+
+    @Test
+    void loadedUser_carriesId_andReadsProfileOnce() throws Exception {
+        User demo = new SqliteUserRepository().loadUser("demo");
+        assertNotNull(demo);
+        int id = demo.getUserID();
+        assertTrue(id > 0);
+
+        long before = Database.poolStats().readerCheckouts;
+        assertEquals("Demo User", demo.getDisplayName());
+        assertEquals(24, demo.getFontSize());
+        assertEquals("KRILL", demo.getTheme());
+        assertEquals(0, demo.getTotalSessions());
+        assertEquals("/images/BG-unlocks/default-rank-bg.png", demo.themePath());
+        assertEquals(1, Database.poolStats().readerCheckouts - before, "all getters share one query");
+    }
+
+    @Test
+    void invalidate_picksUpNewSessions() throws Exception {
+        User demo = new SqliteUserRepository().loadUser("demo");
+        assertEquals(0.0, demo.getBestWPM());
+
+        try (Connection c = Database.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "INSERT INTO sessions(user_id, drill_id, wpm, accuracy, score, typed_chars, duration_seconds) " +
+                             "VALUES(?, 11, 55, 97, 5335, 100, 20)")) {
+            ps.setInt(1, demo.getUserID());
+            ps.executeUpdate();
+        }
+        assertEquals(0.0, demo.getBestWPM(), "snapshot is cached until invalidated");
+
+        demo.invalidate();
+        assertEquals(55.0, demo.getBestWPM());
+        assertEquals(97.0, demo.getBestAccuracy());
+        assertEquals(1, demo.getTotalSessions());
+    }
+
+    @Test
+    void updateAllSettings_updatesSnapshotWithoutReload() {
+        User demo = new SqliteUserRepository().loadUser("demo");
+        demo.getTheme(); // load
+        demo.updateAllSettings("Renamed", "System", 32, "TUNA");
+        assertEquals("Renamed", demo.getDisplayName());
+        assertEquals(32, demo.getFontSize());
+
+        demo.invalidate();
+        assertEquals("TUNA", demo.getTheme(), "change was persisted");
+    }
+
+    @Test
+    void unknownUser_returnsDefaults() {
+        User ghost = new User("nobody@example.com", "x");
+        assertEquals(0, ghost.getUserID());
+        assertNull(ghost.getDisplayName());
+        assertEquals(0, ghost.getTotalSessions());
+    }
+}
@@ -0,0 +1,113 @@
+package com.typinggame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * KeystrokeLog blobs decode back to the recorded events and replay to the live stats.
+ */
+public class KeystrokeLogTest {
+
+    private static final String TARGET = "the quick brown fox jumps over the lazy dog";
+
+    @Test
+    public void roundTrip_preservesEvents_acrossRingDrains() {
+        long t0 = 1_000_000_000L;
+        KeystrokeLog log = new KeystrokeLog(TARGET, 8, t0);   // tiny ring: forces many drains
+        List<long[]> recorded = new ArrayList<>();           // {micros, delete, pos, typed, keyCode}
+        Random rnd = new Random(3);
+        int length = 0;
+        long now = t0;
+        for (int i = 0; i < 500; i++) {
+            now += 1_000L * (20 + rnd.nextInt(400));
+            int code = 65 + rnd.nextInt(3);
+            if (length > 0 && rnd.nextInt(5) == 0) {
+                int pos = rnd.nextInt(6) == 0 ? rnd.nextInt(length) : length - 1;
+                log.delete(now, pos, code);
+                recorded.add(new long[] {(now - t0) / 1000, 1, pos, 0, code});
+                length--;
+            } else {
+                int pos = rnd.nextInt(6) == 0 ? rnd.nextInt(length + 1) : length;
+                char c = rnd.nextBoolean() && pos < TARGET.length() ? TARGET.charAt(pos) : (char) ('a' + rnd.nextInt(26));
+                log.insert(now, pos, c, code);
+                recorded.add(new long[] {(now - t0) / 1000, 0, pos, c, code});
+                length++;
+            }
+        }
+
+        KeystrokeReplay r = new KeystrokeReplay(log.finish());
+        assertEquals(500, r.eventCount());
+        for (long[] e : recorded) {
+            assertTrue(r.next());
+            assertEquals(e[0], r.micros());
+            assertEquals(e[1] == 1, r.isDelete());
+            assertEquals(e[2], r.position());
+            assertEquals(e[4], r.keyCode());
+            if (e[1] == 0) {
+                char expected = e[2] < TARGET.length() ? TARGET.charAt((int) e[2]) : 0;
+                assertEquals((char) e[3], r.typed());
+                assertEquals(expected, r.expected());
+                assertEquals(r.typed() == expected, r.isCorrect());
+            }
+        }
+        assertFalse(r.next());
+    }
+
+    @Test
+    public void replay_matchesLiveStats_andStaysCompact() {
+        long t0 = 0;
+        KeystrokeLog log = new KeystrokeLog(TARGET, KeystrokeLog.DEFAULT_CAPACITY, t0);
+        TypingStatsEngine live = new TypingStatsEngine(TARGET);
+        long now = t0;
+        int pos = 0;
+        for (int i = 0; i < TARGET.length(); i++) {
+            if (i % 9 == 4) {                    // typo, then backspace
+                now += 150_000_000L;
+                log.insert(now, pos, '#', 51);
+                live.insert(pos, '#');
+                live.updateStreak('#', TARGET.charAt(pos));
+                now += 150_000_000L;
+                log.delete(now, pos, 8);
+                live.delete(pos);
+            }
+            char c = TARGET.charAt(i);
+            now += 150_000_000L;
+            log.insert(now, pos, c, 65);
+            live.insert(pos, c);
+            if (c != ' ') live.updateStreak(c, TARGET.charAt(pos));
+            pos++;
+        }
+
+        byte[] blob = log.finish();
+        KeystrokeReplay.Result r = KeystrokeReplay.replay(blob, TARGET);
+        assertEquals(live.getAccuracy(), r.accuracy, 1e-9);
+        assertEquals(live.getErrors(), r.errors);
+        assertEquals(live.getBestStreak(), r.bestStreak);
+        assertTrue(r.complete);
+        assertEquals(live.calculateWPM(now / 1e9 / 60.0), r.wpm);
+        assertTrue(blob.length <= 8 + 6 * r.keystrokes, "blob " + blob.length + " bytes for " + r.keystrokes + " events");
+    }
+
+    @Test
+    public void rejectsPositionsOutsideTheInput() {
+        KeystrokeLog log = new KeystrokeLog(TARGET, 16, 0);
+        log.insert(1_000, 0, 'a', 0);
+        log.insert(2_000, 5, 'b', 0);            // input is only 1 char long
+        KeystrokeReplay r = new KeystrokeReplay(log.finish());
+        assertTrue(r.next());
+        assertThrows(IllegalArgumentException.class, r::next);
+    }
+
+    @Test
+    public void rejectsForeignBlobs() {
+        assertThrows(IllegalArgumentException.class, () -> new KeystrokeReplay(new byte[] {1, 2, 3, 4}));
+        byte[] blob = new KeystrokeLog(TARGET).finish();
+        blob[2] = 99;
+        assertThrows(IllegalArgumentException.class, () -> new KeystrokeReplay(blob));
+    }
+}
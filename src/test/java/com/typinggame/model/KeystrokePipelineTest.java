@@ -0,0 +1,71 @@
+package com.typinggame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * KeystrokePipeline: edits keep the stats in step, key events report feedback and feed the chart.
+ */
+public class KeystrokePipelineTest {
+
+    @Test
+    public void typoAndBackspace_feedbackStatsAndChart() {
+        List<double[]> samples = new ArrayList<>();
+        LiveStats live = new LiveStats();
+        KeystrokePipeline p = new KeystrokePipeline(live, (line, x, y) -> samples.add(new double[]{line, x, y}));
+        p.start("cat");
+
+        p.edit(0, 0, 0, 0, "c", "c", 'C');
+        assertEquals(KeystrokePipeline.Feedback.CORRECT, p.keyTyped("c", 1_000));
+        p.edit(0, 1, 1, 1, "x", "cx", 'X');
+        assertEquals(KeystrokePipeline.Feedback.WRONG, p.keyTyped("cx", 1_500));
+        assertEquals(1, p.stats().getErrors());
+        p.edit(0, 2, 1, 2, "", "c", 8);
+        assertEquals(KeystrokePipeline.Feedback.NONE, p.keyTyped("c", 1_800));
+        p.edit(0, 1, 1, 1, "at", "cat", 'V');                   // paste: split into single inserts
+        p.keyTyped("cat", 2_000);
+
+        assertTrue(p.stats().isComplete());
+        assertEquals(3, p.display().spans().get(0).length());   // whole target shown as one correct span
+        assertEquals(TypingDisplayModel.State.CORRECT, p.display().spans().get(0).state);
+        assertEquals(4 * 3, samples.size());                     // three lines per key event
+        assertEquals(KeystrokePipeline.STREAK_LINE, (int) samples.get(11)[0]);
+        assertEquals(2.0, samples.get(11)[1]);
+        assertEquals(5, p.log().size());                         // c, x, delete, a, t
+    }
+
+    @Test
+    public void replayedLog_hasTheLiveBestStreak() {
+        KeystrokePipeline p = new KeystrokePipeline(new LiveStats(), (line, x, y) -> {});
+        p.start("the cat sat");
+        long t = System.nanoTime();   // the log times events from when the round started
+        p.edit(t += 1_000_000, 0, 0, 0, "t", "t", 'T');
+        p.edit(t += 1_000_000, 1, 1, 1, "h", "th", 'H');
+        p.edit(t += 1_000_000, 2, 2, 2, "e cat", "the cat", 'V');   // paste: not scored
+        p.edit(t += 1_000_000, 7, 1, 1, "x", "txhe cat", 'X');      // typo in the middle, scored where it lands
+        p.edit(t += 1_000_000, 8, 1, 2, "", "the cat", 8);
+        p.edit(t += 1_000_000, 7, 7, 7, " ", "the cat ", ' ');
+        for (char c : "sat".toCharArray()) {
+            int len = p.stats().getTypedChars();
+            p.edit(t += 1_000_000, len, len, len, String.valueOf(c), "the cat " + "sat".substring(0, len - 7), c);
+        }
+        assertTrue(p.stats().isComplete());
+        assertEquals(3, p.stats().getBestStreak());
+
+        KeystrokeReplay.Result r = KeystrokeReplay.replay(p.log().finish(), "the cat sat");
+        assertEquals(p.stats().getBestStreak(), r.bestStreak);
+    }
+
+    @Test
+    public void outOfSyncEdit_rereadsInput() {
+        KeystrokePipeline p = new KeystrokePipeline(new LiveStats(), (line, x, y) -> {});
+        p.start("dog");
+        p.edit(0, 5, 0, 0, "d", "do", 'D');                      // field had text the stats never saw
+        assertEquals(2, p.stats().getTypedChars());
+        assertEquals(0, p.log().size());
+    }
+}
@@ -0,0 +1,53 @@
+package com.typinggame.model;
+
+import com.typinggame.util.Rank;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LiveStats: smoothing window and the change bits the game screen renders from.
+ */
+public class LiveStatsTest {
+
+    @Test
+    public void smoothsWpm_andFlagsOnlyShownChanges() {
+        LiveStats live = new LiveStats();
+        live.update(10, 100.0, 1);
+        assertEquals(LiveStats.WPM | LiveStats.ACCURACY | LiveStats.STREAK | LiveStats.RANK, live.takeChanges());
+        assertEquals(Rank.KRILL, live.getRank());
+
+        live.update(10, 100.001, 1);                    // same WPM, same accuracy to 2dp, same streak
+        assertEquals(0, live.takeChanges());
+        assertFalse(live.hasChanges());
+
+        for (int i = 0; i < LiveStats.SMOOTHING; i++) live.update(40, 99.5, 2 + i);
+        assertEquals(40, live.getWpm());                 // old readings have left the window
+        assertEquals(Rank.SWORDFISH, live.getRank());
+        assertEquals(LiveStats.WPM | LiveStats.ACCURACY | LiveStats.STREAK | LiveStats.RANK, live.takeChanges());
+
+        live.update(10, 99.5, 6);                        // (40*4 + 10) / 5 = 34: rank drops a level
+        assertEquals(34, live.getWpm());
+        assertEquals(LiveStats.WPM | LiveStats.RANK, live.takeChanges());
+    }
+
+    @Test
+    public void finishAndReset() {
+        LiveStats live = new LiveStats();
+        live.update(25, 90.0, 3);
+        live.takeChanges();
+
+        live.finish(31, 90.0, 8);
+        assertEquals(LiveStats.WPM | LiveStats.STREAK, live.takeChanges());
+        assertEquals(Rank.CLOWNFISH, live.getRank());    // border isn't re-styled for the final result
+
+        live.reset();
+        assertEquals(LiveStats.WPM | LiveStats.ACCURACY | LiveStats.STREAK | LiveStats.RANK, live.takeChanges());
+        assertNull(live.getRank());
+        live.reset();
+        assertEquals(LiveStats.WPM | LiveStats.ACCURACY | LiveStats.STREAK, live.takeChanges());
+
+        live.update(60, 100.0, 1);                       // window was cleared too
+        assertEquals(60, live.getWpm());
+    }
+}
@@ -0,0 +1,87 @@
+package com.typinggame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Span model behind the typing display: runs stay coalesced and each keystroke only touches
+ * the spans around the cursor.
+ */
+public class TypingDisplayModelTest {
+
+    @Test
+    public void newModel_isOnePendingSpan() {
+        TypingDisplayModel m = new TypingDisplayModel("hello world");
+        assertEquals(1, m.spans().size());
+        assertEquals(TypingDisplayModel.State.PENDING, m.spans().get(0).state);
+        assertEquals("hello world", m.text(m.spans().get(0)));
+    }
+
+    @Test
+    public void typingAndBackspace_touchOneCharacter() {
+        TypingDisplayModel m = new TypingDisplayModel("abcdef");
+        assertEquals(1, m.update("a"));
+        assertEquals(1, m.update("ab"));
+        assertEquals("[CORRECT[0,2), PENDING[2,6)]", m.spans().toString());
+
+        assertEquals(1, m.update("abx"));
+        assertEquals("[CORRECT[0,2), WRONG[2,3), PENDING[3,6)]", m.spans().toString());
+
+        assertEquals(1, m.update("ab"));   // backspace merges the pending run back
+        assertEquals("[CORRECT[0,2), PENDING[2,6)]", m.spans().toString());
+        assertEquals(0, m.update("ab"));   // no change, nothing to restyle
+    }
+
+    @Test
+    public void inputPastTarget_isIgnored() {
+        TypingDisplayModel m = new TypingDisplayModel("ab");
+        m.update("ab");
+        assertEquals(0, m.update("abzz"));
+        assertEquals("[CORRECT[0,2)]", m.spans().toString());
+    }
+
+    @Test
+    public void randomEdits_matchFullRecompute() {
+        String target = "the quick brown fox jumps over the lazy dog";
+        TypingDisplayModel m = new TypingDisplayModel(target);
+        Random rnd = new Random(42);
+        StringBuilder input = new StringBuilder();
+        for (int step = 0; step < 2_000; step++) {
+            int op = rnd.nextInt(10);
+            if (op < 6 && input.length() < target.length() + 3) {
+                boolean right = rnd.nextInt(4) != 0 && input.length() < target.length();
+                input.append(right ? target.charAt(input.length()) : (char) ('a' + rnd.nextInt(26)));
+            } else if (op < 9 && input.length() > 0) {
+                input.setLength(input.length() - 1);
+            } else if (input.length() > 0) {
+                input.setCharAt(rnd.nextInt(input.length()), '#');   // edit in the middle
+            }
+            m.update(input.toString());
+            assertEquals(expected(target, input.toString()), m.spans().toString(), "after input '" + input + "'");
+        }
+    }
+
+    /** Spans computed from scratch, one character at a time. */
+    private static String expected(String target, String input) {
+        List<String> out = new ArrayList<>();
+        int start = 0;
+        TypingDisplayModel.State cur = null;
+        for (int i = 0; i <= target.length(); i++) {
+            TypingDisplayModel.State s = i == target.length() ? null
+                    : i >= input.length() ? TypingDisplayModel.State.PENDING
+                    : input.charAt(i) == target.charAt(i) ? TypingDisplayModel.State.CORRECT
+                    : TypingDisplayModel.State.WRONG;
+            if (s != cur) {
+                if (cur != null) out.add(cur + "[" + start + "," + i + ")");
+                cur = s;
+                start = i;
+            }
+        }
+        return out.toString();
+    }
+}
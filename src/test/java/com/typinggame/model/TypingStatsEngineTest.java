@@ -0,0 +1,98 @@
+package com.typinggame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TypingStatsEngine must agree with TypingStats fed the full input after every change.
+ */
+public class TypingStatsEngineTest {
+
+    @Test
+    public void typingAndBackspace_matchTypingStats() {
+        String target = "hello world";
+        TypingStatsEngine engine = new TypingStatsEngine(target);
+        TypingStats stats = new TypingStats(target);
+        StringBuilder input = new StringBuilder();
+
+        for (char c : "helxo".toCharArray()) type(engine, stats, input, c, target);
+        backspace(engine, stats, input, target);
+        backspace(engine, stats, input, target);
+        for (char c : "lo world".toCharArray()) type(engine, stats, input, c, target);
+
+        assertEquals(stats.getAccuracy(), engine.getAccuracy(), 1e-9);
+        assertEquals(1, engine.getErrors());
+        assertTrue(engine.isComplete());
+        assertEquals(2, engine.getTypedWords());
+        assertEquals(stats.calculateWPM(0.5), engine.calculateWPM(0.5));
+    }
+
+    @Test
+    public void randomEdits_matchTypingStats() {
+        String target = "the quick brown fox jumps over the lazy dog";
+        Random rnd = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            TypingStatsEngine engine = new TypingStatsEngine(target);
+            TypingStats stats = new TypingStats(target);
+            StringBuilder input = new StringBuilder();
+            for (int step = 0; step < 200; step++) {
+                int op = rnd.nextInt(10);
+                if (op < 6) {
+                    int pos = rnd.nextInt(8) == 0 ? rnd.nextInt(input.length() + 1) : input.length();
+                    char c = rnd.nextInt(3) != 0 && pos < target.length() ? target.charAt(pos) : (char) ('a' + rnd.nextInt(26));
+                    engine.insert(pos, c);
+                    input.insert(pos, c);
+                } else if (op < 9 && input.length() > 0) {
+                    int pos = rnd.nextInt(8) == 0 ? rnd.nextInt(input.length()) : input.length() - 1;
+                    engine.delete(pos);
+                    input.deleteCharAt(pos);
+                } else if (input.length() > 1) {
+                    int start = rnd.nextInt(input.length());
+                    int end = start + rnd.nextInt(input.length() - start + 1);
+                    String paste = target.substring(0, rnd.nextInt(5));
+                    engine.replace(start, end, paste);
+                    input.replace(start, end, paste);
+                }
+                stats.update(input.toString());
+                stats.updateAccuracy(input.toString(), target);
+
+                assertEquals(stats.getAccuracy(), engine.getAccuracy(), 1e-9, "input '" + input + "'");
+                assertEquals(stats.isComplete(), engine.isComplete());
+                assertEquals(input.toString(), engine.getInput());
+                assertEquals(wordStarts(input), engine.getTypedWords());
+            }
+        }
+    }
+
+    private static void type(TypingStatsEngine engine, TypingStats stats, StringBuilder input, char c, String target) {
+        int pos = input.length();
+        engine.insert(pos, c);
+        input.append(c);
+        if (pos < target.length()) {
+            engine.updateStreak(c, target.charAt(pos));
+            stats.updateStreak(c, target.charAt(pos));
+        }
+        stats.update(input.toString());
+        stats.updateAccuracy(input.toString(), target);
+        assertEquals(stats.getCurrentStreak(), engine.getCurrentStreak());
+        assertEquals(stats.getBestStreak(), engine.getBestStreak());
+    }
+
+    private static void backspace(TypingStatsEngine engine, TypingStats stats, StringBuilder input, String target) {
+        engine.delete(input.length() - 1);
+        input.setLength(input.length() - 1);
+        stats.update(input.toString());
+        stats.updateAccuracy(input.toString(), target);
+    }
+
+    private static int wordStarts(CharSequence s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isWhitespace(s.charAt(i)) && (i == 0 || Character.isWhitespace(s.charAt(i - 1)))) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,136 @@
+package com.typinggame.service;
+
+import com.typinggame.data.Database;
+import com.typinggame.data.KeyStatsRepository;
+import com.typinggame.data.SessionRepository;
+import com.typinggame.data.SqliteUserRepository;
+import com.typinggame.model.KeyStats;
+import com.typinggame.model.KeystrokeLog;
+import com.typinggame.model.Session;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Key stats are folded in as sessions are saved and read back without scanning history.
+ */
+class KeyStatsServiceTest {
+
+    private int userId;
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+        userId = new SqliteUserRepository().loadUser("demo").getUserID();
+    }
+
+    @Test
+    void savedSessions_updatePerKeyAndBigramFigures() {
+        SessionRepository sessions = new SessionRepository();
+        // "abab...": each 'a' comes 100 ms after the previous key, each 'b' 400 ms; every 5th 'b' is mistyped first
+        for (int i = 0; i < 3; i++) sessions.insert(session(log("abababababababababab", 100, 400)));
+
+        KeyStatsService service = new KeyStatsService();
+        KeyStats stats = service.forUser(userId);
+        assertEquals(3, stats.sessions());
+
+        KeyStats.Stat a = stats.key('a');
+        KeyStats.Stat b = stats.key('b');
+        assertEquals(30, a.presses);
+        assertEquals(36, b.presses);                        // 30 + 2 typos per session
+        assertEquals(0.0, a.errorRate(), 1e-9);
+        assertEquals(6 / 36.0, b.errorRate(), 1e-9);
+        assertEquals((30 * 400 + 6 * 1) / 36.0, b.meanMillis, 1e-6);   // re-typed 'b's come 1 ms after the delete
+        assertEquals(400, b.p50Millis, 400 * 0.15);        // histogram resolution
+        assertEquals(100, a.p95Millis, 100 * 0.15);
+
+        assertEquals("b", service.slowestKeys(userId, 1).get(0).key);
+        assertEquals("b", service.mostMissedKeys(userId, 1).get(0).key);
+        assertEquals("ab", service.slowestBigrams(userId, 1).get(0).key);
+
+        Map<Character, Double> heat = service.keyboardHeat(userId);
+        assertEquals(1.0, heat.get('B'), 1e-9);
+        assertEquals(0.0, heat.get('A'), 1e-9);
+    }
+
+    @Test
+    void rebuild_matchesIncrementalAggregates() {
+        SessionRepository sessions = new SessionRepository();
+        sessions.insert(session(log("the quick brown fox", 120, 250)));
+        sessions.insert(session(log("jumps over the lazy dog", 90, 300)));
+        sessions.insert(new Session(null, userId, 12, 50, 90, 10, 10, Instant.now()));   // no log: ignored
+
+        KeyStatsRepository repo = new KeyStatsRepository();
+        byte[] incremental = repo.load(userId).toBytes();
+        assertArrayEquals(incremental, repo.rebuild(userId).toBytes());
+        assertArrayEquals(incremental, KeyStats.fromBytes(incremental).toBytes());
+    }
+
+    @Test
+    void unreadableLog_isDropped_sessionsStillSaved() {
+        SessionRepository sessions = new SessionRepository();
+        byte[] good = log("the quick brown fox", 120, 250);
+        byte[] truncated = java.util.Arrays.copyOf(good, good.length / 2);
+
+        List<Session> saved = sessions.insertBatch(List.of(session(good), session(truncated), session(good)));
+
+        assertEquals(3, saved.size());
+        assertNotNull(sessions.loadKeystrokes(saved.get(0).id));
+        assertNull(sessions.loadKeystrokes(saved.get(1).id));
+        assertNotNull(sessions.loadKeystrokes(saved.get(2).id));
+        assertEquals(2, new KeyStatsService().forUser(userId).sessions());
+    }
+
+    @Test
+    void overtypedAndNonAsciiChars_areNotReportedAsKeys() {
+        KeystrokeLog log = new KeystrokeLog("café", 16, 0);
+        long now = 0;
+        String typed = "café!!";   // two inserts past the end of the target
+        for (int pos = 0; pos < typed.length(); pos++) log.insert(now += 100_000_000L, pos, typed.charAt(pos), 0);
+
+        KeyStats stats = new KeyStats();
+        stats.addSession(log.finish());
+
+        assertEquals(List.of("a", "c", "f"), stats.keys(1).stream().map(s -> s.key).sorted().toList());
+        assertTrue(stats.bigrams(1).stream().noneMatch(s -> s.key.indexOf('\0') >= 0));
+    }
+
+    @Test
+    void userWithoutLogs_getsEmptyResults() {
+        KeyStatsService service = new KeyStatsService();
+        assertEquals(0, service.forUser(userId).sessions());
+        assertEquals(List.of(), service.slowestKeys(userId, 5));
+        assertTrue(service.keyboardHeat(userId).isEmpty());
+    }
+
+    /** Types {@code text} at {@code fastMs} per key, except each 'b' (slowMs); every 5th 'b' is typed wrong then fixed. */
+    private static byte[] log(String text, long fastMs, long slowMs) {
+        KeystrokeLog log = new KeystrokeLog(text, 64, 0);
+        long now = 0;
+        int bs = 0;
+        for (int pos = 0; pos < text.length(); pos++) {
+            char c = text.charAt(pos);
+            boolean slow = c == 'b';
+            now += (slow ? slowMs : fastMs) * 1_000_000L;
+            if (slow && bs++ % 5 == 0) {
+                log.insert(now, pos, 'x', 88);
+                now += 1_000_000L;
+                log.delete(now, pos, 8);
+                now += 1_000_000L;
+            }
+            log.insert(now, pos, c, 65);
+        }
+        return log.finish();
+    }
+
+    private Session session(byte[] keystrokes) {
+        return new Session(null, userId, 11, 60, 95, 20, 10, Instant.now(), keystrokes);
+    }
+}
@@ -0,0 +1,107 @@
+package com.typinggame.service;
+
+import com.typinggame.data.Database;
+import com.typinggame.data.DrillRepository;
+import com.typinggame.data.SessionRepository;
+import com.typinggame.data.SqliteUserRepository;
+import com.typinggame.model.Drill;
+import com.typinggame.model.Session;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.sql.*;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The materialized unlock level must match the original per-level loop after every change.
+ */
+class ProgressServiceTest {
+
+    private final ProgressService progress = new ProgressService();
+    private final SessionRepository sessions = new SessionRepository();
+    private final DrillRepository drills = new DrillRepository();
+    private int userId;
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+        userId = new SqliteUserRepository().loadUser("demo").getUserID();
+    }
+
+    @Test
+    void freshUser_hasLevelOne() throws Exception {
+        assertEquals(1, progress.unlockedUpTo(userId));
+        assertEquals(legacyUnlockedUpTo(userId), progress.unlockedUpTo(userId));
+    }
+
+    @Test
+    void randomPlayOrder_matchesLegacyAfterEverySession() throws Exception {
+        List<Drill> all = new ArrayList<>(drills.findAll());
+        all.addAll(all);                        // replays must not change anything
+        Collections.shuffle(all, new Random(302));
+
+        for (Drill d : all) {
+            sessions.insert(session(d.id));
+            assertEquals(legacyUnlockedUpTo(userId), progress.unlockedUpTo(userId), "after drill " + d.id);
+        }
+        assertEquals(drills.maxLevel(), progress.unlockedUpTo(userId));
+    }
+
+    @Test
+    void levelByLevelPlay_unlocksNextLevel() throws Exception {
+        for (int id : new int[] {11, 12, 13, 21, 22, 23}) sessions.insert(session(id));
+        assertEquals(3, progress.unlockedUpTo(userId));
+        assertEquals(legacyUnlockedUpTo(userId), progress.unlockedUpTo(userId));
+    }
+
+    @Test
+    void catalogChange_invalidatesMaterializedRow() throws Exception {
+        for (int id : new int[] {11, 12, 13}) sessions.insert(session(id));
+        assertEquals(2, progress.unlockedUpTo(userId));
+
+        // a new, unplayed Level 1 drill locks Level 2 again
+        int custom = drills.insertCustom(new Drill(0, "Extra", "extra home row", 1));
+        assertEquals(1, progress.unlockedUpTo(userId));
+        assertEquals(legacyUnlockedUpTo(userId), progress.unlockedUpTo(userId));
+
+        drills.deleteCustom(custom);
+        assertEquals(2, progress.unlockedUpTo(userId));
+    }
+
+    private Session session(int drillId) {
+        return new Session(null, userId, drillId, 40, 95, 100, 30, Instant.now());
+    }
+
+    /** The original ProgressService algorithm: two queries per level, straight off drills/sessions. */
+    private static int legacyUnlockedUpTo(int userId) throws SQLException {
+        int maxLevelInDb = new DrillRepository().maxLevel();
+        if (maxLevelInDb < 1) return 1;
+        int unlocked = 1;
+        try (Connection c = Database.getReadConnection();
+             PreparedStatement psDrills = c.prepareStatement("SELECT COUNT(*) FROM drills WHERE level = ?");
+             PreparedStatement psDone = c.prepareStatement(
+                     "SELECT COUNT(DISTINCT s.drill_id) FROM sessions s JOIN drills d ON d.id = s.drill_id " +
+                             "WHERE s.user_id = ? AND d.level = ?")) {
+            for (int level = 1; level <= maxLevelInDb; level++) {
+                psDrills.setInt(1, level);
+                int total;
+                try (ResultSet rs = psDrills.executeQuery()) { total = rs.next() ? rs.getInt(1) : 0; }
+                if (total == 0) continue;
+
+                psDone.setInt(1, userId);
+                psDone.setInt(2, level);
+                int completed;
+                try (ResultSet rs = psDone.executeQuery()) { completed = rs.next() ? rs.getInt(1) : 0; }
+
+                if (completed >= total) unlocked = Math.min(maxLevelInDb, level + 1);
+                else break;
+            }
+        }
+        return unlocked;
+    }
+}
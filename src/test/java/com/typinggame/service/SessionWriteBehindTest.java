@@ -0,0 +1,135 @@
+package com.typinggame.service;
+
+import com.typinggame.data.Database;
+import com.typinggame.data.SessionRepository;
+import com.typinggame.data.SqliteUserRepository;
+import com.typinggame.model.Session;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.sql.*;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Queued sessions are committed in batches, reported back through the given executor, and flushed on shutdown.
+ */
+class SessionWriteBehindTest {
+
+    private int userId;
+
+    @BeforeEach
+    void resetDb() throws Exception {
+        Database.forceReinitForTests();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) Files.deleteIfExists(Paths.get("typinggame.db" + suffix));
+        Database.init();
+        userId = new SqliteUserRepository().loadUser("demo").getUserID();
+    }
+
+    @Test
+    void submittedSessions_areSavedAndCalledBack() throws Exception {
+        SessionWriteBehind writer = new SessionWriteBehind(new SessionRepository(), 16);
+        List<Session> saved = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        Executor tagging = r -> { threads.add(Thread.currentThread().getName()); r.run(); };
+
+        for (int i = 0; i < 100; i++) writer.submit(session(11 + i % 3, 40 + i), saved::add, tagging);
+        assertTrue(writer.flush(10_000));
+
+        assertEquals(100, saved.size());
+        assertEquals(100, threads.size(), "every callback goes through the supplied executor");
+        assertTrue(saved.stream().allMatch(s -> s.id != null && s.id > 0));
+        assertEquals(100, countSessions());
+
+        SessionWriteBehind.Stats st = writer.stats();
+        assertEquals(100, st.written);
+        assertEquals(0, st.failed);
+        assertEquals(0, st.queueDepth);
+        assertTrue(st.batches <= 100);
+        assertEquals(0, st.inlineWrites);
+        writer.shutdown(1_000);
+    }
+
+    @Test
+    void fullQueue_neverBlocksOrWritesOnTheCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SessionRepository stuck = new SessionRepository() {
+            @Override
+            public List<Session> insertBatch(List<Session> batch) {
+                try { release.await(); } catch (InterruptedException ignore) {}
+                return super.insertBatch(batch);
+            }
+        };
+        SessionWriteBehind writer = new SessionWriteBehind(stuck, 2);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 10; i++) writer.submit(session(31, 40 + i), null, Runnable::run);
+        assertTrue(System.nanoTime() - t0 < 200_000_000L, "submit must not wait for the writer");
+        assertEquals(0, countSessions(), "nothing written on the caller's thread");
+        assertTrue(writer.stats().overflowed > 0);
+
+        release.countDown();
+        assertTrue(writer.flush(10_000));
+        assertEquals(10, countSessions());
+        assertEquals(0, writer.stats().inlineWrites);
+        writer.shutdown(1_000);
+    }
+
+    @Test
+    void shutdown_flushesQueue_andLaterSubmitsWriteInline() throws Exception {
+        SessionWriteBehind writer = new SessionWriteBehind(new SessionRepository(), 64);
+        for (int i = 0; i < 20; i++) writer.submit(session(21, 50), null, Runnable::run);
+        writer.shutdown(10_000);
+        assertEquals(20, countSessions());
+
+        writer.submit(session(22, 60), null, Runnable::run);
+        assertEquals(21, countSessions());
+        assertEquals(1, writer.stats().inlineWrites);
+    }
+
+    @Test
+    void failedBatch_isRetriedPerSession_andReportsWhatStillFails() throws Exception {
+        // every batch transaction fails; single inserts work except for drill 99
+        SessionRepository flaky = new SessionRepository() {
+            @Override
+            public List<Session> insertBatch(List<Session> batch) {
+                if (batch.size() == 1 && batch.get(0).drillId != 99) return super.insertBatch(batch);
+                throw new RuntimeException("SQLITE_BUSY");
+            }
+
+            @Override
+            public Session insert(Session s) {
+                return insertBatch(List.of(s)).get(0);
+            }
+        };
+        SessionWriteBehind writer = new SessionWriteBehind(flaky, 16);
+        List<Session> saved = new CopyOnWriteArrayList<>();
+        List<RuntimeException> errors = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 5; i++) writer.submit(session(11, 40 + i), saved::add, errors::add, Runnable::run);
+        writer.submit(session(99, 70), saved::add, errors::add, Runnable::run);
+        assertTrue(writer.flush(10_000));
+
+        assertEquals(5, saved.size());
+        assertEquals(1, errors.size());
+        assertEquals(5, countSessions());
+        assertEquals(1, writer.stats().failed);
+        writer.shutdown(1_000);
+    }
+
+    private Session session(int drillId, double wpm) {
+        return new Session(null, userId, drillId, wpm, 95, 100, 30, Instant.now());
+    }
+
+    private static int countSessions() throws SQLException {
+        try (Connection c = Database.getReadConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM sessions")) {
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.typinggame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The LRU behind ImageCache: bounded by weight, evicts least recently used first, counts loads.
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsed_byWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, String::length);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("a", k -> { loads.incrementAndGet(); return "aaaa"; });
+        cache.getOrLoad("b", k -> { loads.incrementAndGet(); return "bbbb"; });
+        assertEquals("aaaa", cache.getOrLoad("a", k -> "never"));   // hit: 'a' is now most recent
+        cache.getOrLoad("c", k -> { loads.incrementAndGet(); return "cccc"; });
+
+        assertNull(cache.peek("b"));                                 // LRU went
+        assertNotNull(cache.peek("a"));
+        assertEquals(8, cache.weight());
+        assertEquals(3, loads.get());
+        assertEquals(3, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    public void oversizedEntry_staysAlone_andReweighCanEvict() {
+        StringBuilder grows = new StringBuilder("x");
+        BoundedCache<String, CharSequence> cache = new BoundedCache<>(10, CharSequence::length);
+        cache.put("small", "12345");
+        cache.put("grows", grows);
+        assertEquals(6, cache.weight());
+
+        grows.append("0123456789");                                  // e.g. an image finished decoding
+        cache.reweigh("grows");
+        assertNull(cache.peek("small"));
+        assertEquals(11, cache.weight());                            // the newest entry is never evicted
+
+        assertNull(cache.getOrLoad("missing", k -> null));           // failed loads aren't cached
+        assertEquals(1, cache.size());
+        cache.remove("grows");
+        assertEquals(0, cache.weight());
+    }
+}
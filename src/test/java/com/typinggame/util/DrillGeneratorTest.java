@@ -0,0 +1,46 @@
+package com.typinggame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generated drills lean on the focus keys and still read as sentences.
+ */
+public class DrillGeneratorTest {
+
+    @Test
+    public void focusKeys_appearFarMoreOftenThanInRandomText() {
+        DrillGenerator gen = DrillGenerator.shared();
+        assertTrue(gen.corpusSize() > 300);
+
+        String plain = gen.generate(Map.of(), 2000, new Random(1));
+        String focused = gen.generate(Map.of("z", 1.0, "qu", 1.0), 2000, new Random(1));
+        assertTrue(share(focused, 'z') > 5 * share(plain, 'z'), "z " + share(focused, 'z') + " vs " + share(plain, 'z'));
+        assertTrue(focused.split("qu", -1).length > 5 * plain.split("qu", -1).length);
+
+        assertTrue(Character.isUpperCase(focused.charAt(0)));
+        assertTrue(focused.endsWith("."));
+        assertEquals(2000, focused.split(" ").length);
+    }
+
+    @Test
+    public void keysOutsideTheCorpus_becomeExtraTokens() {
+        DrillGenerator gen = new DrillGenerator(List.of("alpha", "beta", "Gamma", "alpha", " "));
+        assertEquals(3, gen.corpusSize());
+
+        String text = gen.generate(Map.of("7", 1.0, ";", 1.0, "B", 1.0), 200, new Random(2));
+        assertTrue(text.contains("7"));
+        assertTrue(text.contains(";"));
+        assertTrue(text.contains("Beta"));
+        assertEquals(text, gen.generate(Map.of("7", 1.0, ";", 1.0, "B", 1.0), 200, new Random(2)));
+    }
+
+    private static double share(String text, char c) {
+        return text.chars().filter(ch -> ch == c).count() / (double) text.length();
+    }
+}
@@ -0,0 +1,53 @@
+package com.typinggame.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The buffer behind LiveChartFeed: wraps at capacity and decimates to a bounded, stable set of points.
+ */
+public class SampleRingTest {
+
+    @Test
+    public void underLimit_pointsPassThrough_overLimit_bucketMeans() {
+        SampleRing ring = new SampleRing(1024);
+        double[] x = new double[10], y = new double[10];
+        for (int i = 0; i < 10; i++) ring.add(i, i * 2);
+        assertEquals(10, ring.decimate(10, x, y));
+        assertEquals(18, y[9]);
+
+        for (int i = 10; i < 40; i++) ring.add(i, i * 2);
+        int n = ring.decimate(10, x, y);                  // 40 samples -> stride 4 -> 10 buckets
+        assertEquals(10, n);
+        assertEquals(1.5, x[0]);                          // mean of 0..3
+        assertEquals(3.0, y[0]);
+        assertEquals(37.5, x[9]);
+
+        ring.add(40, 80);                                 // 41 samples -> stride 8 -> 6 buckets
+        n = ring.decimate(10, x, y);
+        assertEquals(6, n);
+        assertEquals(40, x[5]);                           // newest bucket has just the one sample
+    }
+
+    @Test
+    public void wrapsAtCapacity_keepingNewestSamples() {
+        SampleRing ring = new SampleRing(8);
+        for (int i = 0; i < 20; i++) ring.add(i, i);
+        assertEquals(8, ring.size());
+        assertEquals(20, ring.total());
+
+        double[] x = new double[8], y = new double[8];
+        assertEquals(8, ring.decimate(8, x, y));
+        assertEquals(12, x[0]);
+        assertEquals(19, x[7]);
+
+        // buckets are aligned to sample numbers: 12..19 in pairs
+        assertEquals(4, ring.decimate(4, x, y));
+        assertEquals(12.5, x[0]);
+        assertEquals(18.5, x[3]);
+
+        ring.clear();
+        assertEquals(0, ring.decimate(4, x, y));
+    }
+}
@@ -0,0 +1,99 @@
+package com.typinggame.util;
+
+import com.typinggame.util.SentenceCorpus.Difficulty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The corpus is bucketed by difficulty, and the saved index is reused until the corpus changes.
+ */
+public class SentenceCorpusTest {
+
+    private static final String EASY = "the cat sat on the mat";
+    private static final String MEDIUM = "Pack my box with five dozen liquor jugs, then ship it by noon tomorrow.";
+    private static final String HARD = "ID #4021: \"Ship 3x @ $19.99\" (Q4/FY25) -> ACME, Inc.; ref=[X-7].";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void sentences_areBucketedByDifficulty() throws Exception {
+        Path file = dir.resolve("sentences.txt");
+        Files.writeString(file, EASY + "\r\n\n   \n" + MEDIUM + "\n" + HARD + "\ncafé au lait for two", StandardCharsets.UTF_8);
+
+        SentenceCorpus corpus = SentenceCorpus.open(file);
+        assertFalse(corpus.isFromIndexFile());
+        assertEquals(4, corpus.size());
+        assertEquals(2, corpus.count(Difficulty.EASY));
+        assertEquals(1, corpus.count(Difficulty.MEDIUM));
+        assertEquals(1, corpus.count(Difficulty.HARD));
+
+        Random rnd = new Random(1);
+        assertEquals(MEDIUM, corpus.sentence(Difficulty.MEDIUM, rnd));
+        assertEquals(HARD, corpus.sentence(Difficulty.HARD, rnd));
+        Set<String> easy = new HashSet<>();
+        for (int i = 0; i < 50; i++) easy.add(corpus.sentence(Difficulty.EASY, rnd));
+        assertEquals(Set.of(EASY, "café au lait for two"), easy);
+    }
+
+    @Test
+    public void indexFile_isReusedUntilTheCorpusChanges() throws Exception {
+        Path file = dir.resolve("sentences.txt");
+        Files.write(file, List.of(EASY, MEDIUM));
+        SentenceCorpus.open(file);
+        assertTrue(Files.exists(SentenceCorpus.indexFile(file)));
+
+        SentenceCorpus reopened = SentenceCorpus.open(file);
+        assertTrue(reopened.isFromIndexFile());
+        assertEquals(MEDIUM, reopened.sentence(Difficulty.MEDIUM, new Random()));
+
+        Files.write(file, List.of(EASY, HARD, HARD));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        SentenceCorpus changed = SentenceCorpus.open(file);
+        assertFalse(changed.isFromIndexFile());
+        assertEquals(0, changed.count(Difficulty.MEDIUM));
+        assertEquals(2, changed.count(Difficulty.HARD));
+        assertNull(changed.sentence(Difficulty.MEDIUM, new Random()));
+    }
+
+    @Test
+    public void provider_fallsBackToThePangramWithoutACorpus() throws Exception {
+        try {
+            SentenceProvider.useCorpus(dir.resolve("missing.txt"));
+            assertEquals("The quick brown fox jumps over the lazy dog.", SentenceProvider.getSentence(Difficulty.HARD));
+
+            Path file = dir.resolve("sentences.txt");
+            Files.write(file, List.of(HARD));
+            SentenceProvider.useCorpus(file);
+            assertEquals(HARD, SentenceProvider.getSentence(Difficulty.HARD));
+            assertEquals(HARD, SentenceProvider.getSentence());
+        } finally {
+            SentenceProvider.useCorpus(Path.of(SentenceProvider.DEFAULT_CORPUS));
+        }
+    }
+
+    @Test
+    public void provider_picksSentenceForLevelDifficulty() throws Exception {
+        Path file = dir.resolve("levels.txt");
+        Files.writeString(file, EASY + "\n" + MEDIUM + "\n" + HARD + "\n", StandardCharsets.UTF_8);
+        SentenceProvider.useCorpus(file);
+        try {
+            assertEquals(EASY, SentenceProvider.getSentence(SentenceProvider.difficultyForLevel(1)));
+            assertEquals(MEDIUM, SentenceProvider.getSentence(SentenceProvider.difficultyForLevel(5)));
+            assertEquals(HARD, SentenceProvider.getSentence(SentenceProvider.difficultyForLevel(10)));
+        } finally {
+            SentenceProvider.useCorpus(null);
+        }
+    }
+}
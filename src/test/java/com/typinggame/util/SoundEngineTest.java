@@ -0,0 +1,79 @@
+package com.typinggame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The mixer logic behind key sounds, driven with made-up timestamps (no audio, no mixer thread).
+ */
+public class SoundEngineTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicInteger correctPlays = new AtomicInteger();
+    private final AtomicInteger errorPlays = new AtomicInteger();
+    private final SoundEngine engine = new SoundEngine(
+            new SoundEngine.Voice[]{correctPlays::incrementAndGet}, errorPlays::incrementAndGet);
+
+    @Test
+    public void burstWithinInterval_coalesces_andErrorWins() {
+        long t = 1_000 * MS;
+        engine.post(true, t);
+        assertEquals(-1, engine.pump(t));
+        assertEquals(1, correctPlays.get());
+
+        engine.post(true, t + 5 * MS);
+        engine.post(false, t + 10 * MS);
+        engine.post(true, t + 15 * MS);
+        long wait = engine.pump(t + 15 * MS);
+        assertEquals(SoundEngine.MIN_INTERVAL_NANOS - 15 * MS, wait);   // still rate limited
+        assertEquals(-1, engine.pump(t + 30 * MS));
+
+        assertEquals(1, correctPlays.get());
+        assertEquals(1, errorPlays.get());
+        SoundEngine.Stats stats = engine.stats();
+        assertEquals(4, stats.events);
+        assertEquals(2, stats.played);
+        assertEquals(2, stats.coalesced);
+        assertEquals(0, stats.dropped);
+        assertTrue(stats.maxMillis >= 25);                              // first of the burst waited 25 ms
+    }
+
+    @Test
+    public void voiceLimit_andStaleEvents_areDropped() {
+        long t = 1_000 * MS;
+        for (int i = 0; i < SoundEngine.MAX_VOICES + 1; i++) {
+            long now = t + i * SoundEngine.MIN_INTERVAL_NANOS;
+            engine.post(true, now);
+            engine.pump(now);
+        }
+        // 5 sounds in 120 ms: the fifth has no free voice
+        assertEquals(SoundEngine.MAX_VOICES, correctPlays.get());
+        assertEquals(1, engine.stats().dropped);
+
+        long later = t + 1_000 * MS;
+        engine.post(true, later);
+        engine.pump(later + SoundEngine.MAX_LATENCY_NANOS + MS);         // too late to be useful
+        assertEquals(SoundEngine.MAX_VOICES, correctPlays.get());
+        assertEquals(2, engine.stats().dropped);
+        assertEquals(-1, engine.pump(later + 500 * MS));                 // nothing left pending
+    }
+
+    @Test
+    public void muted_ignoresKeys() {
+        engine.setMuted(true);
+        engine.keyFeedback(true);
+        engine.keyFeedback(false);
+        assertEquals(-1, engine.pump(System.nanoTime()));
+        assertEquals(0, engine.stats().events);
+        assertTrue(engine.isMuted());
+
+        engine.setMuted(false);
+        engine.keyFeedback(false);
+        assertEquals(-1, engine.pump(System.nanoTime()));
+        assertEquals(1, errorPlays.get());
+    }
+}